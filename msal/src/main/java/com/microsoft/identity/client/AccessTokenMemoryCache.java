@@ -0,0 +1,175 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, process-wide, in-memory layer in front of the persisted token cache.
+ * <p>
+ * Results of silent requests are held here keyed by {@link SilentTokenRequestKey}, so that a
+ * repeated request for a still-valid access token is answered without reading (and decrypting)
+ * the {@link com.microsoft.identity.common.internal.cache.MsalOAuth2TokenCache} or dispatching a
+ * command. Entries are evicted least-recently-used first once the cache is full.
+ */
+final class AccessTokenMemoryCache {
+
+    private static final String TAG = AccessTokenMemoryCache.class.getSimpleName();
+
+    /**
+     * The maximum number of access tokens held in memory.
+     */
+    static final int MAX_ENTRIES = 256;
+
+    /**
+     * Tokens expiring within this window are treated as expired, consistent with the buffer
+     * applied when reading from the persisted cache.
+     */
+    static final long EXPIRY_BUFFER_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final AccessTokenMemoryCache sInstance = new AccessTokenMemoryCache(MAX_ENTRIES);
+
+    private final Map<SilentTokenRequestKey, IAuthenticationResult> mEntries;
+    private final AtomicLong mHitCount = new AtomicLong();
+    private final AtomicLong mMissCount = new AtomicLong();
+
+    AccessTokenMemoryCache(final int maxEntries) {
+        mEntries = new LinkedHashMap<SilentTokenRequestKey, IAuthenticationResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<SilentTokenRequestKey, IAuthenticationResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return The process-wide instance.
+     */
+    @NonNull
+    static AccessTokenMemoryCache getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Returns the cached result for the supplied key, if it holds an access token which is not
+     * expired (or about to expire).
+     *
+     * @param key The request key.
+     * @return The cached result or null.
+     */
+    @Nullable
+    IAuthenticationResult get(@NonNull final SilentTokenRequestKey key) {
+        final String methodName = ":get";
+        final IAuthenticationResult result;
+
+        synchronized (mEntries) {
+            IAuthenticationResult candidate = mEntries.get(key);
+
+            if (null != candidate && isExpired(candidate)) {
+                mEntries.remove(key);
+                candidate = null;
+            }
+
+            result = candidate;
+        }
+
+        if (null == result) {
+            mMissCount.incrementAndGet();
+        } else {
+            mHitCount.incrementAndGet();
+            Logger.verbose(TAG + methodName, "Returning access token from the in-memory cache.");
+        }
+
+        return result;
+    }
+
+    /**
+     * Writes through the result of a silent request, replacing any previous result for the key.
+     *
+     * @param key    The request key.
+     * @param result The result to cache.
+     */
+    void put(@NonNull final SilentTokenRequestKey key,
+             @NonNull final IAuthenticationResult result) {
+        if (isExpired(result)) {
+            return;
+        }
+
+        synchronized (mEntries) {
+            mEntries.put(key, result);
+        }
+    }
+
+    /**
+     * Removes every cached result belonging to the supplied account.
+     *
+     * @param homeAccountId The home account id of the account.
+     */
+    void removeAccount(@NonNull final String homeAccountId) {
+        synchronized (mEntries) {
+            final Iterator<SilentTokenRequestKey> iterator = mEntries.keySet().iterator();
+
+            while (iterator.hasNext()) {
+                if (iterator.next().belongsTo(homeAccountId)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all cached results.
+     */
+    void clear() {
+        synchronized (mEntries) {
+            mEntries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (mEntries) {
+            return mEntries.size();
+        }
+    }
+
+    long getHitCount() {
+        return mHitCount.get();
+    }
+
+    long getMissCount() {
+        return mMissCount.get();
+    }
+
+    private static boolean isExpired(@NonNull final IAuthenticationResult result) {
+        return result.getExpiresOn().getTime() - EXPIRY_BUFFER_MILLIS <= System.currentTimeMillis();
+    }
+}
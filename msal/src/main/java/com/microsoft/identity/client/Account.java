@@ -32,6 +32,7 @@ import com.microsoft.identity.common.internal.providers.oauth2.IDToken;
 import com.microsoft.identity.common.internal.util.StringUtil;
 import com.microsoft.identity.common.logging.Logger;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import static com.microsoft.identity.common.internal.cache.SchemaUtil.MISSING_FROM_THE_TOKEN_RESPONSE;
@@ -40,8 +41,9 @@ public class Account implements IAccount {
 
     private static final String TAG = Account.class.getSimpleName();
 
-    private final Map<String, ?> mIdTokenClaims;
     private final String mRawIdToken;
+    private volatile Map<String, ?> mIdTokenClaims;
+    private volatile boolean mClaimsResolved;
     private String mClientInfo;
     private String mHomeOid;
     private String mHomeTenantId;
@@ -50,15 +52,28 @@ public class Account implements IAccount {
     public Account(
             @Nullable final String clientInfo,
             @Nullable final IDToken homeTenantIdToken) {
-        mClientInfo = clientInfo;
+        this(
+                clientInfo,
+                null == homeTenantIdToken ? null : homeTenantIdToken.getRawIDToken(),
+                null == homeTenantIdToken ? null : homeTenantIdToken.getTokenClaims()
+        );
+    }
 
-        if (null != homeTenantIdToken) {
-            mIdTokenClaims = homeTenantIdToken.getTokenClaims();
-            mRawIdToken = homeTenantIdToken.getRawIDToken();
-        } else {
-            mIdTokenClaims = null;
-            mRawIdToken = null;
-        }
+    /**
+     * Creates an Account from a raw id token.
+     *
+     * @param clientInfo  The client info, for home accounts.
+     * @param rawIdToken  The raw id token, if any.
+     * @param idTokenClaims The claims of the id token, or null to parse them from the raw token on
+     *                    first use through the {@link IdTokenClaimsCache}.
+     */
+    Account(@Nullable final String clientInfo,
+            @Nullable final String rawIdToken,
+            @Nullable final Map<String, ?> idTokenClaims) {
+        mClientInfo = clientInfo;
+        mRawIdToken = rawIdToken;
+        mIdTokenClaims = idTokenClaims;
+        mClaimsResolved = null != idTokenClaims || null == rawIdToken;
     }
 
     void setId(@Nullable final String id) {
@@ -86,8 +101,8 @@ public class Account implements IAccount {
 
         if (null != clientInfo) {
             id = clientInfo.getUniqueIdentifier();
-        } else if (null != mIdTokenClaims) {
-            id = (String) mIdTokenClaims.get(MicrosoftIdToken.OBJECT_ID);
+        } else if (null != getClaims()) {
+            id = (String) getClaims().get(MicrosoftIdToken.OBJECT_ID);
         } else {
             id = mHomeOid;
         }
@@ -134,6 +149,19 @@ public class Account implements IAccount {
     @Nullable
     @Override
     public Map<String, ?> getClaims() {
+        if (!mClaimsResolved) {
+            synchronized (this) {
+                if (!mClaimsResolved) {
+                    final Map<String, ?> claims = IdTokenClaimsCache.getInstance().getClaims(mRawIdToken);
+
+                    // The cached claims are shared and unmodifiable; callers may modify the map
+                    // they get, so each account holds a copy of its own.
+                    mIdTokenClaims = null == claims ? null : new HashMap<String, Object>(claims);
+                    mClaimsResolved = true;
+                }
+            }
+        }
+
         return mIdTokenClaims;
     }
 
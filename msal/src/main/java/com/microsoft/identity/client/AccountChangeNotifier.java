@@ -0,0 +1,281 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A process-wide registry of {@link IPublicClientApplication.AccountChangeListener}s, keyed by
+ * client id, and the account snapshot used to classify changes.
+ * <p>
+ * Writes made by this library report to it directly: a token result is either a new account or
+ * updated credentials of a known one, and removed or signed out accounts are reported as such.
+ * Full account loads are diffed against the snapshot, which catches changes made outside of this
+ * process, e.g. by the broker. The first load only establishes the snapshot.
+ * <p>
+ * Nothing is tracked for a client id without listeners. Listeners are held strongly until they
+ * are unregistered.
+ */
+final class AccountChangeNotifier {
+
+    private static final String TAG = AccountChangeNotifier.class.getSimpleName();
+
+    private static final AccountChangeNotifier sInstance = new AccountChangeNotifier();
+
+    private final Map<String, Registry> mRegistries = new HashMap<>();
+
+    AccountChangeNotifier() {
+        // Intentionally blank, tests create their own instances.
+    }
+
+    /**
+     * @return The process-wide instance.
+     */
+    @NonNull
+    static AccountChangeNotifier getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Registers a listener.
+     *
+     * @param clientId The client id whose accounts to listen to.
+     * @param listener The listener.
+     * @param executor The executor to notify the listener on, or null for the main thread.
+     * @return true if the account snapshot of the client id must be established by a full load.
+     */
+    synchronized boolean register(@NonNull final String clientId,
+                                  @NonNull final IPublicClientApplication.AccountChangeListener listener,
+                                  @Nullable final Executor executor) {
+        final Registry registry = getRegistry(clientId);
+        registry.mListeners.put(listener, executor);
+        return null == registry.mSnapshot;
+    }
+
+    /**
+     * Unregisters a listener. The snapshot is dropped along with the last listener.
+     *
+     * @param clientId The client id.
+     * @param listener The listener.
+     * @return true if the client id has no listeners left.
+     */
+    synchronized boolean unregister(@NonNull final String clientId,
+                                    @NonNull final IPublicClientApplication.AccountChangeListener listener) {
+        final Registry registry = getRegistry(clientId);
+        registry.mListeners.remove(listener);
+
+        if (registry.mListeners.isEmpty()) {
+            registry.mSnapshot = null;
+            return true;
+        }
+
+        return false;
+    }
+
+    synchronized boolean hasListeners(@NonNull final String clientId) {
+        return !getRegistry(clientId).mListeners.isEmpty();
+    }
+
+    /**
+     * Reports the result of a full account load, notifying accounts added or removed since the
+     * previous one.
+     *
+     * @param clientId The client id.
+     * @param accounts All of the accounts of the client id.
+     */
+    synchronized void onAccountsLoaded(@NonNull final String clientId,
+                                       @NonNull final List<IAccount> accounts) {
+        final Registry registry = getRegistry(clientId);
+
+        if (registry.mListeners.isEmpty()) {
+            return;
+        }
+
+        final Map<String, IAccount> snapshot = new LinkedHashMap<>();
+
+        for (final IAccount account : accounts) {
+            snapshot.put(keyOf(account), account);
+        }
+
+        final Map<String, IAccount> previous = registry.mSnapshot;
+        registry.mSnapshot = snapshot;
+
+        if (null == previous) {
+            return;
+        }
+
+        for (final Map.Entry<String, IAccount> entry : snapshot.entrySet()) {
+            if (!previous.containsKey(entry.getKey())) {
+                notify(registry, Event.ADDED, entry.getValue());
+            }
+        }
+
+        for (final Map.Entry<String, IAccount> entry : previous.entrySet()) {
+            if (!snapshot.containsKey(entry.getKey())) {
+                notify(registry, Event.REMOVED, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Reports that tokens were saved for an account.
+     *
+     * @param clientId The client id.
+     * @param account  The account the tokens were saved for.
+     */
+    synchronized void onCredentialsSaved(@NonNull final String clientId,
+                                         @NonNull final IAccount account) {
+        final Registry registry = getRegistry(clientId);
+
+        if (registry.mListeners.isEmpty()) {
+            return;
+        }
+
+        final String key = keyOf(account);
+
+        if (null != registry.mSnapshot && registry.mSnapshot.containsKey(key)) {
+            registry.mSnapshot.put(key, account);
+            notify(registry, Event.CREDENTIALS_UPDATED, account);
+        } else {
+            if (null != registry.mSnapshot) {
+                registry.mSnapshot.put(key, account);
+            }
+
+            notify(registry, Event.ADDED, account);
+        }
+    }
+
+    /**
+     * Reports that an account was removed or signed out.
+     *
+     * @param clientId The client id.
+     * @param account  The account.
+     */
+    synchronized void onAccountRemoved(@NonNull final String clientId,
+                                       @NonNull final IAccount account) {
+        final Registry registry = getRegistry(clientId);
+
+        if (registry.mListeners.isEmpty()) {
+            return;
+        }
+
+        if (null != registry.mSnapshot) {
+            registry.mSnapshot.remove(keyOf(account));
+        }
+
+        notify(registry, Event.REMOVED, account);
+    }
+
+    @NonNull
+    private Registry getRegistry(@NonNull final String clientId) {
+        Registry registry = mRegistries.get(clientId);
+
+        if (null == registry) {
+            registry = new Registry();
+            mRegistries.put(clientId, registry);
+        }
+
+        return registry;
+    }
+
+    private static void notify(@NonNull final Registry registry,
+                               @NonNull final Event event,
+                               @NonNull final IAccount account) {
+        final String methodName = ":notify";
+
+        Logger.verbose(
+                TAG + methodName,
+                "Notifying [" + registry.mListeners.size() + "] listeners of " + event
+        );
+
+        for (final Map.Entry<IPublicClientApplication.AccountChangeListener, Executor> entry
+                : new ArrayList<>(registry.mListeners.entrySet())) {
+            final IPublicClientApplication.AccountChangeListener listener = entry.getKey();
+            final Runnable delivery = new Runnable() {
+                @Override
+                public void run() {
+                    switch (event) {
+                        case ADDED:
+                            listener.onAccountAdded(account);
+                            break;
+                        case REMOVED:
+                            listener.onAccountRemoved(account);
+                            break;
+                        case CREDENTIALS_UPDATED:
+                            listener.onCredentialsUpdated(account);
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            };
+
+            try {
+                if (null != entry.getValue()) {
+                    entry.getValue().execute(delivery);
+                } else {
+                    CallbackDispatcher.postToMainThread(delivery);
+                }
+            } catch (final RejectedExecutionException e) {
+                // Other listeners are still notified.
+                Logger.warn(TAG + methodName, "The executor of a listener rejected " + event + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @NonNull
+    private static String keyOf(@NonNull final IAccount account) {
+        if (account instanceof MultiTenantAccount) {
+            return ((MultiTenantAccount) account).getHomeAccountId();
+        }
+
+        return account.getId() + "." + account.getTenantId();
+    }
+
+    private enum Event {
+        ADDED,
+        REMOVED,
+        CREDENTIALS_UPDATED
+    }
+
+    private static final class Registry {
+
+        // Listeners mapped to the executor they are notified on, null for the main thread
+        private final Map<IPublicClientApplication.AccountChangeListener, Executor> mListeners =
+                new LinkedHashMap<>();
+
+        // The accounts known to exist, by home account id; null until the first full load
+        private Map<String, IAccount> mSnapshot;
+    }
+}
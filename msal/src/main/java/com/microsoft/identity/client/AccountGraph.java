@@ -0,0 +1,420 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.internal.cache.ICacheRecord;
+import com.microsoft.identity.common.internal.dto.AccountRecord;
+import com.microsoft.identity.common.internal.util.StringUtil;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A process-wide, in-memory model of the accounts each client id holds in the local cache.
+ * <p>
+ * The graph is loaded once from a full account load and then kept current by the writes this
+ * library makes itself: the records of every token result replace those of their account, and
+ * removed or signed out accounts are dropped. Repeated getAccounts and getAccount calls are then
+ * answered without dispatching a command or reading the cache. Accounts are adapted lazily, one
+ * account at a time, so an update only rebuilds the account it touched.
+ * <p>
+ * Every mutation bumps the version of the graph; a load which raced with a mutation is
+ * discarded rather than stored, since it may not reflect it.
+ */
+final class AccountGraph {
+
+    private static final String TAG = AccountGraph.class.getSimpleName();
+
+    private static final AccountGraph sInstance = new AccountGraph();
+
+    private final Map<String, Graph> mGraphs = new HashMap<>();
+
+    AccountGraph() {
+        // Intentionally blank, tests create their own instances.
+    }
+
+    /**
+     * @return The process-wide instance.
+     */
+    @NonNull
+    static AccountGraph getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Returns the version of the graph of the supplied client id. Pass it to
+     * {@link #load(String, List, long)} along with the records loaded after reading it.
+     *
+     * @param clientId The client id.
+     * @return The current version.
+     */
+    synchronized long getVersion(@NonNull final String clientId) {
+        return getGraph(clientId).mVersion;
+    }
+
+    /**
+     * Returns the accounts of the supplied client id, if they are loaded.
+     *
+     * @param clientId The client id.
+     * @return The accounts, or null if the graph must be loaded first.
+     */
+    @Nullable
+    synchronized List<IAccount> getAccounts(@NonNull final String clientId) {
+        final String methodName = ":getAccounts";
+        final Graph graph = getGraph(clientId);
+
+        if (!graph.mLoaded) {
+            return null;
+        }
+
+        final List<IAccount> result = materialize(graph);
+
+        Logger.verbose(
+                TAG + methodName,
+                "Returning [" + result.size() + "] accounts from memory."
+        );
+
+        return result;
+    }
+
+    /**
+     * Returns the {@link AccountIndex} of the accounts of the supplied client id, if they are
+     * loaded. The index is built on first use and kept until the graph changes.
+     *
+     * @param clientId The client id.
+     * @return The index, or null if the graph must be loaded first.
+     */
+    @Nullable
+    synchronized AccountIndex getIndex(@NonNull final String clientId) {
+        final Graph graph = getGraph(clientId);
+
+        if (!graph.mLoaded) {
+            return null;
+        }
+
+        if (null == graph.mIndex) {
+            graph.mIndex = AccountIndex.of(materialize(graph));
+        }
+
+        return graph.mIndex;
+    }
+
+    @NonNull
+    private static List<IAccount> materialize(@NonNull final Graph graph) {
+        final List<IAccount> result = new ArrayList<>(graph.mRecords.size());
+
+        for (final Map.Entry<String, List<ICacheRecord>> entry : graph.mRecords.entrySet()) {
+            result.addAll(materialize(graph, entry.getKey(), entry.getValue()));
+        }
+
+        return result;
+    }
+
+    @NonNull
+    private static List<IAccount> materialize(@NonNull final Graph graph,
+                                              @NonNull final String key,
+                                              @NonNull final List<ICacheRecord> records) {
+        List<IAccount> accounts = graph.mAccounts.get(key);
+
+        if (null == accounts) {
+            accounts = AccountAdapter.adapt(records);
+            graph.mAccounts.put(key, accounts);
+        }
+
+        return accounts;
+    }
+
+    /**
+     * Returns one page of the accounts of the supplied client id, if they are loaded. Only the
+     * accounts on the page are materialized; the others are filtered on their cache records.
+     *
+     * @param clientId The client id.
+     * @param query    The page to return.
+     * @return The page, or null if the graph must be loaded first.
+     */
+    @Nullable
+    synchronized AccountPage getPage(@NonNull final String clientId,
+                                     @NonNull final AccountQuery query) {
+        final Graph graph = getGraph(clientId);
+
+        if (!graph.mLoaded) {
+            return null;
+        }
+
+        final List<IAccount> accounts = new ArrayList<>();
+        long lastSequence = query.getAfterSequence();
+        boolean hasMore = false;
+
+        for (final Map.Entry<String, List<ICacheRecord>> entry : graph.mRecords.entrySet()) {
+            final long sequence = graph.mSequences.get(entry.getKey());
+
+            if (sequence <= query.getAfterSequence() || !matches(entry.getValue(), query)) {
+                continue;
+            }
+
+            if (accounts.size() >= query.getPageSize()) {
+                hasMore = true;
+                break;
+            }
+
+            accounts.addAll(materialize(graph, entry.getKey(), entry.getValue()));
+            lastSequence = sequence;
+        }
+
+        return new AccountPage(accounts, hasMore ? String.valueOf(lastSequence) : null);
+    }
+
+    private static boolean matches(@NonNull final List<ICacheRecord> records,
+                                   @NonNull final AccountQuery query) {
+        final AccountRecord homeRecord = records.get(0).getAccount();
+
+        if (null != query.getEnvironment()
+                && !query.getEnvironment().equalsIgnoreCase(homeRecord.getEnvironment())) {
+            return false;
+        }
+
+        if (null == query.getTenantId()
+                || query.getTenantId().equalsIgnoreCase(
+                StringUtil.getTenantInfo(homeRecord.getHomeAccountId()).second)) {
+            return true;
+        }
+
+        for (final ICacheRecord record : records) {
+            if (query.getTenantId().equalsIgnoreCase(record.getAccount().getRealm())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Stores the result of a full account load, unless the graph changed since the supplied
+     * version was read.
+     *
+     * @param clientId The client id.
+     * @param records  All of the cache records of the client id.
+     * @param version  The version read before the load began.
+     */
+    synchronized void load(@NonNull final String clientId,
+                           @NonNull final List<ICacheRecord> records,
+                           final long version) {
+        final String methodName = ":load";
+        final Graph graph = getGraph(clientId);
+
+        if (graph.mVersion != version) {
+            Logger.verbose(
+                    TAG + methodName,
+                    "The graph changed during the load, discarding it."
+            );
+            return;
+        }
+
+        final Map<String, List<ICacheRecord>> buckets = bucket(records);
+        final List<String> keys = new ArrayList<>(buckets.keySet());
+
+        // Accounts seen before keep their position, so continuation tokens survive a reload
+        graph.mSequences.keySet().retainAll(buckets.keySet());
+
+        for (final String key : keys) {
+            graph.sequence(key);
+        }
+
+        Collections.sort(keys, new Comparator<String>() {
+            @Override
+            public int compare(final String left, final String right) {
+                final long difference = graph.mSequences.get(left) - graph.mSequences.get(right);
+                return difference < 0 ? -1 : (difference > 0 ? 1 : 0);
+            }
+        });
+
+        graph.mRecords.clear();
+        graph.mAccounts.clear();
+        graph.mIndex = null;
+
+        for (final String key : keys) {
+            graph.mRecords.put(key, buckets.get(key));
+        }
+
+        graph.mLoaded = true;
+    }
+
+    /**
+     * Replaces the records of the account the supplied records belong to, typically those of a
+     * token result, which hold one record per tenant profile of the account.
+     *
+     * @param clientId       The client id.
+     * @param accountRecords The records of one account.
+     */
+    synchronized void update(@NonNull final String clientId,
+                             @Nullable final List<ICacheRecord> accountRecords) {
+        if (null == accountRecords || accountRecords.isEmpty()) {
+            invalidate(clientId);
+            return;
+        }
+
+        final Graph graph = getGraph(clientId);
+        graph.mVersion++;
+        graph.mIndex = null;
+
+        if (!graph.mLoaded) {
+            return;
+        }
+
+        for (final Map.Entry<String, List<ICacheRecord>> entry : bucket(accountRecords).entrySet()) {
+            graph.sequence(entry.getKey());
+            graph.mRecords.put(entry.getKey(), entry.getValue());
+            graph.mAccounts.remove(entry.getKey());
+        }
+    }
+
+    /**
+     * Drops an account from the graph of the supplied client id.
+     *
+     * @param clientId      The client id.
+     * @param homeAccountId The home account id of the account.
+     */
+    synchronized void removeAccount(@NonNull final String clientId,
+                                    @NonNull final String homeAccountId) {
+        final Graph graph = getGraph(clientId);
+        graph.mVersion++;
+        graph.mIndex = null;
+
+        final Iterator<Map.Entry<String, List<ICacheRecord>>> iterator =
+                graph.mRecords.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            final Map.Entry<String, List<ICacheRecord>> entry = iterator.next();
+
+            if (homeAccountId.equalsIgnoreCase(entry.getValue().get(0).getAccount().getHomeAccountId())) {
+                graph.mAccounts.remove(entry.getKey());
+                graph.mSequences.remove(entry.getKey());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Drops the graph of the supplied client id, so that the next read loads it again.
+     *
+     * @param clientId The client id.
+     */
+    synchronized void invalidate(@NonNull final String clientId) {
+        final Graph graph = getGraph(clientId);
+        graph.mVersion++;
+        graph.mLoaded = false;
+        graph.mIndex = null;
+        graph.mRecords.clear();
+        graph.mAccounts.clear();
+    }
+
+    /**
+     * Drops the graphs of all client ids.
+     */
+    synchronized void clear() {
+        for (final Graph graph : mGraphs.values()) {
+            graph.mVersion++;
+            graph.mLoaded = false;
+            graph.mIndex = null;
+            graph.mRecords.clear();
+            graph.mAccounts.clear();
+        }
+    }
+
+    @NonNull
+    private Graph getGraph(@NonNull final String clientId) {
+        Graph graph = mGraphs.get(clientId);
+
+        if (null == graph) {
+            graph = new Graph();
+            mGraphs.put(clientId, graph);
+        }
+
+        return graph;
+    }
+
+    /**
+     * Groups records by account, keeping the order in which the accounts appear.
+     */
+    @NonNull
+    private static Map<String, List<ICacheRecord>> bucket(@NonNull final List<ICacheRecord> records) {
+        final Map<String, List<ICacheRecord>> buckets = new LinkedHashMap<>();
+
+        for (final ICacheRecord record : records) {
+            final String key = keyOf(record.getAccount());
+            List<ICacheRecord> bucket = buckets.get(key);
+
+            if (null == bucket) {
+                bucket = new ArrayList<>();
+                buckets.put(key, bucket);
+            }
+
+            bucket.add(record);
+        }
+
+        return buckets;
+    }
+
+    /**
+     * Records of the same account share their home account id and environment.
+     */
+    @NonNull
+    private static String keyOf(@NonNull final AccountRecord accountRecord) {
+        return accountRecord.getEnvironment() + "|" + accountRecord.getHomeAccountId();
+    }
+
+    private static final class Graph {
+
+        private long mVersion;
+        private boolean mLoaded;
+
+        // The records of each account, in the order the accounts were first seen
+        private final Map<String, List<ICacheRecord>> mRecords = new LinkedHashMap<>();
+
+        // The adapted accounts, materialized on first read
+        private final Map<String, List<IAccount>> mAccounts = new HashMap<>();
+
+        // The lookup index over all accounts, built on first getAccount
+        private AccountIndex mIndex;
+
+        // The position of each account in enumeration order, assigned when first seen
+        private final Map<String, Long> mSequences = new HashMap<>();
+        private long mLastSequence;
+
+        private void sequence(@NonNull final String key) {
+            if (!mSequences.containsKey(key)) {
+                mSequences.put(key, ++mLastSequence);
+            }
+        }
+    }
+}
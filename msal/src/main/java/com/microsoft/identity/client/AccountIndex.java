@@ -0,0 +1,165 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.internal.cache.SchemaUtil;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Exact-match indexes over a list of accounts, resolving the identifier supplied to getAccount
+ * in constant time.
+ * <p>
+ * An identifier matches an account as:
+ * <ol>
+ * <li>a home account id,</li>
+ * <li>a local account id, either of the home tenant or of any guest tenant profile,</li>
+ * <li>a username, compared case-insensitively.</li>
+ * </ol>
+ * As when the accounts were matched one by one, the first account in the list matching in any
+ * of these ways wins.
+ * <p>
+ * Usernames come from the id token claims, which accounts only parse when first asked for them.
+ * They are therefore indexed lazily, and only as far into the list as a lookup needs, so that a
+ * lookup matching an early account by id does not parse the id tokens of the accounts after it.
+ */
+final class AccountIndex {
+
+    private final List<IAccount> mAccounts;
+
+    // Positions in mAccounts, by key.
+    private final Map<String, Integer> mByHomeAccountId = new HashMap<>();
+    private final Map<String, Integer> mByLocalAccountId = new HashMap<>();
+
+    // Guarded by this. The usernames of the first mUsernamesIndexed accounts.
+    private final Map<String, Integer> mByUsername = new HashMap<>();
+    private int mUsernamesIndexed;
+
+    private AccountIndex(@NonNull final List<IAccount> accounts) {
+        mAccounts = accounts;
+    }
+
+    /**
+     * Indexes the supplied accounts.
+     *
+     * @param accounts The accounts to index.
+     * @return The index.
+     */
+    @NonNull
+    static AccountIndex of(@NonNull final List<IAccount> accounts) {
+        final AccountIndex index = new AccountIndex(new ArrayList<>(accounts));
+
+        for (int i = 0; i < index.mAccounts.size(); i++) {
+            index.add(i);
+        }
+
+        return index;
+    }
+
+    /**
+     * Finds the account matching the supplied identifier.
+     *
+     * @param identifier A home account id, local account id or username.
+     * @return The matching account, or null if there is none.
+     */
+    @Nullable
+    synchronized IAccount find(@NonNull final String identifier) {
+        final String trimmedIdentifier = identifier.trim();
+        int position = Integer.MAX_VALUE;
+
+        position = earliest(position, mByHomeAccountId.get(trimmedIdentifier));
+        position = earliest(position, mByLocalAccountId.get(trimmedIdentifier));
+
+        // Only an account ahead of the match so far can win by username.
+        indexUsernames(Math.min(position, mAccounts.size()));
+        position = earliest(position, mByUsername.get(trimmedIdentifier.toLowerCase(Locale.ROOT)));
+
+        return Integer.MAX_VALUE == position ? null : mAccounts.get(position);
+    }
+
+    private static int earliest(final int position, @Nullable final Integer candidate) {
+        return null == candidate ? position : Math.min(position, candidate);
+    }
+
+    private void add(final int position) {
+        final IAccount account = mAccounts.get(position);
+
+        if (account instanceof MultiTenantAccount) {
+            final MultiTenantAccount multiTenantAccount = (MultiTenantAccount) account;
+
+            putIfAbsent(mByHomeAccountId, multiTenantAccount.getHomeAccountId(), position);
+
+            for (final ITenantProfile profile : multiTenantAccount.getTenantProfiles().values()) {
+                putIfAbsent(mByLocalAccountId, profile.getId(), position);
+            }
+        }
+
+        putIfAbsent(mByLocalAccountId, account.getId(), position);
+    }
+
+    /**
+     * Indexes the usernames of the accounts up to, excluding, the supplied position.
+     */
+    private void indexUsernames(final int end) {
+        for (; mUsernamesIndexed < end; mUsernamesIndexed++) {
+            final IAccount account = mAccounts.get(mUsernamesIndexed);
+
+            if (account instanceof MultiTenantAccount) {
+                for (final ITenantProfile profile : ((MultiTenantAccount) account).getTenantProfiles().values()) {
+                    addUsername(profile, mUsernamesIndexed);
+                }
+            }
+
+            addUsername(account, mUsernamesIndexed);
+        }
+    }
+
+    private void addUsername(@NonNull final IClaimable claimable, final int position) {
+        if (null == claimable.getClaims()) {
+            return;
+        }
+
+        final String username = SchemaUtil.getDisplayableId(claimable.getClaims());
+
+        if (!TextUtils.isEmpty(username)) {
+            putIfAbsent(mByUsername, username.toLowerCase(Locale.ROOT), position);
+        }
+    }
+
+    private static void putIfAbsent(@NonNull final Map<String, Integer> index,
+                                    @Nullable final String key,
+                                    final int position) {
+        if (!TextUtils.isEmpty(key) && !index.containsKey(key)) {
+            index.put(key, position);
+        }
+    }
+}
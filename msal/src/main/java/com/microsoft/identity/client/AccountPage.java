@@ -0,0 +1,68 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of accounts returned for an {@link AccountQuery}.
+ */
+public class AccountPage {
+
+    private final List<IAccount> mAccounts;
+    private final String mContinuationToken;
+
+    AccountPage(@NonNull final List<IAccount> accounts,
+                @Nullable final String continuationToken) {
+        mAccounts = Collections.unmodifiableList(accounts);
+        mContinuationToken = continuationToken;
+    }
+
+    /**
+     * @return The accounts of this page, at most the page size of the query.
+     */
+    @NonNull
+    public List<IAccount> getAccounts() {
+        return mAccounts;
+    }
+
+    /**
+     * @return The token to pass to {@link AccountQuery.Builder#withContinuationToken(String)} for
+     * the next page, or null if this is the last page.
+     */
+    @Nullable
+    public String getContinuationToken() {
+        return mContinuationToken;
+    }
+
+    /**
+     * @return True if there are more accounts after this page. False otherwise.
+     */
+    public boolean hasMore() {
+        return null != mContinuationToken;
+    }
+}
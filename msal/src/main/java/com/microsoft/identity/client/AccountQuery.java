@@ -0,0 +1,149 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Describes one page of an account enumeration: how many accounts to return, where the previous
+ * page ended, and optionally which environment or tenant the accounts must belong to.
+ * <p>
+ * Accounts are enumerated in the order this application first saw them. A continuation token
+ * stays valid while accounts are added or removed: accounts added later appear on later pages,
+ * and removed accounts are simply skipped.
+ */
+public class AccountQuery {
+
+    /**
+     * The page size used when none is supplied.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final int mPageSize;
+    private final long mAfterSequence;
+    private final String mEnvironment;
+    private final String mTenantId;
+
+    private AccountQuery(final int pageSize,
+                         final long afterSequence,
+                         @Nullable final String environment,
+                         @Nullable final String tenantId) {
+        mPageSize = pageSize;
+        mAfterSequence = afterSequence;
+        mEnvironment = environment;
+        mTenantId = tenantId;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The maximum number of accounts per page.
+     */
+    public int getPageSize() {
+        return mPageSize;
+    }
+
+    /**
+     * @return The environment (e.g. login.microsoftonline.com) accounts must belong to, or null.
+     */
+    @Nullable
+    public String getEnvironment() {
+        return mEnvironment;
+    }
+
+    /**
+     * @return The tenant id accounts must have a home or guest profile in, or null.
+     */
+    @Nullable
+    public String getTenantId() {
+        return mTenantId;
+    }
+
+    /**
+     * @return The position, in enumeration order, after which the page starts.
+     */
+    long getAfterSequence() {
+        return mAfterSequence;
+    }
+
+    public static class Builder {
+
+        private int mPageSize = DEFAULT_PAGE_SIZE;
+        private String mContinuationToken;
+        private String mEnvironment;
+        private String mTenantId;
+
+        private Builder() {
+            // Intentionally blank
+        }
+
+        public Builder withPageSize(final int pageSize) {
+            mPageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Continues the enumeration after the supplied page.
+         *
+         * @param continuationToken The token of the previous {@link AccountPage}, or null to
+         *                          start from the first account.
+         * @return This Builder.
+         */
+        public Builder withContinuationToken(@Nullable final String continuationToken) {
+            mContinuationToken = continuationToken;
+            return this;
+        }
+
+        public Builder withEnvironment(@Nullable final String environment) {
+            mEnvironment = environment;
+            return this;
+        }
+
+        public Builder withTenantId(@Nullable final String tenantId) {
+            mTenantId = tenantId;
+            return this;
+        }
+
+        @NonNull
+        public AccountQuery build() {
+            if (mPageSize <= 0) {
+                throw new IllegalArgumentException("Page size must be positive: " + mPageSize);
+            }
+
+            long afterSequence = 0;
+
+            if (null != mContinuationToken) {
+                try {
+                    afterSequence = Long.parseLong(mContinuationToken);
+                } catch (final NumberFormatException e) {
+                    throw new IllegalArgumentException("Malformed continuation token: " + mContinuationToken, e);
+                }
+            }
+
+            return new AccountQuery(mPageSize, afterSequence, mEnvironment, mTenantId);
+        }
+    }
+}
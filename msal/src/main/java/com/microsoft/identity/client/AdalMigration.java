@@ -0,0 +1,432 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.microsoft.identity.common.adal.internal.cache.IStorageHelper;
+import com.microsoft.identity.common.adal.internal.cache.StorageHelper;
+import com.microsoft.identity.common.internal.cache.IShareSingleSignOnState;
+import com.microsoft.identity.common.internal.cache.SharedPreferencesFileManager;
+import com.microsoft.identity.common.internal.migration.AdalMigrationAdapter;
+import com.microsoft.identity.common.internal.migration.TokenMigrationCallback;
+import com.microsoft.identity.common.internal.migration.TokenMigrationUtility;
+import com.microsoft.identity.common.internal.providers.microsoft.MicrosoftAccount;
+import com.microsoft.identity.common.internal.providers.microsoft.MicrosoftRefreshToken;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Imports the tokens of the legacy ADAL cache into the MSAL cache, once per process.
+ * <p>
+ * The migration status is persisted by the {@link AdalMigrationAdapter}, which is shared by
+ * every client id of the app. Once a migration is known to be complete, it is remembered in
+ * memory, so that later account calls neither open the legacy cache nor check the persisted
+ * status again. Callers arriving while a migration is in progress wait for that migration
+ * instead of importing the same credentials again.
+ * <p>
+ * The legacy entries are decrypted in bounded batches, in parallel, rather than one after the
+ * other. They are then imported in a single pass, because the {@link AdalMigrationAdapter} picks
+ * one refresh token per user across all entries and persists the status once it is done.
+ * <p>
+ * The caller starting a migration waits for the import to finish, for at most
+ * {@link #IMPORT_TIMEOUT_MILLIS}. If it does not, the migration is abandoned, so that callers
+ * waiting on it are always released; a later call tries again.
+ */
+final class AdalMigration {
+
+    private static final String TAG = AdalMigration.class.getSimpleName();
+
+    /**
+     * Name of the shared preference cache of ADAL.
+     */
+    static final String ADAL_SHARED_PREFERENCES = "com.microsoft.aad.adal.cache";
+
+    /**
+     * The number of legacy cache entries decrypted at a time. It bounds the number of decryptions
+     * queued on the pool at once.
+     */
+    static final int BATCH_SIZE = 64;
+
+    /**
+     * How long the caller starting a migration waits for the import of the legacy entries.
+     */
+    static final long IMPORT_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final AdalMigration sInstance = new AdalMigration();
+
+    /**
+     * Imports the decrypted legacy entries into the MSAL cache.
+     */
+    interface Importer {
+        void importCredentials(@NonNull AdalMigrationAdapter adalMigrationAdapter,
+                               @NonNull Map<String, String> credentials,
+                               @NonNull IShareSingleSignOnState<MicrosoftAccount, MicrosoftRefreshToken> cache,
+                               @NonNull TokenMigrationCallback callback);
+    }
+
+    private static final Importer TOKEN_MIGRATION_UTILITY = new Importer() {
+        @Override
+        public void importCredentials(@NonNull final AdalMigrationAdapter adalMigrationAdapter,
+                                      @NonNull final Map<String, String> credentials,
+                                      @NonNull final IShareSingleSignOnState<MicrosoftAccount, MicrosoftRefreshToken> cache,
+                                      @NonNull final TokenMigrationCallback callback) {
+            new TokenMigrationUtility<MicrosoftAccount, MicrosoftRefreshToken>()._import(
+                    adalMigrationAdapter,
+                    credentials,
+                    cache,
+                    callback
+            );
+        }
+    };
+
+    private final Object mLock = new Object();
+    private final Importer mImporter;
+    private final long mImportTimeoutMillis;
+    private boolean mComplete;
+    private List<TokenMigrationCallback> mPendingCallbacks;
+
+    @VisibleForTesting
+    AdalMigration() {
+        this(TOKEN_MIGRATION_UTILITY, IMPORT_TIMEOUT_MILLIS);
+    }
+
+    @VisibleForTesting
+    AdalMigration(@NonNull final Importer importer, final long importTimeoutMillis) {
+        mImporter = importer;
+        mImportTimeoutMillis = importTimeoutMillis;
+    }
+
+    /**
+     * @return The process-wide instance.
+     */
+    @NonNull
+    static AdalMigration getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Migrates the legacy ADAL cache, unless it already was.
+     *
+     * @param context   The application context.
+     * @param redirects The redirect uri of each client id, to migrate tokens for.
+     * @param cache     The MSAL cache to import into.
+     * @param callback  Invoked once the migration is done, with the number of accounts migrated.
+     *                  Callers who waited on a migration started by another caller are told 0.
+     */
+    void migrate(@NonNull final Context context,
+                 @NonNull final Map<String, String> redirects,
+                 @NonNull final IShareSingleSignOnState<MicrosoftAccount, MicrosoftRefreshToken> cache,
+                 @NonNull final TokenMigrationCallback callback) {
+        final String methodName = ":migrate";
+
+        final boolean complete;
+
+        synchronized (mLock) {
+            complete = mComplete;
+
+            if (!complete) {
+                if (null != mPendingCallbacks) {
+                    Logger.verbose(TAG + methodName, "Migration in progress, waiting for it.");
+                    mPendingCallbacks.add(callback);
+                    return;
+                }
+
+                mPendingCallbacks = new ArrayList<>();
+            }
+        }
+
+        if (complete) {
+            callback.onMigrationFinished(0);
+            return;
+        }
+
+        // Set by whichever comes first: the import finishing, or the migration being abandoned.
+        final AtomicBoolean finished = new AtomicBoolean();
+
+        try {
+            final AdalMigrationAdapter adalMigrationAdapter = new AdalMigrationAdapter(
+                    context,
+                    redirects,
+                    false
+            );
+
+            if (adalMigrationAdapter.getMigrationStatus()) {
+                onMigrationFinished(callback, 0);
+            } else {
+                // Load the old TokenCacheItems as key/value JSON, decrypted in parallel batches
+                final Map<String, String> credentials = decrypt(
+                        context.getSharedPreferences(ADAL_SHARED_PREFERENCES, Context.MODE_PRIVATE).getAll(),
+                        new StorageHelper(context)
+                );
+
+                final CountDownLatch imported = new CountDownLatch(1);
+
+                mImporter.importCredentials(
+                        adalMigrationAdapter,
+                        credentials,
+                        cache,
+                        new TokenMigrationCallback() {
+                            @Override
+                            public void onMigrationFinished(final int numberOfAccountsMigrated) {
+                                imported.countDown();
+
+                                if (finished.compareAndSet(false, true)) {
+                                    AdalMigration.this.onMigrationFinished(callback, numberOfAccountsMigrated);
+                                } else {
+                                    Logger.warn(TAG + methodName, "Import finished after the migration was abandoned.");
+                                }
+                            }
+                        }
+                );
+
+                if (!imported.await(mImportTimeoutMillis, TimeUnit.MILLISECONDS)
+                        && finished.compareAndSet(false, true)) {
+                    Logger.warn(TAG + methodName, "Import did not finish in time, abandoning the migration.");
+                    abandon(callback);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Logger.warn(TAG + methodName, "Interrupted while migrating the ADAL cache.");
+            Thread.currentThread().interrupt();
+
+            if (finished.compareAndSet(false, true)) {
+                abandon(callback);
+            }
+        } catch (final RuntimeException e) {
+            Logger.error(TAG + methodName, "Failed to migrate the ADAL cache.", e);
+            finished.set(true);
+            abandon();
+            throw e;
+        }
+    }
+
+    /**
+     * Decrypts the entries of the legacy cache in batches of {@link #BATCH_SIZE}, each batch in
+     * parallel on a pool which lives for the duration of the migration. Entries which cannot be
+     * decrypted are skipped, as {@link SharedPreferencesFileManager#getAll()} does.
+     *
+     * @param entries       The encrypted entries, as stored in shared preferences.
+     * @param storageHelper Decrypts the entries.
+     * @return The decrypted entries.
+     */
+    @NonNull
+    static Map<String, String> decrypt(@NonNull final Map<String, ?> entries,
+                                       @NonNull final IStorageHelper storageHelper)
+            throws InterruptedException {
+        final ExecutorService pool = BackgroundExecutor.createPool("msal-adal-migration", null);
+
+        try {
+            return decrypt(entries, storageHelper, pool, BATCH_SIZE);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @VisibleForTesting
+    @NonNull
+    static Map<String, String> decrypt(@NonNull final Map<String, ?> entries,
+                                       @NonNull final IStorageHelper storageHelper,
+                                       @NonNull final ExecutorService pool,
+                                       final int batchSize)
+            throws InterruptedException {
+        final String methodName = ":decrypt";
+        final Map<String, String> credentials = new HashMap<>(entries.size());
+        final List<Callable<Map.Entry<String, String>>> batch = new ArrayList<>(batchSize);
+
+        for (final Map.Entry<String, ?> entry : entries.entrySet()) {
+            if (!(entry.getValue() instanceof String)) {
+                continue;
+            }
+
+            batch.add(decryptTask(entry.getKey(), (String) entry.getValue(), storageHelper));
+
+            if (batch.size() == batchSize) {
+                runBatch(pool, batch, credentials);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            runBatch(pool, batch, credentials);
+        }
+
+        Logger.verbose(
+                TAG + methodName,
+                "Decrypted [" + credentials.size() + "] of [" + entries.size() + "] legacy cache entries."
+        );
+
+        return credentials;
+    }
+
+    /**
+     * Runs a batch of decryptions, and then empties it.
+     */
+    private static void runBatch(@NonNull final ExecutorService pool,
+                                @NonNull final List<Callable<Map.Entry<String, String>>> batch,
+                                @NonNull final Map<String, String> credentials)
+            throws InterruptedException {
+        final String methodName = ":runBatch";
+
+        for (final Future<Map.Entry<String, String>> future : pool.invokeAll(batch)) {
+            try {
+                final Map.Entry<String, String> credential = future.get();
+
+                if (null != credential) {
+                    credentials.put(credential.getKey(), credential.getValue());
+                }
+            } catch (final ExecutionException e) {
+                Logger.warn(TAG + methodName, "Failed to decrypt a legacy cache entry: " + e.getCause());
+            }
+        }
+
+        batch.clear();
+    }
+
+    @NonNull
+    private static Callable<Map.Entry<String, String>> decryptTask(@NonNull final String key,
+                                                                   @NonNull final String encryptedValue,
+                                                                   @NonNull final IStorageHelper storageHelper) {
+        return new Callable<Map.Entry<String, String>>() {
+            @Override
+            public Map.Entry<String, String> call() throws Exception {
+                final String value = storageHelper.decrypt(encryptedValue);
+
+                if (null == value) {
+                    return null;
+                }
+
+                return new AbstractMap.SimpleImmutableEntry<>(key, value);
+            }
+        };
+    }
+
+    /**
+     * @return True if a migration is known to be complete in this process.
+     */
+    boolean isComplete() {
+        synchronized (mLock) {
+            return mComplete;
+        }
+    }
+
+    /**
+     * Forgets that the migration is complete, so that the next call checks the persisted status
+     * again.
+     */
+    @VisibleForTesting
+    void reset() {
+        synchronized (mLock) {
+            mComplete = false;
+            mPendingCallbacks = null;
+        }
+    }
+
+    /**
+     * Releases the callers waiting on a migration which failed, without marking it complete, so
+     * that a later call tries again.
+     */
+    private void abandon() {
+        final List<TokenMigrationCallback> pendingCallbacks;
+
+        synchronized (mLock) {
+            pendingCallbacks = mPendingCallbacks;
+            mPendingCallbacks = null;
+        }
+
+        release(pendingCallbacks);
+    }
+
+    /**
+     * As {@link #abandon()}, also releasing the caller who started the migration.
+     */
+    private void abandon(@NonNull final TokenMigrationCallback callback) {
+        try {
+            callback.onMigrationFinished(0);
+        } finally {
+            abandon();
+        }
+    }
+
+    private void onMigrationFinished(@NonNull final TokenMigrationCallback callback,
+                                     final int numberOfAccountsMigrated) {
+        final List<TokenMigrationCallback> pendingCallbacks;
+
+        synchronized (mLock) {
+            mComplete = true;
+            pendingCallbacks = mPendingCallbacks;
+            mPendingCallbacks = null;
+        }
+
+        try {
+            callback.onMigrationFinished(numberOfAccountsMigrated);
+        } finally {
+            release(pendingCallbacks);
+        }
+    }
+
+    /**
+     * Tells every waiting caller the migration is done. A callback which throws does not keep the
+     * others from being released; the first exception is rethrown once all of them were.
+     */
+    private static void release(@Nullable final List<TokenMigrationCallback> pendingCallbacks) {
+        final String methodName = ":release";
+
+        if (null == pendingCallbacks) {
+            return;
+        }
+
+        RuntimeException thrown = null;
+
+        for (final TokenMigrationCallback pendingCallback : pendingCallbacks) {
+            try {
+                pendingCallback.onMigrationFinished(0);
+            } catch (final RuntimeException e) {
+                if (null == thrown) {
+                    thrown = e;
+                } else {
+                    Logger.error(TAG + methodName, "Another migration callback threw.", e);
+                }
+            }
+        }
+
+        if (null != thrown) {
+            throw thrown;
+        }
+    }
+}
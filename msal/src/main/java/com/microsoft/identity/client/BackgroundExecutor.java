@@ -0,0 +1,230 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.configuration.ExecutorConfiguration;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The executor a {@link PublicClientApplication} prepares requests on.
+ * <p>
+ * Tasks run on the executor set through
+ * {@link PublicClientApplicationConfiguration#setBackgroundExecutor(Executor)} if there is one,
+ * otherwise on a bounded pool owned by this instance and sized by the
+ * {@link ExecutorConfiguration}, so that one busy PublicClientApplication cannot starve another.
+ * Either way, the tasks are counted to provide {@link ExecutorMetrics}.
+ */
+final class BackgroundExecutor implements Executor {
+
+    private static final String TAG = BackgroundExecutor.class.getSimpleName();
+
+    static final int DEFAULT_MAX_POOL_SIZE = 4;
+
+    static final int DEFAULT_QUEUE_CAPACITY = 128;
+
+    /**
+     * Idle pool threads are let go after this long, so that an unused PublicClientApplication
+     * does not hold on to threads.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final AtomicInteger sPoolCount = new AtomicInteger();
+
+    private final PublicClientApplicationConfiguration mConfiguration;
+    private final Object mPoolLock = new Object();
+    private ThreadPoolExecutor mPool;
+
+    private final AtomicInteger mQueuedCount = new AtomicInteger();
+    private final AtomicInteger mActiveCount = new AtomicInteger();
+    private final AtomicLong mCompletedCount = new AtomicLong();
+    private final AtomicLong mRejectedCount = new AtomicLong();
+
+    BackgroundExecutor(@NonNull final PublicClientApplicationConfiguration configuration) {
+        mConfiguration = configuration;
+    }
+
+    /**
+     * Runs the supplied task in the background.
+     *
+     * @param task The task to run.
+     * @throws RejectedExecutionException if the executor is saturated and rejects the task.
+     */
+    @Override
+    public void execute(@NonNull final Runnable task) {
+        final String methodName = ":execute";
+        final Executor delegate = getDelegate();
+
+        mQueuedCount.incrementAndGet();
+
+        try {
+            delegate.execute(new Runnable() {
+                @Override
+                public void run() {
+                    mQueuedCount.decrementAndGet();
+                    mActiveCount.incrementAndGet();
+
+                    try {
+                        task.run();
+                    } finally {
+                        mActiveCount.decrementAndGet();
+                        mCompletedCount.incrementAndGet();
+                    }
+                }
+            });
+        } catch (final RejectedExecutionException exception) {
+            mQueuedCount.decrementAndGet();
+            mRejectedCount.incrementAndGet();
+            Logger.warn(TAG + methodName, "Background task rejected: " + getMetrics());
+            throw exception;
+        }
+    }
+
+    /**
+     * @return A snapshot of the activity of this executor.
+     */
+    @NonNull
+    ExecutorMetrics getMetrics() {
+        return new ExecutorMetrics(
+                mActiveCount.get(),
+                mQueuedCount.get(),
+                mCompletedCount.get(),
+                mRejectedCount.get()
+        );
+    }
+
+    @NonNull
+    private Executor getDelegate() {
+        final Executor injected = mConfiguration.getBackgroundExecutor();
+
+        if (null != injected) {
+            return injected;
+        }
+
+        synchronized (mPoolLock) {
+            if (null == mPool) {
+                mPool = createPool(
+                        "msal-pca-" + sPoolCount.incrementAndGet(),
+                        mConfiguration.getExecutorConfiguration()
+                );
+            }
+
+            return mPool;
+        }
+    }
+
+    /**
+     * Creates a bounded pool with named threads.
+     *
+     * @param name          The prefix of the names of the pool threads.
+     * @param configuration The configuration of the pool, if any.
+     * @return The pool.
+     */
+    @NonNull
+    static ThreadPoolExecutor createPool(@NonNull final String name,
+                                         @Nullable final ExecutorConfiguration configuration) {
+        int maxPoolSize = DEFAULT_MAX_POOL_SIZE;
+        int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        ExecutorConfiguration.RejectionPolicy rejectionPolicy = ExecutorConfiguration.RejectionPolicy.ABORT;
+
+        if (null != configuration) {
+            if (configuration.getMaxPoolSize() > 0) {
+                maxPoolSize = configuration.getMaxPoolSize();
+            }
+
+            if (configuration.getQueueCapacity() > 0) {
+                queueCapacity = configuration.getQueueCapacity();
+            }
+
+            if (null != configuration.getRejectionPolicy()) {
+                rejectionPolicy = configuration.getRejectionPolicy();
+            }
+        }
+
+        final RejectedExecutionHandler rejectedExecutionHandler =
+                rejectionPolicy == ExecutorConfiguration.RejectionPolicy.CALLER_RUNS
+                        ? new CallerRunsOffMainThreadPolicy()
+                        : new ThreadPoolExecutor.AbortPolicy();
+
+        // With an upper bound on the queue, ThreadPoolExecutor only grows past its core size once
+        // the queue is full. Core and max are therefore equal, and idle core threads time out.
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                maxPoolSize,
+                maxPoolSize,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(queueCapacity),
+                newThreadFactory(name),
+                rejectedExecutionHandler
+        );
+        pool.allowCoreThreadTimeOut(true);
+
+        return pool;
+    }
+
+    /**
+     * Runs a rejected task on the calling thread, unless that thread is the main thread. Requests
+     * are prepared on these pools, tenant discovery included, which must not block the UI; a
+     * saturated pool therefore fails a main-thread caller rather than running there.
+     */
+    private static final class CallerRunsOffMainThreadPolicy implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(@NonNull final Runnable task,
+                                      @NonNull final ThreadPoolExecutor pool) {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                throw new RejectedExecutionException("Saturated pool, not running on the main thread.");
+            }
+
+            if (!pool.isShutdown()) {
+                task.run();
+            }
+        }
+    }
+
+    @NonNull
+    static ThreadFactory newThreadFactory(@NonNull final String name) {
+        final AtomicInteger threadCount = new AtomicInteger();
+
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull final Runnable runnable) {
+                return new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            }
+        };
+    }
+}
@@ -0,0 +1,104 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.accounts.AccountManager;
+import android.accounts.OnAccountsUpdateListener;
+import android.content.Context;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.common.adal.internal.AuthenticationConstants;
+import com.microsoft.identity.common.logging.Logger;
+
+/**
+ * Watches the accounts the broker keeps in the {@link AccountManager}, so that account changes
+ * made through the broker, possibly by other apps, can be picked up without polling.
+ * <p>
+ * Where the device does not let this app observe the broker's accounts, the watcher is a no-op.
+ */
+final class BrokerAccountWatcher {
+
+    private static final String TAG = BrokerAccountWatcher.class.getSimpleName();
+
+    private final Context mContext;
+    private final Runnable mOnAccountsChanged;
+    private OnAccountsUpdateListener mListener;
+
+    /**
+     * @param context           The application context.
+     * @param onAccountsChanged Run on the main thread whenever the broker's accounts change.
+     */
+    BrokerAccountWatcher(@NonNull final Context context,
+                         @NonNull final Runnable onAccountsChanged) {
+        mContext = context;
+        mOnAccountsChanged = onAccountsChanged;
+    }
+
+    synchronized void start() {
+        final String methodName = ":start";
+
+        if (null != mListener) {
+            return;
+        }
+
+        final OnAccountsUpdateListener listener = new OnAccountsUpdateListener() {
+            @Override
+            public void onAccountsUpdated(final android.accounts.Account[] accounts) {
+                mOnAccountsChanged.run();
+            }
+        };
+
+        try {
+            final AccountManager accountManager = AccountManager.get(mContext);
+
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                accountManager.addOnAccountsUpdatedListener(
+                        listener,
+                        null, // main thread
+                        false,
+                        new String[]{AuthenticationConstants.Broker.BROKER_ACCOUNT_TYPE}
+                );
+            } else {
+                accountManager.addOnAccountsUpdatedListener(listener, null, false);
+            }
+
+            mListener = listener;
+        } catch (final SecurityException e) {
+            Logger.warn(
+                    TAG + methodName,
+                    "Broker accounts cannot be observed: " + e.getMessage()
+            );
+        }
+    }
+
+    synchronized void stop() {
+        if (null == mListener) {
+            return;
+        }
+
+        AccountManager.get(mContext).removeOnAccountsUpdatedListener(mListener);
+        mListener = null;
+    }
+}
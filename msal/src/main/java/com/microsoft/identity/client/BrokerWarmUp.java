@@ -0,0 +1,262 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.accounts.AccountManager;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.ServiceConnection;
+import android.os.IBinder;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Starts the broker ahead of silent requests which are going to need it.
+ * <p>
+ * Silent requests try the local controller first and fall back to the broker. When the local
+ * cache holds no account for a request, the local attempt cannot succeed, and the broker's
+ * process start is paid for after it. Binding to the broker's authenticator service while the
+ * request runs brings the broker process up in parallel with the local attempt, so the broker
+ * controller finds it running. The broker controller's own bind and hello handshake are done by
+ * the common library and are not started ahead of time.
+ */
+final class BrokerWarmUp {
+
+    private static final String TAG = BrokerWarmUp.class.getSimpleName();
+
+    /**
+     * Connects to a broker.
+     */
+    interface Connector {
+        /**
+         * @return True if the connection is being established.
+         */
+        boolean connect(@NonNull Context applicationContext,
+                        @NonNull String brokerPackage,
+                        @NonNull ServiceConnection connection);
+
+        void disconnect(@NonNull Context applicationContext,
+                        @NonNull ServiceConnection connection);
+    }
+
+    private static final BrokerWarmUp sInstance = new BrokerWarmUp(new Connector() {
+        @Override
+        public boolean connect(@NonNull final Context applicationContext,
+                               @NonNull final String brokerPackage,
+                               @NonNull final ServiceConnection connection) {
+            final Intent intent = new Intent(AccountManager.ACTION_AUTHENTICATOR_INTENT);
+            intent.setPackage(brokerPackage);
+
+            return applicationContext.bindService(intent, connection, Context.BIND_AUTO_CREATE);
+        }
+
+        @Override
+        public void disconnect(@NonNull final Context applicationContext,
+                               @NonNull final ServiceConnection connection) {
+            applicationContext.unbindService(connection);
+        }
+    });
+
+    private final Connector mConnector;
+
+    private final AtomicLong mWarmUpCount = new AtomicLong();
+    private final AtomicLong mBrokerStartUpMillis = new AtomicLong();
+
+    @VisibleForTesting
+    BrokerWarmUp(@NonNull final Connector connector) {
+        mConnector = connector;
+    }
+
+    /**
+     * @return The process-wide instance.
+     */
+    @NonNull
+    static BrokerWarmUp getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Prepares a warm-up for a request. Nothing is started until {@link Ticket#start(String)} is
+     * called, so that the decision whether the broker is needed can be taken off the request path.
+     *
+     * @param applicationContext The application context.
+     * @return The warm-up, which must be finished once the request completes.
+     */
+    @NonNull
+    Ticket newTicket(@NonNull final Context applicationContext) {
+        return new Ticket(applicationContext);
+    }
+
+    /**
+     * @return The number of warm-ups started.
+     */
+    long getWarmUpCount() {
+        return mWarmUpCount.get();
+    }
+
+    /**
+     * @return The total time the broker took to start up in warm-ups which it completed before
+     * their request did, in milliseconds.
+     */
+    long getBrokerStartUpMillis() {
+        return mBrokerStartUpMillis.get();
+    }
+
+    /**
+     * A warm-up of a request.
+     */
+    final class Ticket implements ServiceConnection {
+
+        private final Context mApplicationContext;
+
+        // Guarded by this.
+        private long mStartedAt = -1;
+        private long mConnectedAt = -1;
+        private boolean mFinished;
+
+        Ticket(@NonNull final Context applicationContext) {
+            mApplicationContext = applicationContext;
+        }
+
+        @Override
+        public void onServiceConnected(final ComponentName name, final IBinder service) {
+            onConnected(SystemClock.elapsedRealtime());
+        }
+
+        @Override
+        public void onServiceDisconnected(final ComponentName name) {
+            // Nothing to do, the connection is released when the request completes.
+        }
+
+        /**
+         * Starts the broker, unless the request has already completed.
+         *
+         * @param brokerPackage The package name of the trusted broker.
+         * @return True if the broker is being started.
+         */
+        boolean start(@NonNull final String brokerPackage) {
+            return start(brokerPackage, SystemClock.elapsedRealtime());
+        }
+
+        /**
+         * Ends the warm-up and reports the broker start-up time. Safe to call more than once, and
+         * whether or not the warm-up was started.
+         */
+        void finish() {
+            finish(SystemClock.elapsedRealtime());
+        }
+
+        @VisibleForTesting
+        synchronized boolean start(@NonNull final String brokerPackage, final long startedAt) {
+            final String methodName = ":start";
+
+            if (mFinished || mStartedAt >= 0) {
+                return false;
+            }
+
+            boolean connecting;
+
+            try {
+                connecting = mConnector.connect(mApplicationContext, brokerPackage, this);
+            } catch (final SecurityException e) {
+                Logger.warn(TAG + methodName, "Not allowed to bind to the broker: " + e.getMessage());
+                connecting = false;
+            }
+
+            if (!connecting) {
+                // A failed bind is still released.
+                mFinished = true;
+                disconnect();
+                return false;
+            }
+
+            mStartedAt = startedAt;
+            mWarmUpCount.incrementAndGet();
+            Logger.verbose(TAG + methodName, "Warming up the broker.");
+
+            return true;
+        }
+
+        @VisibleForTesting
+        synchronized void onConnected(final long connectedAt) {
+            if (!mFinished && mConnectedAt < 0) {
+                mConnectedAt = connectedAt;
+            }
+        }
+
+        /**
+         * @return The broker start-up time, in milliseconds, or 0 if the broker did not start up
+         * before the request completed.
+         */
+        @VisibleForTesting
+        long finish(final long finishedAt) {
+            final String methodName = ":finish";
+            final long startUpMillis;
+
+            synchronized (this) {
+                if (mFinished) {
+                    return 0;
+                }
+
+                mFinished = true;
+
+                if (mStartedAt < 0) {
+                    // Never started, there is nothing to release.
+                    return 0;
+                }
+
+                // Only start-up which completed before the request did is known. This is an upper
+                // bound: the broker controller may have started connecting before the broker was
+                // fully up.
+                startUpMillis = mConnectedAt < 0 ? 0 : Math.min(mConnectedAt, finishedAt) - mStartedAt;
+            }
+
+            disconnect();
+            mBrokerStartUpMillis.addAndGet(startUpMillis);
+
+            Logger.info(
+                    TAG + methodName,
+                    "Broker warm-up finished, broker start-up time: [" + startUpMillis + "] ms, total: ["
+                            + mBrokerStartUpMillis.get() + "] ms over [" + mWarmUpCount.get() + "] warm-ups."
+            );
+
+            return startUpMillis;
+        }
+
+        private void disconnect() {
+            try {
+                mConnector.disconnect(mApplicationContext, this);
+            } catch (final IllegalArgumentException e) {
+                // Not bound.
+                Logger.verbose(TAG + ":disconnect", "Broker connection was not bound.");
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.exception.MsalException;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Delivers the results of token requests to their callbacks.
+ * <p>
+ * By default callbacks are invoked on the main thread. A caller may instead supply an
+ * {@link Executor}, either per request with {@link TokenParameters.Builder#withCallbackExecutor(Executor)}
+ * or per application with {@link PublicClientApplicationConfiguration#setCallbackExecutor(Executor)};
+ * the callback is then wrapped so that it hands its results to that executor itself.
+ * <p>
+ * Results which MSAL produces itself, from memory or for requests failing before they are
+ * dispatched, reach a wrapped callback from the worker thread. The results of commands, and so of
+ * the silent requests merged with them, are posted to the main thread by the command dispatcher
+ * before the wrapped callback sees them; for those the executor only decides where the callback
+ * runs, not whether the main thread is involved.
+ */
+final class CallbackDispatcher {
+
+    /**
+     * Implemented by callbacks which may be invoked on any thread, because they either complete
+     * a {@link MsalFuture} or hand their results to a caller supplied executor themselves.
+     */
+    interface AnyThreadCallback {
+    }
+
+    private static Handler sMainHandler;
+
+    private CallbackDispatcher() {
+    }
+
+    /**
+     * Delivers a result to a callback from a thread other than the one it was requested on.
+     * Callbacks which may be invoked on any thread are invoked directly, all others are posted to
+     * the main thread.
+     *
+     * @param callback The callback the result is for.
+     * @param delivery Invokes the callback.
+     */
+    static void deliver(@Nullable final Object callback, @NonNull final Runnable delivery) {
+        if (callback instanceof AnyThreadCallback) {
+            delivery.run();
+        } else {
+            postToMainThread(delivery);
+        }
+    }
+
+    /**
+     * As {@link #deliver(Object, Runnable)}, but also invokes the callback directly if already on
+     * the main thread.
+     */
+    static void dispatch(@Nullable final Object callback, @NonNull final Runnable delivery) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            delivery.run();
+        } else {
+            deliver(callback, delivery);
+        }
+    }
+
+    /**
+     * Posts to the main thread, through a {@link Handler} shared by all requests.
+     */
+    static void postToMainThread(@NonNull final Runnable runnable) {
+        getMainHandler().post(runnable);
+    }
+
+    /**
+     * Resolves the executor the callback of a request is to be invoked on.
+     *
+     * @return The executor set on the request, else the one set on the configuration, else null
+     * for the main thread.
+     */
+    @Nullable
+    static Executor getCallbackExecutor(@NonNull final TokenParameters tokenParameters,
+                                        @NonNull final PublicClientApplicationConfiguration configuration) {
+        if (null != tokenParameters.getCallbackExecutor()) {
+            return tokenParameters.getCallbackExecutor();
+        }
+
+        return configuration.getCallbackExecutor();
+    }
+
+    /**
+     * Resolves the executor the callback of a batch of requests is to be invoked on.
+     *
+     * @return The first executor set on a request of the batch, else the one set on the
+     * configuration, else null for the main thread.
+     */
+    @Nullable
+    static Executor getCallbackExecutor(@NonNull final List<? extends TokenParameters> tokenParameters,
+                                        @NonNull final PublicClientApplicationConfiguration configuration) {
+        for (final TokenParameters parameters : tokenParameters) {
+            if (null != parameters.getCallbackExecutor()) {
+                return parameters.getCallbackExecutor();
+            }
+        }
+
+        return configuration.getCallbackExecutor();
+    }
+
+    /**
+     * Wraps a callback so that it is invoked on the supplied executor.
+     *
+     * @param callback The callback, which may be an {@link AuthenticationCallback}.
+     * @param executor The executor, or null for the main thread.
+     * @return The callback to hand to the request, which is the supplied one if no wrapping is needed.
+     */
+    @Nullable
+    static SilentAuthenticationCallback wrap(@Nullable final SilentAuthenticationCallback callback,
+                                             @Nullable final Executor executor) {
+        if (null == callback || null == executor || callback instanceof AnyThreadCallback) {
+            return callback;
+        }
+
+        if (callback instanceof AuthenticationCallback) {
+            return new ExecutorAuthenticationCallback((AuthenticationCallback) callback, executor);
+        }
+
+        return new ExecutorSilentAuthenticationCallback(callback, executor);
+    }
+
+    /**
+     * Wraps a batch callback so that it is invoked on the supplied executor.
+     *
+     * @param callback The callback.
+     * @param executor The executor, or null for the main thread.
+     * @return The callback to hand to the batch, which is the supplied one if no wrapping is needed.
+     */
+    @NonNull
+    static BatchSilentAuthenticationCallback wrap(@NonNull final BatchSilentAuthenticationCallback callback,
+                                                  @Nullable final Executor executor) {
+        if (null == executor || callback instanceof AnyThreadCallback) {
+            return callback;
+        }
+
+        return new ExecutorBatchSilentAuthenticationCallback(callback, executor);
+    }
+
+    private static synchronized Handler getMainHandler() {
+        if (null == sMainHandler) {
+            sMainHandler = new Handler(Looper.getMainLooper());
+        }
+
+        return sMainHandler;
+    }
+
+    private static class ExecutorSilentAuthenticationCallback
+            implements SilentAuthenticationCallback, AnyThreadCallback {
+
+        private final SilentAuthenticationCallback mCallback;
+        final Executor mExecutor;
+
+        ExecutorSilentAuthenticationCallback(@NonNull final SilentAuthenticationCallback callback,
+                                             @NonNull final Executor executor) {
+            mCallback = callback;
+            mExecutor = executor;
+        }
+
+        @Override
+        public void onSuccess(final IAuthenticationResult authenticationResult) {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    mCallback.onSuccess(authenticationResult);
+                }
+            });
+        }
+
+        @Override
+        public void onError(final MsalException exception) {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    mCallback.onError(exception);
+                }
+            });
+        }
+    }
+
+    private static final class ExecutorAuthenticationCallback
+            extends ExecutorSilentAuthenticationCallback implements AuthenticationCallback {
+
+        private final AuthenticationCallback mCallback;
+
+        ExecutorAuthenticationCallback(@NonNull final AuthenticationCallback callback,
+                                       @NonNull final Executor executor) {
+            super(callback, executor);
+            mCallback = callback;
+        }
+
+        @Override
+        public void onCancel() {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    mCallback.onCancel();
+                }
+            });
+        }
+    }
+
+    private static final class ExecutorBatchSilentAuthenticationCallback
+            implements BatchSilentAuthenticationCallback, AnyThreadCallback {
+
+        private final BatchSilentAuthenticationCallback mCallback;
+        private final Executor mExecutor;
+
+        ExecutorBatchSilentAuthenticationCallback(@NonNull final BatchSilentAuthenticationCallback callback,
+                                                  @NonNull final Executor executor) {
+            mCallback = callback;
+            mExecutor = executor;
+        }
+
+        @Override
+        public void onCompleted(@NonNull final List<SilentTokenResult> results) {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    mCallback.onCompleted(results);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,241 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.microsoft.identity.common.adal.internal.cache.StorageHelper;
+import com.microsoft.identity.common.adal.internal.util.JsonExtensions;
+import com.microsoft.identity.common.adal.internal.util.StringExtensions;
+import com.microsoft.identity.common.internal.cache.ICacheRecord;
+import com.microsoft.identity.common.internal.cache.ISharedPreferencesFileManager;
+import com.microsoft.identity.common.internal.cache.SharedPreferencesFileManager;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.List;
+
+import static com.microsoft.identity.client.SingleAccountPublicClientApplication.CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY;
+import static com.microsoft.identity.client.SingleAccountPublicClientApplication.SINGLE_ACCOUNT_CREDENTIAL_SHARED_PREFERENCES;
+
+/**
+ * A process-wide, versioned in-memory snapshot of the current account of the
+ * {@link SingleAccountPublicClientApplication}, backed by encrypted shared preferences.
+ * <p>
+ * The shared preferences are decrypted and parsed once per process, on first read; every later
+ * read is answered from the snapshot. An update only re-encrypts and writes the account when its
+ * serialized records differ from the snapshot, and only then moves the version forward.
+ * <p>
+ * Snapshots are immutable and published through a volatile field, so readers never take a lock
+ * and never wait on a writer, even while it is encrypting or writing to disk. Writers, and the
+ * first read from disk, are serialized on a lock owned by this cache; there is one cache per
+ * shared preferences file, shared by every SingleAccountPublicClientApplication in the process.
+ */
+final class CurrentAccountCache {
+
+    private static final String TAG = CurrentAccountCache.class.getSimpleName();
+
+    private static CurrentAccountCache sInstance;
+
+    private final ISharedPreferencesFileManager mFileManager;
+    private final Object mWriteLock = new Object();
+    private volatile Snapshot mSnapshot;
+
+    /**
+     * An immutable view of the current account at a given version.
+     */
+    static final class Snapshot {
+        private final long mVersion;
+        private final String mJson;
+        private final MultiTenantAccount mAccount;
+
+        private Snapshot(final long version,
+                         @Nullable final String json,
+                         @Nullable final MultiTenantAccount account) {
+            mVersion = version;
+            mJson = json;
+            mAccount = account;
+        }
+
+        /**
+         * @return The version of the snapshot. It increases every time the current account
+         * changes in this process.
+         */
+        long getVersion() {
+            return mVersion;
+        }
+
+        /**
+         * @return The current account, or null if there is none.
+         */
+        @Nullable
+        MultiTenantAccount getAccount() {
+            return mAccount;
+        }
+    }
+
+    @VisibleForTesting
+    CurrentAccountCache(@NonNull final ISharedPreferencesFileManager fileManager) {
+        mFileManager = fileManager;
+    }
+
+    /**
+     * @param context The application context, used to open the on-disk store on first use.
+     * @return The process-wide instance.
+     */
+    @NonNull
+    static synchronized CurrentAccountCache getInstance(@NonNull final Context context) {
+        if (null == sInstance) {
+            sInstance = new CurrentAccountCache(
+                    new SharedPreferencesFileManager(
+                            context,
+                            SINGLE_ACCOUNT_CREDENTIAL_SHARED_PREFERENCES,
+                            new StorageHelper(context)
+                    )
+            );
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Drops the process-wide instance, so that the next call to {@link #getInstance(Context)}
+     * starts from disk.
+     */
+    @VisibleForTesting
+    static synchronized void reset() {
+        sInstance = null;
+    }
+
+    /**
+     * @return The current snapshot, read from disk if this is the first read in this process.
+     */
+    @NonNull
+    Snapshot getSnapshot() {
+        final Snapshot snapshot = mSnapshot;
+
+        if (null != snapshot) {
+            return snapshot;
+        }
+
+        synchronized (mWriteLock) {
+            return getSnapshotLocked();
+        }
+    }
+
+    @NonNull
+    private Snapshot getSnapshotLocked() {
+        Snapshot snapshot = mSnapshot;
+
+        if (null == snapshot) {
+            final String json = mFileManager.getString(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY);
+
+            if (StringExtensions.isNullOrBlank(json)) {
+                snapshot = new Snapshot(0, null, null);
+            } else {
+                snapshot = new Snapshot(
+                        0,
+                        json,
+                        toAccount(JsonExtensions.getICacheRecordListFromJsonString(json))
+                );
+            }
+
+            mSnapshot = snapshot;
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Makes the supplied records the current account, persisting them if they differ from the
+     * current snapshot.
+     *
+     * @param cacheRecords list of cache record that belongs to an account, or null if there is
+     *                     no current account. Please note that this layer will not verify if the
+     *                     list belongs to a single account or not.
+     * @return The snapshot after the update.
+     */
+    @NonNull
+    Snapshot update(@Nullable final List<ICacheRecord> cacheRecords) {
+        final String methodName = ":update";
+
+        // Serialized before taking the lock, so that writers only hold it for the comparison and
+        // the write itself.
+        final String json = null == cacheRecords || cacheRecords.isEmpty()
+                ? null
+                : JsonExtensions.getJsonStringFromICacheRecordList(cacheRecords);
+
+        synchronized (mWriteLock) {
+            final Snapshot current = getSnapshotLocked();
+
+            if (null == json) {
+                if (null == current.mJson) {
+                    return current;
+                }
+
+                mFileManager.clear();
+                mSnapshot = new Snapshot(current.mVersion + 1, null, null);
+                return mSnapshot;
+            }
+
+            if (json.equals(current.mJson)) {
+                Logger.verbose(TAG + methodName, "Current account unchanged, not persisting.");
+                return current;
+            }
+
+            mFileManager.putString(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY, json);
+            mSnapshot = new Snapshot(current.mVersion + 1, json, toAccount(cacheRecords));
+            return mSnapshot;
+        }
+    }
+
+    /**
+     * Get a MultiTenantAccount from a list of ICacheRecord.
+     *
+     * @param cacheRecords list of cache record that belongs to an account.
+     *                     If the list can be converted to multiple accounts, only the first one will be returned.
+     */
+    @Nullable
+    static MultiTenantAccount toAccount(@Nullable final List<ICacheRecord> cacheRecords) {
+        final String methodName = ":toAccount";
+
+        if (cacheRecords == null || cacheRecords.size() == 0) {
+            return null;
+        }
+
+        final List<IAccount> account = AccountAdapter.adapt(cacheRecords);
+
+        if (account.size() != 1) {
+            Logger.verbose(
+                    TAG + methodName,
+                    "Returned cacheRecords were adapted into multiple IAccount. " +
+                            "This is unexpected in Single account mode." +
+                            "Returning the first adapted account.");
+        }
+
+        return (MultiTenantAccount) account.get(0);
+    }
+}
@@ -0,0 +1,82 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+/**
+ * A snapshot of the activity of the executor a PublicClientApplication prepares requests on.
+ */
+public class ExecutorMetrics {
+
+    private final int mActiveCount;
+    private final int mQueuedCount;
+    private final long mCompletedCount;
+    private final long mRejectedCount;
+
+    ExecutorMetrics(final int activeCount,
+                    final int queuedCount,
+                    final long completedCount,
+                    final long rejectedCount) {
+        mActiveCount = activeCount;
+        mQueuedCount = queuedCount;
+        mCompletedCount = completedCount;
+        mRejectedCount = rejectedCount;
+    }
+
+    /**
+     * @return The number of tasks running at the time of the snapshot.
+     */
+    public int getActiveCount() {
+        return mActiveCount;
+    }
+
+    /**
+     * @return The number of tasks waiting for a thread at the time of the snapshot.
+     */
+    public int getQueuedCount() {
+        return mQueuedCount;
+    }
+
+    /**
+     * @return The number of tasks which ran to completion.
+     */
+    public long getCompletedCount() {
+        return mCompletedCount;
+    }
+
+    /**
+     * @return The number of tasks which were rejected because the executor was saturated.
+     */
+    public long getRejectedCount() {
+        return mRejectedCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutorMetrics{"
+                + "active=" + mActiveCount
+                + ", queued=" + mQueuedCount
+                + ", completed=" + mCompletedCount
+                + ", rejected=" + mRejectedCount
+                + '}';
+    }
+}
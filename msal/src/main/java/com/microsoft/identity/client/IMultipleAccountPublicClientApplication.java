@@ -55,6 +55,31 @@ public interface IMultipleAccountPublicClientApplication extends IPublicClientAp
     @WorkerThread
     List<IAccount> getAccounts() throws InterruptedException, MsalException;
 
+    /**
+     * Returns a {@link MsalFuture} of the List of {@link IAccount} objects for which this application has RefreshTokens.
+     * The future is completed on the thread producing the result.
+     */
+    @NonNull
+    MsalFuture<List<IAccount>> getAccountsFuture();
+
+    /**
+     * Asynchronously returns one page of the {@link IAccount} objects for which this application has RefreshTokens.
+     * Only the accounts on the page are built, so account pickers can show the first page of a large cache right away.
+     *
+     * @param query    The page size, continuation token and optional environment or tenant filter.
+     * @param callback The callback to notify once this action has finished.
+     */
+    void getAccounts(@NonNull final AccountQuery query,
+                     @NonNull final LoadAccountsPageCallback callback);
+
+    /**
+     * Returns one page of the {@link IAccount} objects for which this application has RefreshTokens.
+     *
+     * @param query The page size, continuation token and optional environment or tenant filter.
+     */
+    @WorkerThread
+    AccountPage getAccounts(@NonNull final AccountQuery query) throws InterruptedException, MsalException;
+
     /**
      * Retrieve the IAccount object matching the identifier.
      * The identifier could be homeAccountIdentifier, localAccountIdentifier or username.
@@ -75,6 +100,16 @@ public interface IMultipleAccountPublicClientApplication extends IPublicClientAp
     @WorkerThread
     IAccount getAccount(@NonNull final String identifier) throws InterruptedException, MsalException;
 
+    /**
+     * Returns a {@link MsalFuture} of the IAccount object matching the identifier, or of null if there is none.
+     * The identifier could be homeAccountIdentifier, localAccountIdentifier or username.
+     * The future is completed on the thread producing the result.
+     *
+     * @param identifier String of the identifier
+     */
+    @NonNull
+    MsalFuture<IAccount> getAccountFuture(@NonNull final String identifier);
+
     /**
      * Removes the Account and Credentials (tokens) for the supplied IAccount.
      *
@@ -93,6 +128,16 @@ public interface IMultipleAccountPublicClientApplication extends IPublicClientAp
     @WorkerThread
     boolean removeAccount(@Nullable final IAccount account) throws MsalException, InterruptedException;
 
+    /**
+     * Removes the Account and Credentials (tokens) for the supplied IAccount.
+     * The returned future is completed on the thread producing the result.
+     *
+     * @param account The IAccount whose entry and associated tokens should be removed.
+     * @return A future of true, once the account was removed.
+     */
+    @NonNull
+    MsalFuture<Boolean> removeAccountFuture(@Nullable final IAccount account);
+
     /**
      * Acquire token interactively, will pop-up webUI. Interactive flow will skip the cache lookup.
      *
@@ -149,6 +194,22 @@ public interface IMultipleAccountPublicClientApplication extends IPublicClientAp
                                  @NonNull final String authority,
                                  @NonNull final SilentAuthenticationCallback callback);
 
+    interface LoadAccountsPageCallback extends TaskCompletedCallbackWithError<AccountPage, MsalException> {
+        /**
+         * Called once succeed and pass the result object.
+         *
+         * @param result the success result.
+         */
+        void onTaskCompleted(AccountPage result);
+
+        /**
+         * Called once exception thrown.
+         *
+         * @param exception
+         */
+        void onError(MsalException exception);
+    }
+
     interface GetAccountCallback extends TaskCompletedCallbackWithError<IAccount, MsalException> {
         /**
          * Called once succeed and pass the result object.
@@ -85,6 +85,46 @@ public interface IPublicClientApplication {
     @WorkerThread
     IAuthenticationResult acquireTokenSilent(@NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters) throws InterruptedException, MsalException;
 
+    /**
+     * Perform acquire token silent calls for several requests of the same account in one go, e.g. to get tokens for
+     * different resources. The account and authority are resolved once for the whole batch, and tokens which must
+     * be refreshed are refreshed concurrently. Each request succeeds or fails on its own.
+     * <p>
+     * No callbacks must be set on the individual parameters, the results are only reported to the batch callback. The batch callback is
+     * invoked on the first callback executor set on the requests, else on the callback executor of the configuration,
+     * or else on the main thread.
+     *
+     * @param acquireTokenSilentParameters The non-null, non-empty list of requests. All requests must be for the same account
+     *                                     and have no callback set.
+     * @param callback                     The {@link BatchSilentAuthenticationCallback} to receive the per-request results.
+     */
+    void acquireTokensSilentAsync(@NonNull final List<AcquireTokenSilentParameters> acquireTokenSilentParameters,
+                                  @NonNull final BatchSilentAuthenticationCallback callback);
+
+    /**
+     * Perform acquire token silent calls for several requests of the same account in one go.
+     * See {@link #acquireTokensSilentAsync(List, BatchSilentAuthenticationCallback)}.
+     *
+     * @param acquireTokenSilentParameters The non-null, non-empty list of requests. All requests must be for the same account.
+     *                                     No callbacks should be set on the individual parameters.
+     * @return One {@link SilentTokenResult} per request, in the order the requests were supplied.
+     */
+    @WorkerThread
+    List<SilentTokenResult> acquireTokensSilent(@NonNull final List<AcquireTokenSilentParameters> acquireTokenSilentParameters) throws InterruptedException, MsalException;
+
+    /**
+     * Perform acquire token silent call, returning a {@link MsalFuture} instead of invoking a callback.
+     * No thread is blocked while the token is acquired. The future must not be awaited on the
+     * main thread, see {@link MsalFuture}.
+     * <p>
+     * The callback set on the parameters is replaced and will not be invoked.
+     *
+     * @param acquireTokenSilentParameters The request parameters.
+     * @return The future result of the request.
+     */
+    @NonNull
+    MsalFuture<IAuthenticationResult> acquireTokenSilentFuture(@NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters);
+
     /**
      * Perform the Device Code Flow (DCF) protocol to allow a device without input capability to authenticate and get a new access token.
      * Currently, flow is only supported in local MSAL. No Broker support.
@@ -142,6 +182,80 @@ public interface IPublicClientApplication {
                                    @NonNull final SignedHttpRequestRequestCallback callback
     );
 
+    /**
+     * Signs the provided {@link PoPAuthenticationScheme} parameters into a JWT on behalf of the
+     * provided {@link IAccount}, returning a {@link MsalFuture} instead of invoking a callback.
+     * <p>
+     * Important: Use of this API requires setting the minimum_required_broker_protocol_version to
+     * "6.0" or higher.
+     *
+     * @param account       The account for whom signing shall occur.
+     * @param popParameters The input parameters.
+     * @return The future SHR.
+     */
+    @NonNull
+    MsalFuture<String> generateSignedHttpRequestFuture(@NonNull final IAccount account,
+                                                       @NonNull final PoPAuthenticationScheme popParameters);
+
+    /**
+     * Gets how long this PublicClientApplication took to initialize, step by step. The deferred
+     * steps may still be running when this is called, see {@link StartupMetrics}.
+     *
+     * @return The {@link StartupMetrics}.
+     */
+    @NonNull
+    StartupMetrics getStartupMetrics();
+
+    /**
+     * Registers a listener notified when an account is added or removed, or its credentials are
+     * updated, so that apps do not need to poll for account changes. Listeners are notified on the
+     * callback executor of the configuration, or else on the main thread.
+     * <p>
+     * Listeners are registered process-wide, by client id, not with this instance: a listener is
+     * notified of changes made through any PublicClientApplication of the same client id, and
+     * stays registered after this instance is no longer used.
+     * <p>
+     * The registry holds a strong reference to the listener until it is unregistered, so a
+     * listener referencing an Activity or other short-lived object must be unregistered with
+     * {@link #unregisterAccountChangeListener(AccountChangeListener)} when that object goes away.
+     *
+     * @param listener The listener.
+     */
+    void registerAccountChangeListener(@NonNull final AccountChangeListener listener);
+
+    /**
+     * Unregisters a listener registered with {@link #registerAccountChangeListener(AccountChangeListener)}.
+     *
+     * @param listener The listener.
+     */
+    void unregisterAccountChangeListener(@NonNull final AccountChangeListener listener);
+
+    /**
+     * Listener for account changes, see {@link #registerAccountChangeListener(AccountChangeListener)}.
+     */
+    interface AccountChangeListener {
+        /**
+         * Invoked when tokens were saved for an account this application did not hold before.
+         *
+         * @param account The account.
+         */
+        void onAccountAdded(@NonNull final IAccount account);
+
+        /**
+         * Invoked when an account was removed or signed out.
+         *
+         * @param account The account.
+         */
+        void onAccountRemoved(@NonNull final IAccount account);
+
+        /**
+         * Invoked when new tokens were saved for an account this application already held.
+         *
+         * @param account The account.
+         */
+        void onCredentialsUpdated(@NonNull final IAccount account);
+    }
+
     /**
      * Callback used to receive the result of {@link #generateSignedHttpRequest(IAccount, PoPAuthenticationScheme)}.
      */
@@ -62,6 +62,14 @@ public interface ISingleAccountPublicClientApplication extends IPublicClientAppl
     @WorkerThread
     ICurrentAccountResult getCurrentAccount() throws InterruptedException, MsalException;
 
+    /**
+     * Gets the current account as a {@link MsalFuture}, which is completed on the thread producing the result.
+     *
+     * @return The future CurrentAccountResult.
+     */
+    @NonNull
+    MsalFuture<ICurrentAccountResult> getCurrentAccountFuture();
+
     /**
      * Allows a user to sign in to your application with one of their accounts. This method may only
      * be called once: once a user is signed in, they must first be signed out before another user
@@ -161,6 +169,16 @@ public interface ISingleAccountPublicClientApplication extends IPublicClientAppl
     @WorkerThread
     boolean signOut() throws MsalException, InterruptedException;
 
+    /**
+     * Signs out the current the Account and Credentials (tokens).
+     * The returned future is completed on the thread producing the result.
+     * NOTE: If a device is marked as a shared device within broker signout will be device wide.
+     *
+     * @return A future of true, once the account was removed.
+     */
+    @NonNull
+    MsalFuture<Boolean> signOutFuture();
+
     /**
      * Perform acquire token silent call. If there is a valid access token in the cache, the sdk will return the access token; If
      * no valid access token exists, the sdk will try to find a refresh token and use the refresh token to get a new access token. If refresh token does not exist
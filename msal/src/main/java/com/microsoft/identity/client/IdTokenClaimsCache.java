@@ -0,0 +1,129 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.exception.ServiceException;
+import com.microsoft.identity.common.internal.providers.oauth2.IDToken;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, process-wide cache of parsed id token claims.
+ * <p>
+ * The same few id tokens back every account, tenant profile and authentication result this
+ * library hands out, so each raw token is decoded and JSON-parsed once and its claims shared.
+ * Entries are looked up by the raw token, i.e. by its hash and then by equality, so that a hash
+ * collision can never return the claims of another token. The claims are unmodifiable since they
+ * are shared; {@link Account#getClaims()} hands out a copy.
+ */
+final class IdTokenClaimsCache {
+
+    private static final String TAG = IdTokenClaimsCache.class.getSimpleName();
+
+    /**
+     * The maximum number of parsed tokens held in memory.
+     */
+    static final int MAX_ENTRIES = 256;
+
+    private static final IdTokenClaimsCache sInstance = new IdTokenClaimsCache(MAX_ENTRIES);
+
+    private final Map<String, Map<String, ?>> mClaims;
+    private final AtomicLong mParseCount = new AtomicLong();
+
+    IdTokenClaimsCache(final int maxEntries) {
+        mClaims = new LinkedHashMap<String, Map<String, ?>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Map<String, ?>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return The process-wide instance.
+     */
+    @NonNull
+    static IdTokenClaimsCache getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Returns the claims of the supplied id token, parsing it if it was not seen recently.
+     *
+     * @param rawIdToken The raw id token.
+     * @return The claims, or null if the token cannot be parsed.
+     */
+    @Nullable
+    Map<String, ?> getClaims(@NonNull final String rawIdToken) {
+        final String methodName = ":getClaims";
+
+        synchronized (mClaims) {
+            final Map<String, ?> claims = mClaims.get(rawIdToken);
+
+            if (null != claims) {
+                return claims;
+            }
+        }
+
+        final Map<String, ?> claims;
+
+        try {
+            // Parsed outside of the lock; a concurrent parse of the same token is harmless
+            claims = Collections.unmodifiableMap(new IDToken(rawIdToken).getTokenClaims());
+            mParseCount.incrementAndGet();
+        } catch (final ServiceException e) {
+            // The IdToken was verified when it was originally returned from the service and saved.
+            Logger.error(TAG + methodName, "Failed to restore IdToken", e);
+            return null;
+        }
+
+        synchronized (mClaims) {
+            mClaims.put(rawIdToken, claims);
+        }
+
+        return claims;
+    }
+
+    void clear() {
+        synchronized (mClaims) {
+            mClaims.clear();
+        }
+    }
+
+    int size() {
+        synchronized (mClaims) {
+            return mClaims.size();
+        }
+    }
+
+    long getParseCount() {
+        return mParseCount.get();
+    }
+}
@@ -0,0 +1,251 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.internal.controllers.TaskCompletedCallbackWithError;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.microsoft.identity.client.internal.MsalUtils.throwOnMainThread;
+
+/**
+ * The pending result of an asynchronous MSAL operation.
+ * <p>
+ * No thread is blocked on the caller's behalf. Work can be chained on completion with
+ * {@link #addListener(Runnable, Executor)} or
+ * {@link #addCallback(TaskCompletedCallbackWithError, Executor)}, or the result can be awaited
+ * with {@link #get()}, which reports a failure as an {@link ExecutionException} whose cause is
+ * the {@link MsalException}.
+ * <p>
+ * Some operations go through the main thread before they complete the future, so a pending
+ * future must not be awaited there: {@link #get()} and {@link #get(long, TimeUnit)} throw an
+ * {@link IllegalStateException} when called on the main thread before the future is done.
+ * Use a listener or callback instead.
+ * <p>
+ * Cancelling the future does not stop the underlying operation, its result is discarded.
+ *
+ * @param <T> The type of the result.
+ */
+public final class MsalFuture<T> implements Future<T> {
+
+    private static final String TAG = MsalFuture.class.getSimpleName();
+
+    private static final int PENDING = 0;
+    private static final int SUCCEEDED = 1;
+    private static final int FAILED = 2;
+    private static final int CANCELLED = 3;
+
+    private final CountDownLatch mDoneLatch = new CountDownLatch(1);
+
+    // Guarded by this.
+    private int mState = PENDING;
+    private T mResult;
+    private MsalException mException;
+    private List<Listener> mListeners = new ArrayList<>();
+
+    MsalFuture() {
+    }
+
+    /**
+     * Registers a listener to run once the future completes, or right away if it already has.
+     *
+     * @param listener The listener to run.
+     * @param executor The executor to run the listener on.
+     */
+    public void addListener(@NonNull final Runnable listener,
+                            @NonNull final Executor executor) {
+        final Listener entry = new Listener(listener, executor);
+
+        synchronized (this) {
+            if (PENDING == mState) {
+                mListeners.add(entry);
+                return;
+            }
+        }
+
+        entry.execute();
+    }
+
+    /**
+     * Registers a callback to receive the result once the future completes. The callback is not
+     * invoked if the future is cancelled.
+     *
+     * @param callback The callback to notify.
+     * @param executor The executor to notify the callback on.
+     */
+    public void addCallback(@NonNull final TaskCompletedCallbackWithError<T, MsalException> callback,
+                            @NonNull final Executor executor) {
+        addListener(new Runnable() {
+            @Override
+            public void run() {
+                final T result;
+                final MsalException exception;
+                final int state;
+
+                synchronized (MsalFuture.this) {
+                    state = mState;
+                    result = mResult;
+                    exception = mException;
+                }
+
+                if (SUCCEEDED == state) {
+                    callback.onTaskCompleted(result);
+                } else if (FAILED == state) {
+                    callback.onError(exception);
+                }
+            }
+        }, executor);
+    }
+
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        return complete(CANCELLED, null, null);
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return CANCELLED == mState;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return PENDING != mState;
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        throwIfPendingOnMainThread("MsalFuture.get");
+        mDoneLatch.await();
+        return getDoneValue();
+    }
+
+    @Override
+    public T get(final long timeout, @NonNull final TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        throwIfPendingOnMainThread("MsalFuture.get");
+
+        if (!mDoneLatch.await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+
+        return getDoneValue();
+    }
+
+    /**
+     * Completes the future with a result.
+     *
+     * @return true if this call completed the future, false if it was already complete.
+     */
+    boolean set(@Nullable final T result) {
+        return complete(SUCCEEDED, result, null);
+    }
+
+    /**
+     * Completes the future with an error.
+     *
+     * @return true if this call completed the future, false if it was already complete.
+     */
+    boolean setException(@NonNull final MsalException exception) {
+        return complete(FAILED, null, exception);
+    }
+
+    /**
+     * Waiting on the main thread could keep the future from ever completing.
+     */
+    private void throwIfPendingOnMainThread(@NonNull final String methodName) {
+        if (!isDone()) {
+            throwOnMainThread(methodName);
+        }
+    }
+
+    private boolean complete(final int state,
+                             @Nullable final T result,
+                             @Nullable final MsalException exception) {
+        final List<Listener> listeners;
+
+        synchronized (this) {
+            if (PENDING != mState) {
+                return false;
+            }
+
+            mState = state;
+            mResult = result;
+            mException = exception;
+            listeners = mListeners;
+            mListeners = null;
+        }
+
+        mDoneLatch.countDown();
+
+        for (final Listener listener : listeners) {
+            listener.execute();
+        }
+
+        return true;
+    }
+
+    private synchronized T getDoneValue() throws ExecutionException {
+        if (CANCELLED == mState) {
+            throw new CancellationException();
+        }
+
+        if (FAILED == mState) {
+            throw new ExecutionException(mException);
+        }
+
+        return mResult;
+    }
+
+    private static final class Listener {
+
+        private final Runnable mRunnable;
+        private final Executor mExecutor;
+
+        Listener(@NonNull final Runnable runnable, @NonNull final Executor executor) {
+            mRunnable = runnable;
+            mExecutor = executor;
+        }
+
+        void execute() {
+            try {
+                mExecutor.execute(mRunnable);
+            } catch (final RuntimeException e) {
+                // A misbehaving listener or executor must not keep the others from running.
+                Logger.error(TAG + ":execute", "Failed to run listener.", e);
+            }
+        }
+    }
+}
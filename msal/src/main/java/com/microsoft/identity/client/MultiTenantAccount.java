@@ -41,6 +41,13 @@ public class MultiTenantAccount extends Account implements IMultiTenantAccount {
         super(clientInfo, homeTenantIdToken);
     }
 
+    MultiTenantAccount(
+            @Nullable final String clientInfo,
+            @Nullable final String rawIdToken,
+            @Nullable final Map<String, ?> idTokenClaims) {
+        super(clientInfo, rawIdToken, idTokenClaims);
+    }
+
     void setTenantProfiles(@NonNull final Map<String, ITenantProfile> profiles) {
         mTenantProfiles = profiles;
     }
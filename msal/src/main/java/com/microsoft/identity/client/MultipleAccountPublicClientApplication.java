@@ -50,6 +50,7 @@ import com.microsoft.identity.common.internal.migration.TokenMigrationCallback;
 import com.microsoft.identity.common.internal.result.ResultFuture;
 import com.microsoft.identity.common.logging.Logger;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 
@@ -108,15 +109,126 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
         TokenMigrationCallback migrationCallback = new TokenMigrationCallback() {
             @Override
             public void onMigrationFinished(int numberOfAccountsMigrated) {
-                final Handler handler;
+                final Handler handler = getCallbackHandler();
 
-                if (null != Looper.myLooper() && Looper.getMainLooper() != Looper.myLooper()) {
-                    handler = new Handler(Looper.myLooper());
-                } else {
-                    handler = new Handler(Looper.getMainLooper());
+                try {
+                    final AccountGraph accountGraph = AccountGraph.getInstance();
+                    final String clientId = mPublicClientConfiguration.getClientId();
+                    final CommandCallback<List<ICacheRecord>, BaseException> loadAccountsCallback;
+
+                    if (readsAccountsLocally()) {
+                        final List<IAccount> accounts = accountGraph.getAccounts(clientId);
+
+                        if (null != accounts) {
+                            handler.post(new Runnable() {
+                                @Override
+                                public void run() {
+                                    callback.onTaskCompleted(accounts);
+                                }
+                            });
+                            return;
+                        }
+
+                        loadAccountsCallback = loadingAccountGraph(
+                                getLoadAccountsCallback(clientId, callback),
+                                clientId,
+                                accountGraph.getVersion(clientId)
+                        );
+                    } else {
+                        // The broker holds accounts this app's cache does not see
+                        accountGraph.invalidate(clientId);
+                        loadAccountsCallback = getLoadAccountsCallback(clientId, callback);
+                    }
+
+                    final CommandParameters params = CommandParametersAdapter.createCommandParameters(mPublicClientConfiguration, mPublicClientConfiguration.getOAuth2TokenCache());
+                    final LoadAccountCommand loadAccountCommand = new LoadAccountCommand(
+                            params,
+                            MSALControllerFactory.getAllControllers(
+                                    mPublicClientConfiguration.getAppContext(),
+                                    mPublicClientConfiguration.getDefaultAuthority(),
+                                    mPublicClientConfiguration
+                            ),
+                            loadAccountsCallback,
+                            publicApiId
+                    );
+
+                    CommandDispatcher.submitSilent(loadAccountCommand);
+                } catch (final MsalClientException e) {
+                    handler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            callback.onError(e);
+                        }
+                    });
                 }
+            }
+        };
+
+        performMigration(migrationCallback);
+    }
+
+    /**
+     * @return A Handler on the calling thread's Looper if it has one, else on the main Looper.
+     */
+    private static Handler getCallbackHandler() {
+        if (null != Looper.myLooper() && Looper.getMainLooper() != Looper.myLooper()) {
+            return new Handler(Looper.myLooper());
+        } else {
+            return new Handler(Looper.getMainLooper());
+        }
+    }
+
+    @Override
+    public void getAccounts(@NonNull final AccountQuery query,
+                            @NonNull final LoadAccountsPageCallback callback) {
+        getAccountPageInternal(query, callback, PublicApiId.MULTIPLE_ACCOUNT_PCA_GET_ACCOUNTS_WITH_CALLBACK);
+    }
+
+    /**
+     * Asynchronously returns one page of the {@link IAccount} objects for which this application
+     * has RefreshTokens. When the {@link AccountGraph} is loaded the page is cut from it without
+     * reading the cache; otherwise the records are loaded and only the page is adapted.
+     *
+     * @param query    The page to return.
+     * @param callback The callback to notify once this action has finished.
+     */
+    private void getAccountPageInternal(@NonNull final AccountQuery query,
+                                        @NonNull final LoadAccountsPageCallback callback,
+                                        @NonNull final String publicApiId) {
+        TokenMigrationCallback migrationCallback = new TokenMigrationCallback() {
+            @Override
+            public void onMigrationFinished(int numberOfAccountsMigrated) {
+                final Handler handler = getCallbackHandler();
 
                 try {
+                    final AccountGraph accountGraph = AccountGraph.getInstance();
+                    final String clientId = mPublicClientConfiguration.getClientId();
+                    CommandCallback<List<ICacheRecord>, BaseException> loadAccountsCallback =
+                            getLoadAccountPageCallback(query, clientId, callback);
+
+                    if (readsAccountsLocally()) {
+                        final AccountPage page = accountGraph.getPage(clientId, query);
+
+                        if (null != page) {
+                            handler.post(new Runnable() {
+                                @Override
+                                public void run() {
+                                    callback.onTaskCompleted(page);
+                                }
+                            });
+                            return;
+                        }
+
+                        loadAccountsCallback = loadingAccountGraph(
+                                loadAccountsCallback,
+                                clientId,
+                                accountGraph.getVersion(clientId)
+                        );
+                    } else {
+                        // The broker holds accounts this app's cache does not see
+                        accountGraph.invalidate(clientId);
+                    }
+
                     final CommandParameters params = CommandParametersAdapter.createCommandParameters(mPublicClientConfiguration, mPublicClientConfiguration.getOAuth2TokenCache());
                     final LoadAccountCommand loadAccountCommand = new LoadAccountCommand(
                             params,
@@ -125,7 +237,7 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
                                     mPublicClientConfiguration.getDefaultAuthority(),
                                     mPublicClientConfiguration
                             ),
-                            getLoadAccountsCallback(callback),
+                            loadAccountsCallback,
                             publicApiId
                     );
 
@@ -144,6 +256,107 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
         performMigration(migrationCallback);
     }
 
+    private static CommandCallback<List<ICacheRecord>, BaseException> getLoadAccountPageCallback(
+            @NonNull final AccountQuery query,
+            @NonNull final String clientId,
+            @NonNull final LoadAccountsPageCallback callback) {
+        return new CommandCallback<List<ICacheRecord>, BaseException>() {
+            @Override
+            public void onTaskCompleted(final List<ICacheRecord> result) {
+                // Prefer the shared graph, which continuation tokens of earlier pages refer to
+                AccountPage page = AccountGraph.getInstance().getPage(clientId, query);
+
+                if (null == page) {
+                    final AccountGraph loadedAccounts = new AccountGraph();
+                    loadedAccounts.load(
+                            clientId,
+                            null == result ? Collections.<ICacheRecord>emptyList() : result,
+                            loadedAccounts.getVersion(clientId)
+                    );
+                    page = loadedAccounts.getPage(clientId, query);
+                }
+
+                callback.onTaskCompleted(page);
+            }
+
+            @Override
+            public void onError(final BaseException exception) {
+                callback.onError(MsalExceptionAdapter.msalExceptionFromBaseException(exception));
+            }
+
+            @Override
+            public void onCancel() {
+                //Do nothing
+            }
+        };
+    }
+
+    @Override
+    public AccountPage getAccounts(@NonNull final AccountQuery query) throws InterruptedException, MsalException {
+        throwOnMainThread("getAccounts");
+
+        final ResultFuture<AsyncResult<AccountPage>> future = new ResultFuture<>();
+
+        getAccountPageInternal(query, new LoadAccountsPageCallback() {
+            @Override
+            public void onTaskCompleted(AccountPage result) {
+                future.setResult(new AsyncResult<AccountPage>(result, null));
+            }
+
+            @Override
+            public void onError(MsalException exception) {
+                future.setResult(new AsyncResult<AccountPage>(null, exception));
+            }
+        }, PublicApiId.MULTIPLE_ACCOUNT_PCA_GET_ACCOUNTS);
+
+        try {
+            final AsyncResult<AccountPage> result = future.get();
+
+            if (result.getSuccess()) {
+                return result.getResult();
+            } else {
+                throw result.getException();
+            }
+        } catch (final ExecutionException e) {
+            // Shouldn't be thrown.
+            throw new MsalClientException(
+                    UNKNOWN_ERROR,
+                    "Unexpected error while loading accounts.",
+                    e
+            );
+        }
+    }
+
+    /**
+     * Wraps the callback of a full account load so that its result is stored in the
+     * {@link AccountGraph} before being delivered.
+     */
+    private static CommandCallback<List<ICacheRecord>, BaseException> loadingAccountGraph(
+            @NonNull final CommandCallback<List<ICacheRecord>, BaseException> delegate,
+            @NonNull final String clientId,
+            final long version) {
+        return new CommandCallback<List<ICacheRecord>, BaseException>() {
+            @Override
+            public void onTaskCompleted(final List<ICacheRecord> result) {
+                if (null != result) {
+                    AccountGraph.getInstance().load(clientId, result, version);
+                }
+
+                delegate.onTaskCompleted(result);
+            }
+
+            @Override
+            public void onError(final BaseException exception) {
+                delegate.onError(exception);
+            }
+
+            @Override
+            public void onCancel() {
+                delegate.onCancel();
+            }
+        };
+    }
+
     @Override
     public List<IAccount> getAccounts() throws InterruptedException, MsalException {
 
@@ -181,6 +394,26 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
         }
     }
 
+    @Override
+    @NonNull
+    public MsalFuture<List<IAccount>> getAccountsFuture() {
+        final MsalFuture<List<IAccount>> future = new MsalFuture<>();
+
+        getAccountsInternal(new LoadAccountsCallback() {
+            @Override
+            public void onTaskCompleted(List<IAccount> result) {
+                future.set(result);
+            }
+
+            @Override
+            public void onError(MsalException exception) {
+                future.setException(exception);
+            }
+        }, PublicApiId.MULTIPLE_ACCOUNT_PCA_GET_ACCOUNTS);
+
+        return future;
+    }
+
     /**
      * Retrieve the IAccount object matching the identifier.
      * The identifier could be homeAccountIdentifier, localAccountIdentifier or username.
@@ -213,81 +446,37 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
             callback.onError(e);
         }
 
-        TokenMigrationCallback migrationCallback = new TokenMigrationCallback() {
-            @Override
-            public void onMigrationFinished(int numberOfAccountsMigrated) {
-                final String methodName = ":getAccount";
-
-                Logger.verbose(TAG + methodName, "Get account with the identifier.");
+        final String methodName = ":getAccount";
 
-                try {
-                    final CommandParameters params = CommandParametersAdapter.createCommandParameters(mPublicClientConfiguration, mPublicClientConfiguration.getOAuth2TokenCache());
-                    final LoadAccountCommand loadAccountCommand = new LoadAccountCommand(
-                            params,
-                            MSALControllerFactory.getAllControllers(
-                                    mPublicClientConfiguration.getAppContext(),
-                                    mPublicClientConfiguration.getDefaultAuthority(),
-                                    mPublicClientConfiguration
-                            ),
-                            new CommandCallback<List<ICacheRecord>, BaseException>() {
-                                @Override
-                                public void onTaskCompleted(final List<ICacheRecord> result) {
-                                    if (null == result || result.size() == 0) {
-                                        Logger.verbose(TAG + methodName, "No account found.");
-                                        callback.onTaskCompleted(null);
-                                    } else {
-                                        // First, transform the result into IAccount + TenantProfile form
-                                        final List<IAccount>
-                                                accounts = AccountAdapter.adapt(result);
-
-                                        final String trimmedIdentifier = identifier.trim();
-
-                                        // Evaluation precedence...
-                                        //     1. home_account_id
-                                        //     2. local_account_id
-                                        //     3. username
-                                        //     4. Give up.
-
-                                        final AccountMatcher accountMatcher = new AccountMatcher(
-                                                homeAccountMatcher,
-                                                localAccountMatcher,
-                                                usernameMatcher
-                                        );
-
-                                        for (final IAccount account : accounts) {
-                                            if (accountMatcher.matches(trimmedIdentifier, account)) {
-                                                callback.onTaskCompleted(account);
-                                                return;
-                                            }
-                                        }
-
-                                        callback.onTaskCompleted(null);
-                                    }
-                                }
+        Logger.verbose(TAG + methodName, "Get account with the identifier.");
 
-                                @Override
-                                public void onError(final BaseException exception) {
-                                    Logger.error(TAG + methodName, exception.getMessage(), exception);
-                                    callback.onError(MsalExceptionAdapter.msalExceptionFromBaseException(exception));
-                                }
-
-                                @Override
-                                public void onCancel() {
+        getAccountsInternal(new LoadAccountsCallback() {
+            @Override
+            public void onTaskCompleted(final List<IAccount> accounts) {
+                if (null == accounts || accounts.size() == 0) {
+                    Logger.verbose(TAG + methodName, "No account found.");
+                    callback.onTaskCompleted(null);
+                    return;
+                }
 
-                                }
-                            },
-                            publicApiId
-                    );
+                // Reuse the index of the account graph when the accounts came from it
+                AccountIndex accountIndex = AccountGraph.getInstance().getIndex(
+                        mPublicClientConfiguration.getClientId()
+                );
 
-                    CommandDispatcher.submitSilent(loadAccountCommand);
-                } catch (final MsalClientException e) {
-                    Logger.error(TAG + methodName, e.getMessage(), e);
-                    callback.onError(e);
+                if (null == accountIndex) {
+                    accountIndex = AccountIndex.of(accounts);
                 }
+
+                callback.onTaskCompleted(accountIndex.find(identifier));
             }
-        };
 
-        performMigration(migrationCallback);
+            @Override
+            public void onError(final MsalException exception) {
+                Logger.error(TAG + methodName, exception.getMessage(), exception);
+                callback.onError(exception);
+            }
+        }, publicApiId);
     }
 
     @Override
@@ -326,6 +515,26 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
         }
     }
 
+    @Override
+    @NonNull
+    public MsalFuture<IAccount> getAccountFuture(@NonNull final String identifier) {
+        final MsalFuture<IAccount> future = new MsalFuture<>();
+
+        getAccountInternal(identifier, new GetAccountCallback() {
+            @Override
+            public void onTaskCompleted(IAccount result) {
+                future.set(result);
+            }
+
+            @Override
+            public void onError(MsalException exception) {
+                future.setException(exception);
+            }
+        }, PublicApiId.MULTIPLE_ACCOUNT_PCA_GET_ACCOUNT_WITH_IDENTIFIER);
+
+        return future;
+    }
+
     @Override
     public void removeAccount(@Nullable final IAccount account,
                               @NonNull final RemoveAccountCallback callback) {
@@ -379,6 +588,7 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
 
                         @Override
                         public void onTaskCompleted(Boolean success) {
+                            evictAccountFromMemory(multiTenantAccount);
                             callback.onRemoved();
                         }
 
@@ -431,6 +641,27 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
         }
     }
 
+    @Override
+    @NonNull
+    public MsalFuture<Boolean> removeAccountFuture(@Nullable final IAccount account) {
+        final MsalFuture<Boolean> future = new MsalFuture<>();
+
+        removeAccountInternal(account,
+                new RemoveAccountCallback() {
+                    @Override
+                    public void onRemoved() {
+                        future.set(true);
+                    }
+
+                    @Override
+                    public void onError(@NonNull MsalException exception) {
+                        future.setException(exception);
+                    }
+                }, PublicApiId.MULTIPLE_ACCOUNT_PCA_REMOVE_ACCOUNT_WITH_ACCOUNT);
+
+        return future;
+    }
+
     @Override
     public void acquireToken(@NonNull final Activity activity,
                              @NonNull final String[] scopes,
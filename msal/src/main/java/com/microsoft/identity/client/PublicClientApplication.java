@@ -26,13 +26,12 @@ package com.microsoft.identity.client;
 import android.app.Activity;
 import android.content.Context;
 import android.content.pm.PackageManager;
-import android.os.Handler;
-import android.os.Looper;
 import android.text.TextUtils;
 import android.util.Pair;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.annotation.WorkerThread;
 import androidx.fragment.app.Fragment;
 
@@ -51,8 +50,6 @@ import com.microsoft.identity.client.internal.AsyncResult;
 import com.microsoft.identity.client.internal.CommandParametersAdapter;
 import com.microsoft.identity.client.internal.controllers.MSALControllerFactory;
 import com.microsoft.identity.client.internal.controllers.MsalExceptionAdapter;
-import com.microsoft.identity.common.adal.internal.cache.IStorageHelper;
-import com.microsoft.identity.common.adal.internal.cache.StorageHelper;
 import com.microsoft.identity.common.adal.internal.tokensharing.ITokenShareResultInternal;
 import com.microsoft.identity.common.adal.internal.tokensharing.TokenShareUtility;
 import com.microsoft.identity.common.exception.BaseException;
@@ -64,16 +61,15 @@ import com.microsoft.identity.common.internal.authorities.AzureActiveDirectoryAu
 import com.microsoft.identity.common.internal.authorities.AzureActiveDirectoryB2CAuthority;
 import com.microsoft.identity.common.internal.cache.ICacheRecord;
 import com.microsoft.identity.common.internal.cache.IShareSingleSignOnState;
-import com.microsoft.identity.common.internal.cache.ISharedPreferencesFileManager;
 import com.microsoft.identity.common.internal.cache.MsalOAuth2TokenCache;
 import com.microsoft.identity.common.internal.cache.SchemaUtil;
-import com.microsoft.identity.common.internal.cache.SharedPreferencesFileManager;
 import com.microsoft.identity.common.internal.commands.CommandCallback;
 import com.microsoft.identity.common.internal.commands.DeviceCodeFlowCommand;
 import com.microsoft.identity.common.internal.commands.DeviceCodeFlowCommandCallback;
 import com.microsoft.identity.common.internal.commands.GenerateShrCommand;
 import com.microsoft.identity.common.internal.commands.GetDeviceModeCommand;
 import com.microsoft.identity.common.internal.commands.InteractiveTokenCommand;
+import com.microsoft.identity.common.internal.commands.LoadAccountCommand;
 import com.microsoft.identity.common.internal.commands.SilentTokenCommand;
 import com.microsoft.identity.common.internal.commands.parameters.CommandParameters;
 import com.microsoft.identity.common.internal.commands.parameters.DeviceCodeFlowCommandParameters;
@@ -86,9 +82,7 @@ import com.microsoft.identity.common.internal.controllers.ExceptionAdapter;
 import com.microsoft.identity.common.internal.controllers.LocalMSALController;
 import com.microsoft.identity.common.internal.dto.AccountRecord;
 import com.microsoft.identity.common.internal.eststelemetry.PublicApiId;
-import com.microsoft.identity.common.internal.migration.AdalMigrationAdapter;
 import com.microsoft.identity.common.internal.migration.TokenMigrationCallback;
-import com.microsoft.identity.common.internal.migration.TokenMigrationUtility;
 import com.microsoft.identity.common.internal.net.HttpRequest;
 import com.microsoft.identity.common.internal.net.cache.HttpCache;
 import com.microsoft.identity.common.internal.providers.microsoft.MicrosoftAccount;
@@ -105,15 +99,20 @@ import com.microsoft.identity.msal.BuildConfig;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static com.microsoft.identity.client.PublicClientApplicationConfigurationFactory.initializeConfiguration;
+import static com.microsoft.identity.client.exception.MsalClientException.BACKGROUND_EXECUTOR_REJECTED;
 import static com.microsoft.identity.client.exception.MsalClientException.SAPCA_USE_WITH_MULTI_POLICY_B2C;
 import static com.microsoft.identity.client.exception.MsalClientException.UNKNOWN_ERROR;
 import static com.microsoft.identity.client.internal.CommandParametersAdapter.createGenerateShrCommandParameters;
@@ -204,7 +203,12 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     private static final String TAG = PublicClientApplication.class.getSimpleName();
     private static final String INTERNET_PERMISSION = "android.permission.INTERNET";
     private static final String ACCESS_NETWORK_STATE_PERMISSION = "android.permission.ACCESS_NETWORK_STATE";
-    private static final ExecutorService sBackgroundExecutor = Executors.newCachedThreadPool();
+
+    /**
+     * Runs PublicClientApplication creation, which happens before there is an instance (and
+     * therefore a per-instance {@link BackgroundExecutor}) to run on.
+     */
+    private static final Executor sCreationExecutor = BackgroundExecutor.createPool("msal-create", null);
 
     static class NONNULL_CONSTANTS {
         static final String CONTEXT = "context";
@@ -233,6 +237,11 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
 
     protected PublicClientApplicationConfiguration mPublicClientConfiguration;
     protected TokenShareUtility mTokenShareUtility;
+    private TokenRefreshScheduler mTokenRefreshScheduler;
+    private BackgroundExecutor mBackgroundExecutor;
+
+    private final StartupTrace mStartupTrace = new StartupTrace();
+    private BrokerAccountWatcher mBrokerAccountWatcher;
 
     //region PCA factory methods
 
@@ -270,7 +279,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         validateNonNullArgument(context, NONNULL_CONSTANTS.CONTEXT);
         validateNonNullArgument(listener, NONNULL_CONSTANTS.LISTENER);
 
-        runOnBackground(new Runnable() {
+        final boolean accepted = runOnBackground(new Runnable() {
             @Override
             public void run() {
                 create(
@@ -282,6 +291,10 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 );
             }
         });
+
+        if (!accepted) {
+            listener.onError(newBackgroundExecutorRejectedException());
+        }
     }
 
     /**
@@ -313,7 +326,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                               @NonNull final ApplicationCreatedListener listener) {
         validateNonNullArgument(context, NONNULL_CONSTANTS.CONTEXT);
         validateNonNullArgument(listener, NONNULL_CONSTANTS.LISTENER);
-        runOnBackground(new Runnable() {
+        final boolean accepted = runOnBackground(new Runnable() {
             @Override
             public void run() {
                 create(
@@ -325,6 +338,10 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 );
             }
         });
+
+        if (!accepted) {
+            listener.onError(newBackgroundExecutorRejectedException());
+        }
     }
 
     /**
@@ -359,7 +376,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         validateNonNullArgument(redirectUri, NONNULL_CONSTANTS.REDIRECT_URI);
         validateNonNullArgument(listener, NONNULL_CONSTANTS.LISTENER);
 
-        runOnBackground(new Runnable() {
+        final boolean accepted = runOnBackground(new Runnable() {
             @Override
             public void run() {
                 create(
@@ -371,6 +388,10 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 );
             }
         });
+
+        if (!accepted) {
+            listener.onError(newBackgroundExecutorRejectedException());
+        }
     }
 
     /**
@@ -452,7 +473,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         validateNonNullArgument(context, NONNULL_CONSTANTS.CONTEXT);
         validateNonNullArgument(listener, NONNULL_CONSTANTS.LISTENER);
 
-        runOnBackground(new Runnable() {
+        final boolean accepted = runOnBackground(new Runnable() {
             @Override
             public void run() {
                 createMultipleAccountPublicClientApplication(
@@ -461,6 +482,10 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 );
             }
         });
+
+        if (!accepted) {
+            listener.onError(newBackgroundExecutorRejectedException());
+        }
     }
 
     /**
@@ -499,7 +524,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         validateNonNullArgument(context, NONNULL_CONSTANTS.CONTEXT);
         validateNonNullArgument(listener, NONNULL_CONSTANTS.LISTENER);
 
-        runOnBackground(new Runnable() {
+        final boolean accepted = runOnBackground(new Runnable() {
             @Override
             public void run() {
                 createMultipleAccountPublicClientApplication(
@@ -508,6 +533,10 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 );
             }
         });
+
+        if (!accepted) {
+            listener.onError(newBackgroundExecutorRejectedException());
+        }
     }
 
     /**
@@ -637,7 +666,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         validateNonNullArgument(context, NONNULL_CONSTANTS.CONTEXT);
         validateNonNullArgument(listener, NONNULL_CONSTANTS.LISTENER);
 
-        runOnBackground(new Runnable() {
+        final boolean accepted = runOnBackground(new Runnable() {
             @Override
             public void run() {
                 createSingleAccountPublicClientApplication(
@@ -646,6 +675,10 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 );
             }
         });
+
+        if (!accepted) {
+            listener.onError(newBackgroundExecutorRejectedException());
+        }
     }
 
     /**
@@ -685,7 +718,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         validateNonNullArgument(configFile, NONNULL_CONSTANTS.CONFIG_FILE);
         validateNonNullArgument(listener, NONNULL_CONSTANTS.LISTENER);
 
-        runOnBackground(new Runnable() {
+        final boolean accepted = runOnBackground(new Runnable() {
             @Override
             public void run() {
                 createSingleAccountPublicClientApplication(
@@ -694,6 +727,10 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 );
             }
         });
+
+        if (!accepted) {
+            listener.onError(newBackgroundExecutorRejectedException());
+        }
     }
 
     /**
@@ -1057,35 +1094,185 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
 
     protected PublicClientApplication(@NonNull final PublicClientApplicationConfiguration configFile) throws MsalClientException {
         mPublicClientConfiguration = configFile;
+        mBackgroundExecutor = new BackgroundExecutor(configFile);
         initializeApplication();
+        initializeDeferredComponents();
     }
 
+    /**
+     * Runs the critical path of the initialization: what requests cannot do without, and what
+     * may fail the creation of this instance. The manifest checks query the PackageManager, so
+     * they run in parallel on the background executor. They are awaited before anything
+     * process-wide is set up, so that a creation which fails leaves no trace on the environment,
+     * authorities, telemetry or token sharing of the other instances.
+     */
     private void initializeApplication() throws MsalClientException {
         final String methodName = ":initializeApplication";
+        final long criticalPathStart = StartupTrace.start();
+
+        final FutureTask<Void> intentFilterCheck = startCriticalStep(
+                StartupMetrics.STEP_BROKER_INTENT_FILTER_CHECK,
+                new Callable<Void>() {
+                    @Override
+                    public Void call() throws MsalClientException {
+                        mPublicClientConfiguration.checkIntentFilterAddedToAppManifestForBrokerFlow();
+                        return null;
+                    }
+                }
+        );
+
+        final FutureTask<Void> internetPermissionCheck = startCriticalStep(
+                StartupMetrics.STEP_INTERNET_PERMISSION_CHECK,
+                new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        // Since network request is sent from the sdk, if calling app doesn't declare the internet
+                        // permission in the manifest, we cannot make the network call.
+                        checkInternetPermission();
+                        return null;
+                    }
+                }
+        );
+
+        awaitCriticalStep(intentFilterCheck);
+        awaitCriticalStep(internetPermissionCheck);
 
         final Context context = mPublicClientConfiguration.getAppContext();
-        setupTelemetry(context, mPublicClientConfiguration);
 
+        long stepStart = StartupTrace.start();
         AzureActiveDirectory.setEnvironment(mPublicClientConfiguration.getEnvironment());
         Authority.addKnownAuthorities(mPublicClientConfiguration.getAuthorities());
 
         initializeHttpSettings(mPublicClientConfiguration.getHttpConfiguration());
         initializeLoggerSettings(mPublicClientConfiguration.getLoggerConfiguration());
+        mStartupTrace.recordCriticalStep(StartupMetrics.STEP_CONFIGURATION, stepStart);
 
-        initializeTokenSharingLibrary();
+        stepStart = StartupTrace.start();
+        setupTelemetry(context, mPublicClientConfiguration);
+        mStartupTrace.recordCriticalStep(StartupMetrics.STEP_TELEMETRY, stepStart);
 
-        mPublicClientConfiguration.checkIntentFilterAddedToAppManifestForBrokerFlow();
+        stepStart = StartupTrace.start();
+        initializeTokenSharingLibrary();
+        mStartupTrace.recordCriticalStep(StartupMetrics.STEP_TOKEN_SHARING, stepStart);
 
-        // Since network request is sent from the sdk, if calling app doesn't declare the internet
-        // permission in the manifest, we cannot make the network call.
-        checkInternetPermission();
+        stepStart = StartupTrace.start();
+        initializeTokenRefreshScheduler();
+        mStartupTrace.recordCriticalStep(StartupMetrics.STEP_TOKEN_REFRESH_SCHEDULER, stepStart);
 
-        // Init HTTP cache
-        HttpCache.initialize(context.getCacheDir());
+        mStartupTrace.recordCriticalPath(criticalPathStart);
 
         Logger.info(TAG + methodName, "Create new public client application.");
     }
 
+    /**
+     * Runs the deferred phase of the initialization on the background executor: components the
+     * first requests can do without.
+     */
+    private void initializeDeferredComponents() {
+        final String methodName = ":initializeDeferredComponents";
+
+        final Runnable deferred = new Runnable() {
+            @Override
+            public void run() {
+                final long stepStart = StartupTrace.start();
+
+                // Init HTTP cache
+                HttpCache.initialize(mPublicClientConfiguration.getAppContext().getCacheDir());
+                mStartupTrace.recordDeferredStep(StartupMetrics.STEP_HTTP_CACHE, stepStart);
+
+                mStartupTrace.onDeferredComplete();
+                Logger.verbose(TAG + methodName, "Deferred initialization complete: " + mStartupTrace.getMetrics());
+            }
+        };
+
+        if (!runOnBackgroundExecutor(deferred)) {
+            deferred.run();
+        }
+    }
+
+    /**
+     * Starts a step of the critical path on the background executor, or runs it on the calling
+     * thread if the executor rejects it.
+     */
+    @NonNull
+    private FutureTask<Void> startCriticalStep(@NonNull final String step,
+                                               @NonNull final Callable<Void> work) {
+        final FutureTask<Void> task = new FutureTask<>(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                final long stepStart = StartupTrace.start();
+
+                try {
+                    return work.call();
+                } finally {
+                    mStartupTrace.recordCriticalStep(step, stepStart);
+                }
+            }
+        });
+
+        if (!runOnBackgroundExecutor(task)) {
+            task.run();
+        }
+
+        return task;
+    }
+
+    private static void awaitCriticalStep(@NonNull final FutureTask<Void> task) throws MsalClientException {
+        try {
+            task.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MsalClientException(
+                    UNKNOWN_ERROR,
+                    "Interrupted while initializing the public client application.",
+                    e
+            );
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof MsalClientException) {
+                throw (MsalClientException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new MsalClientException(
+                    UNKNOWN_ERROR,
+                    "Unexpected error while initializing the public client application.",
+                    cause
+            );
+        }
+    }
+
+    @Override
+    @NonNull
+    public StartupMetrics getStartupMetrics() {
+        return mStartupTrace.getMetrics();
+    }
+
+    private void initializeTokenRefreshScheduler() {
+        final String methodName = ":initializeTokenRefreshScheduler";
+
+        mTokenRefreshScheduler = TokenRefreshScheduler.create(
+                mPublicClientConfiguration.getTokenRefreshConfiguration(),
+                new TokenRefreshScheduler.Refresher() {
+                    @Override
+                    public void refresh(@NonNull final AcquireTokenSilentParameters parameters) {
+                        acquireTokenSilentAsyncInternal(
+                                parameters,
+                                PublicApiId.PCA_ACQUIRE_TOKEN_SILENT_ASYNC_WITH_PARAMETERS
+                        );
+                    }
+                }
+        );
+
+        if (null != mTokenRefreshScheduler) {
+            Logger.info(TAG + methodName, "Proactive access token refresh is enabled.");
+        }
+    }
+
     private void initializeLoggerSettings(@Nullable final LoggerConfiguration loggerConfig) {
         if (null != loggerConfig) {
             final com.microsoft.identity.client.Logger.LogLevel configLogLevel = loggerConfig.getLogLevel();
@@ -1191,6 +1378,8 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                     e
             );
         }
+
+        onAccountsImported();
     }
 
     @Override
@@ -1229,6 +1418,23 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                     e
             );
         }
+
+        onAccountsImported();
+    }
+
+    /**
+     * Accounts were written to the cache directly, e.g. by token sharing or the ADAL migration:
+     * drops the {@link AccountGraph}, which no longer reflects the cache, and reloads the
+     * account snapshot so that account change listeners learn of new accounts.
+     */
+    private void onAccountsImported() {
+        final String clientId = mPublicClientConfiguration.getClientId();
+
+        AccountGraph.getInstance().invalidate(clientId);
+
+        if (AccountChangeNotifier.getInstance().hasListeners(clientId)) {
+            loadAccountSnapshot();
+        }
     }
 
     private void validateBrokerNotInUse() throws MsalClientException {
@@ -1376,6 +1582,164 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         }
     }
 
+    @Override
+    @NonNull
+    public MsalFuture<String> generateSignedHttpRequestFuture(@NonNull final IAccount account,
+                                                              @NonNull final PoPAuthenticationScheme popParameters) {
+        final MsalFuture<String> future = new MsalFuture<>();
+
+        try {
+            final GenerateShrCommand generateShrCommand = createGenerateShrCommand(
+                    account,
+                    popParameters,
+                    new CommandCallback<GenerateShrResult, BaseException>() {
+                        @Override
+                        public void onCancel() {
+                            // Not cancellable
+                        }
+
+                        @Override
+                        public void onError(@NonNull final BaseException error) {
+                            future.setException(baseExceptionToMsalException(error));
+                        }
+
+                        @Override
+                        public void onTaskCompleted(@NonNull final GenerateShrResult generateShrResult) {
+                            future.set(generateShrResult.getShr());
+                        }
+                    },
+                    PCA_GENERATE_SIGNED_HTTP_REQUEST
+            );
+
+            // Execute this command silently...
+            CommandDispatcher.submitSilent(generateShrCommand);
+        } catch (final MsalClientException e) {
+            future.setException(
+                    new MsalClientException(
+                            UNKNOWN_ERROR,
+                            "Unexpected error while generating SHR.",
+                            e
+                    )
+            );
+        }
+
+        return future;
+    }
+
+    @Override
+    public void registerAccountChangeListener(@NonNull final AccountChangeListener listener) {
+        final String clientId = mPublicClientConfiguration.getClientId();
+        final boolean needsSnapshot = AccountChangeNotifier.getInstance().register(
+                clientId,
+                listener,
+                mPublicClientConfiguration.getCallbackExecutor()
+        );
+
+        if (needsSnapshot) {
+            loadAccountSnapshot();
+        }
+
+        watchBrokerAccounts();
+    }
+
+    @Override
+    public void unregisterAccountChangeListener(@NonNull final AccountChangeListener listener) {
+        final boolean noneLeft = AccountChangeNotifier.getInstance().unregister(
+                mPublicClientConfiguration.getClientId(),
+                listener
+        );
+
+        if (noneLeft) {
+            synchronized (this) {
+                if (null != mBrokerAccountWatcher) {
+                    mBrokerAccountWatcher.stop();
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads all accounts and reports them to the {@link AccountChangeNotifier}, establishing the
+     * snapshot account changes are classified against or, later, diffing against it.
+     */
+    void loadAccountSnapshot() {
+        final String methodName = ":loadAccountSnapshot";
+        final String clientId = mPublicClientConfiguration.getClientId();
+
+        try {
+            final CommandParameters params = CommandParametersAdapter.createCommandParameters(
+                    mPublicClientConfiguration,
+                    mPublicClientConfiguration.getOAuth2TokenCache()
+            );
+            final LoadAccountCommand loadAccountCommand = new LoadAccountCommand(
+                    params,
+                    MSALControllerFactory.getAllControllers(
+                            mPublicClientConfiguration.getAppContext(),
+                            mPublicClientConfiguration.getDefaultAuthority(),
+                            mPublicClientConfiguration
+                    ),
+                    new CommandCallback<List<ICacheRecord>, BaseException>() {
+                        @Override
+                        public void onTaskCompleted(final List<ICacheRecord> result) {
+                            AccountChangeNotifier.getInstance().onAccountsLoaded(
+                                    clientId,
+                                    null == result
+                                            ? Collections.<IAccount>emptyList()
+                                            : AccountAdapter.adapt(result)
+                            );
+                        }
+
+                        @Override
+                        public void onError(final BaseException exception) {
+                            Logger.warn(TAG + methodName, "Unable to load accounts: " + exception.getMessage());
+                        }
+
+                        @Override
+                        public void onCancel() {
+                            //Do nothing
+                        }
+                    },
+                    // The snapshot mirrors getAccounts
+                    PublicApiId.MULTIPLE_ACCOUNT_PCA_GET_ACCOUNTS
+            );
+
+            CommandDispatcher.submitSilent(loadAccountCommand);
+        } catch (final MsalClientException e) {
+            Logger.warn(TAG + methodName, "Unable to load accounts: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts observing the broker's accounts if the broker serves this application, so that
+     * account changes made through it are reported to account change listeners.
+     */
+    private synchronized void watchBrokerAccounts() {
+        final String methodName = ":watchBrokerAccounts";
+
+        try {
+            if (readsAccountsLocally()) {
+                return;
+            }
+        } catch (final MsalClientException e) {
+            Logger.warn(TAG + methodName, "Unable to resolve controllers: " + e.getMessage());
+            return;
+        }
+
+        if (null == mBrokerAccountWatcher) {
+            mBrokerAccountWatcher = new BrokerAccountWatcher(
+                    mPublicClientConfiguration.getAppContext(),
+                    new Runnable() {
+                        @Override
+                        public void run() {
+                            loadAccountSnapshot();
+                        }
+                    }
+            );
+        }
+
+        mBrokerAccountWatcher.start();
+    }
+
     private GenerateShrCommand createGenerateShrCommand(@NonNull final IAccount account,
                                                         @NonNull final PoPAuthenticationScheme popParams,
                                                         @NonNull final CommandCallback<GenerateShrResult, BaseException> cmdCallback,
@@ -1501,12 +1865,17 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         // In order to support use of named tenants (such as contoso.onmicrosoft.com), we need
         // to be able to query OpenId Provider Configuration Metadata - for this reason, we will
         // build-up the acquireTokenOperationParams on a background thread.
-        sBackgroundExecutor.submit(new Runnable() {
+        final SilentAuthenticationCallback callback = CallbackDispatcher.wrap(
+                acquireTokenParameters.getCallback(),
+                CallbackDispatcher.getCallbackExecutor(acquireTokenParameters, mPublicClientConfiguration)
+        );
+
+        final boolean accepted = runOnBackgroundExecutor(new Runnable() {
             @Override
             public void run() {
                 final CommandCallback localAuthenticationCallback =
                         getCommandCallback(
-                                acquireTokenParameters.getCallback(),
+                                callback,
                                 acquireTokenParameters
                         );
                 try {
@@ -1542,8 +1911,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                     // convert exception to BaseException
                     final BaseException baseException = ExceptionAdapter.baseExceptionFromException(exception);
                     // If there is an Exception, post it to the main thread...
-                    final Handler handler = new Handler(Looper.getMainLooper());
-                    handler.post(new Runnable() {
+                    CallbackDispatcher.deliver(callback, new Runnable() {
                         @Override
                         public void run() {
                             localAuthenticationCallback.onError(baseException);
@@ -1552,6 +1920,17 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 }
             }
         });
+
+        if (!accepted && null != callback) {
+            final MsalClientException exception = newBackgroundExecutorRejectedException();
+
+            CallbackDispatcher.deliver(callback, new Runnable() {
+                @Override
+                public void run() {
+                    callback.onError(exception);
+                }
+            });
+        }
     }
 
     protected AcquireTokenSilentParameters buildAcquireTokenSilentParameters(@NonNull final String[] scopes,
@@ -1582,81 +1961,758 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         acquireTokenSilentAsyncInternal(acquireTokenSilentParameters, PublicApiId.PCA_ACQUIRE_TOKEN_SILENT_ASYNC_WITH_PARAMETERS);
     }
 
+    @Override
+    @NonNull
+    public MsalFuture<IAuthenticationResult> acquireTokenSilentFuture(
+            @NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters) {
+        validateNonNullArgument(acquireTokenSilentParameters, "acquireTokenSilentParameters");
+
+        final MsalFuture<IAuthenticationResult> future = new MsalFuture<>();
+        acquireTokenSilentParameters.setCallback(new SilentFutureCallback(future));
+        acquireTokenSilentAsync(acquireTokenSilentParameters);
+
+        return future;
+    }
+
     void acquireTokenSilentAsyncInternal(
             @NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters,
             @NonNull final String publicApiId) {
-        sBackgroundExecutor.submit(new Runnable() {
-            @Override
-            public void run() {
-                final CommandCallback callback = getCommandCallback(
+        acquireTokenSilentParameters.setCallback(
+                CallbackDispatcher.wrap(
                         acquireTokenSilentParameters.getCallback(),
-                        acquireTokenSilentParameters
-                );
-
-                try {
-                    validateAcquireTokenSilentParameters(acquireTokenSilentParameters);
+                        CallbackDispatcher.getCallbackExecutor(acquireTokenSilentParameters, mPublicClientConfiguration)
+                )
+        );
 
-                    acquireTokenSilentParameters.setAccountRecord(
-                            selectAccountRecordForTokenRequest(
-                                    mPublicClientConfiguration,
-                                    acquireTokenSilentParameters
-                            )
-                    );
+        final SilentTokenRequestKey requestKey = SilentTokenRequestKey.of(
+                mPublicClientConfiguration,
+                acquireTokenSilentParameters
+        );
 
-                    final SilentTokenCommandParameters params =
-                            CommandParametersAdapter.createSilentTokenCommandParameters(
-                                    mPublicClientConfiguration,
-                                    mPublicClientConfiguration.getOAuth2TokenCache(),
-                                    acquireTokenSilentParameters
-                            );
+        if (deliverFromMemoryCache(acquireTokenSilentParameters, requestKey)) {
+            return;
+        }
 
+        if (failFromUiRequiredCache(acquireTokenSilentParameters, requestKey)) {
+            return;
+        }
 
-                    final SilentTokenCommand silentTokenCommand = new SilentTokenCommand(
-                            params,
-                            MSALControllerFactory.getAllControllers(
-                                    mPublicClientConfiguration.getAppContext(),
-                                    params.getAuthority(),
-                                    mPublicClientConfiguration
-                            ),
-                            callback,
-                            publicApiId
-                    );
+        final SilentAuthenticationCallback requestCallback =
+                enlistForExecution(acquireTokenSilentParameters, requestKey);
 
-                    CommandDispatcher.submitSilent(silentTokenCommand);
-                } catch (final Exception exception) {
-                    // convert exception to BaseException
-                    final BaseException baseException = ExceptionAdapter.baseExceptionFromException(exception);
+        if (null == requestCallback && null != acquireTokenSilentParameters.getCallback()) {
+            // An equivalent request is already in flight, its result will be delivered to us.
+            return;
+        }
 
-                    // There was an error, shuttle it back to the main thread...
-                    new Handler(Looper.getMainLooper()).post(new Runnable() {
-                        @Override
-                        public void run() {
-                            callback.onError(baseException);
-                        }
-                    });
-                }
+        final boolean accepted = runOnBackgroundExecutor(new Runnable() {
+            @Override
+            public void run() {
+                executeSilentRequest(
+                        acquireTokenSilentParameters,
+                        requestCallback,
+                        publicApiId,
+                        new HashMap<String, AccountRecord>(),
+                        new HashMap<String, List<BaseController>>()
+                );
             }
         });
-    }
 
-
-    private AccountRecord selectAccountRecordForTokenRequest(
-            @NonNull final PublicClientApplicationConfiguration pcaConfig,
-            @NonNull final TokenParameters tokenParameters)
-            throws ServiceException, ClientException {
-        // If not authority was provided in the request, fallback to the default authority...
-        if (TextUtils.isEmpty(tokenParameters.getAuthority())) {
-            tokenParameters.setAuthority(
-                    pcaConfig
-                            .getDefaultAuthority()
-                            .getAuthorityUri()
-                            .toString()
-            );
+        if (!accepted && null != requestCallback) {
+            postBackgroundExecutorRejected(Collections.singletonList(requestCallback));
         }
+    }
 
-        if (null == tokenParameters.getAccount()) {
-            return null; // No account was set!
-        }
+    @Override
+    public void acquireTokensSilentAsync(
+            @NonNull final List<AcquireTokenSilentParameters> acquireTokenSilentParameters,
+            @NonNull final BatchSilentAuthenticationCallback callback) {
+        acquireTokensSilentAsyncInternal(
+                acquireTokenSilentParameters,
+                callback,
+                PublicApiId.PCA_ACQUIRE_TOKEN_SILENT_ASYNC_WITH_PARAMETERS
+        );
+    }
+
+    void acquireTokensSilentAsyncInternal(
+            @NonNull final List<AcquireTokenSilentParameters> acquireTokenSilentParameters,
+            @NonNull final BatchSilentAuthenticationCallback callback,
+            @NonNull final String publicApiId) {
+        final String methodName = ":acquireTokensSilentAsyncInternal";
+        validateBatchParameters(acquireTokenSilentParameters);
+        validateNonNullArgument(callback, NONNULL_CONSTANTS.CALLBACK);
+
+        final SilentTokenBatch batch = new SilentTokenBatch(
+                acquireTokenSilentParameters,
+                CallbackDispatcher.wrap(
+                        callback,
+                        CallbackDispatcher.getCallbackExecutor(acquireTokenSilentParameters, mPublicClientConfiguration)
+                )
+        );
+        final List<AcquireTokenSilentParameters> pendingParameters = new ArrayList<>();
+        final List<SilentAuthenticationCallback> pendingCallbacks = new ArrayList<>();
+
+        // A single pass over the in-memory caches answers every request they hold a token or a
+        // recent ui_required failure for...
+        for (int i = 0; i < acquireTokenSilentParameters.size(); i++) {
+            final AcquireTokenSilentParameters parameters = acquireTokenSilentParameters.get(i);
+            parameters.setCallback(batch.callbackFor(i));
+
+            final SilentTokenRequestKey requestKey = SilentTokenRequestKey.of(
+                    mPublicClientConfiguration,
+                    parameters
+            );
+
+            if (deliverFromMemoryCache(parameters, requestKey)) {
+                continue;
+            }
+
+            if (failFromUiRequiredCache(parameters, requestKey)) {
+                continue;
+            }
+
+            final SilentAuthenticationCallback requestCallback =
+                    enlistForExecution(parameters, requestKey);
+
+            if (null != requestCallback) {
+                pendingParameters.add(parameters);
+                pendingCallbacks.add(requestCallback);
+            }
+        }
+
+        Logger.verbose(
+                TAG + methodName,
+                "Requests in batch: [" + acquireTokenSilentParameters.size()
+                        + "], to execute: [" + pendingParameters.size() + "]"
+        );
+
+        if (pendingParameters.isEmpty()) {
+            return;
+        }
+
+        // ...the rest share the account and controller resolution, and run concurrently.
+        final boolean accepted = runOnBackgroundExecutor(new Runnable() {
+            @Override
+            public void run() {
+                final Map<String, AccountRecord> accountRecords = new HashMap<>();
+                final Map<String, List<BaseController>> controllers = new HashMap<>();
+
+                for (int i = 0; i < pendingParameters.size(); i++) {
+                    executeSilentRequest(
+                            pendingParameters.get(i),
+                            pendingCallbacks.get(i),
+                            publicApiId,
+                            accountRecords,
+                            controllers
+                    );
+                }
+            }
+        });
+
+        if (!accepted) {
+            postBackgroundExecutorRejected(pendingCallbacks);
+        }
+    }
+
+    private static void postBackgroundExecutorRejected(
+            @NonNull final List<SilentAuthenticationCallback> callbacks) {
+        final MsalClientException exception = newBackgroundExecutorRejectedException();
+
+        for (final SilentAuthenticationCallback callback : callbacks) {
+            CallbackDispatcher.deliver(callback, new Runnable() {
+                @Override
+                public void run() {
+                    callback.onError(exception);
+                }
+            });
+        }
+    }
+
+    /**
+     * Completes a {@link MsalFuture} with the result of a silent request.
+     */
+    private static final class SilentFutureCallback
+            implements SilentAuthenticationCallback, CallbackDispatcher.AnyThreadCallback {
+
+        private final MsalFuture<IAuthenticationResult> mFuture;
+
+        SilentFutureCallback(@NonNull final MsalFuture<IAuthenticationResult> future) {
+            mFuture = future;
+        }
+
+        @Override
+        public void onSuccess(final IAuthenticationResult authenticationResult) {
+            mFuture.set(authenticationResult);
+        }
+
+        @Override
+        public void onError(final MsalException exception) {
+            mFuture.setException(exception);
+        }
+    }
+
+    /**
+     * Completes the future a synchronous batch request waits on, without going through the
+     * main thread or the configured callback executor.
+     */
+    private static final class BatchFutureCallback
+            implements BatchSilentAuthenticationCallback, CallbackDispatcher.AnyThreadCallback {
+
+        private final ResultFuture<AsyncResult<List<SilentTokenResult>>> mFuture;
+
+        BatchFutureCallback(@NonNull final ResultFuture<AsyncResult<List<SilentTokenResult>>> future) {
+            mFuture = future;
+        }
+
+        @Override
+        public void onCompleted(@NonNull final List<SilentTokenResult> results) {
+            mFuture.setResult(new AsyncResult<>(results, null));
+        }
+    }
+
+    @Override
+    public List<SilentTokenResult> acquireTokensSilent(
+            @NonNull final List<AcquireTokenSilentParameters> acquireTokenSilentParameters)
+            throws InterruptedException, MsalException {
+        return acquireTokensSilentInternal(
+                acquireTokenSilentParameters,
+                PublicApiId.PCA_ACQUIRE_TOKEN_SILENT_WITH_PARAMETERS
+        );
+    }
+
+    List<SilentTokenResult> acquireTokensSilentInternal(
+            @NonNull final List<AcquireTokenSilentParameters> acquireTokenSilentParameters,
+            @NonNull final String publicApiId)
+            throws InterruptedException, MsalException {
+        throwOnMainThread("acquireTokensSilent");
+        validateBatchParameters(acquireTokenSilentParameters);
+
+        final ResultFuture<AsyncResult<List<SilentTokenResult>>> future = new ResultFuture<>();
+
+        acquireTokensSilentAsyncInternal(
+                acquireTokenSilentParameters,
+                new BatchFutureCallback(future),
+                publicApiId
+        );
+
+        try {
+            return future.get().getResult();
+        } catch (final ExecutionException e) {
+            // Shouldn't be thrown.
+            throw new MsalClientException(
+                    UNKNOWN_ERROR,
+                    "Unexpected error while acquiring tokens.",
+                    e
+            );
+        }
+    }
+
+    /**
+     * Throws IllegalArgumentException unless the batch is non-empty, none of its requests has a
+     * callback set and all of its requests are for the same account.
+     */
+    private static void validateBatchParameters(
+            @Nullable final List<AcquireTokenSilentParameters> acquireTokenSilentParameters) {
+        validateNonNullArgument(acquireTokenSilentParameters, "acquireTokenSilentParameters");
+
+        if (acquireTokenSilentParameters.isEmpty()) {
+            throw new IllegalArgumentException("acquireTokenSilentParameters" + NONNULL_CONSTANTS.NULL_ERROR_SUFFIX);
+        }
+
+        String homeAccountId = null;
+
+        for (final AcquireTokenSilentParameters parameters : acquireTokenSilentParameters) {
+            validateNonNullArgument(parameters, "acquireTokenSilentParameters");
+
+            if (null != parameters.getCallback()) {
+                // The results of a batch are reported to the batch callback only.
+                throw new IllegalArgumentException("Do not provide callbacks for the requests of a batch");
+            }
+
+            if (!(parameters.getAccount() instanceof MultiTenantAccount)) {
+                // Reported on the request itself.
+                continue;
+            }
+
+            final String requestHomeAccountId =
+                    ((MultiTenantAccount) parameters.getAccount()).getHomeAccountId();
+
+            if (null == homeAccountId) {
+                homeAccountId = requestHomeAccountId;
+            } else if (!homeAccountId.equalsIgnoreCase(requestHomeAccountId)) {
+                throw new IllegalArgumentException("All requests of a batch must be for the same account");
+            }
+        }
+    }
+
+    /**
+     * Resolves the account record and controllers of a silent request and dispatches it. Must be
+     * called on a background thread.
+     *
+     * @param acquireTokenSilentParameters The request parameters.
+     * @param requestCallback              The callback to deliver the result to.
+     * @param publicApiId                  The public API the request came through.
+     * @param accountRecords               Account records resolved so far, by request authority.
+     *                                     Requests of a batch share the same account, so the
+     *                                     record only needs resolving once per authority.
+     * @param controllers                  Controllers resolved so far, by request authority.
+     */
+    private void executeSilentRequest(
+            @NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters,
+            @Nullable final SilentAuthenticationCallback requestCallback,
+            @NonNull final String publicApiId,
+            @NonNull final Map<String, AccountRecord> accountRecords,
+            @NonNull final Map<String, List<BaseController>> controllers) {
+        final CommandCallback callback = getCommandCallback(
+                requestCallback,
+                acquireTokenSilentParameters
+        );
+        BrokerWarmUp.Ticket brokerWarmUp = null;
+
+        try {
+            validateAcquireTokenSilentParameters(acquireTokenSilentParameters);
+
+            final String requestAuthority = acquireTokenSilentParameters.getAuthority();
+
+            if (!accountRecords.containsKey(requestAuthority)) {
+                accountRecords.put(
+                        requestAuthority,
+                        selectAccountRecordForTokenRequest(
+                                mPublicClientConfiguration,
+                                acquireTokenSilentParameters
+                        )
+                );
+            }
+
+            acquireTokenSilentParameters.setAccountRecord(accountRecords.get(requestAuthority));
+
+            final SilentTokenCommandParameters params =
+                    CommandParametersAdapter.createSilentTokenCommandParameters(
+                            mPublicClientConfiguration,
+                            mPublicClientConfiguration.getOAuth2TokenCache(),
+                            acquireTokenSilentParameters
+                    );
+
+            if (!controllers.containsKey(requestAuthority)) {
+                controllers.put(
+                        requestAuthority,
+                        getSilentRequestControllers(params.getAuthority())
+                );
+            }
+
+            brokerWarmUp = startBrokerWarmUp(
+                    acquireTokenSilentParameters,
+                    controllers.get(requestAuthority)
+            );
+
+            final SilentTokenCommand silentTokenCommand = new SilentTokenCommand(
+                    params,
+                    controllers.get(requestAuthority),
+                    null == brokerWarmUp ? callback : finishingWarmUp(callback, brokerWarmUp),
+                    publicApiId
+            );
+
+            CommandDispatcher.submitSilent(silentTokenCommand);
+        } catch (final Exception exception) {
+            if (null != brokerWarmUp) {
+                brokerWarmUp.finish();
+            }
+
+            // convert exception to BaseException
+            final BaseException baseException = ExceptionAdapter.baseExceptionFromException(exception);
+
+            // There was an error, shuttle it back to the main thread...
+            CallbackDispatcher.deliver(requestCallback, new Runnable() {
+                @Override
+                public void run() {
+                    callback.onError(baseException);
+                }
+            });
+        }
+    }
+
+    /**
+     * Resolves the controllers a silent request for the supplied authority is tried against.
+     */
+    @VisibleForTesting
+    List<BaseController> getSilentRequestControllers(@NonNull final Authority authority)
+            throws MsalClientException {
+        return MSALControllerFactory.getAllControllers(
+                mPublicClientConfiguration.getAppContext(),
+                authority,
+                mPublicClientConfiguration
+        );
+    }
+
+    /**
+     * Starts the broker ahead of a silent request the local cache cannot answer, if enabled.
+     * Whether the local cache can answer is checked on the background executor, in parallel with
+     * the request.
+     *
+     * @param acquireTokenSilentParameters The request parameters.
+     * @param controllers                  The controllers the request will be tried against.
+     * @return The warm-up, or null if none can be needed.
+     */
+    @Nullable
+    private BrokerWarmUp.Ticket startBrokerWarmUp(
+            @NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters,
+            @NonNull final List<BaseController> controllers) {
+        if (!Boolean.TRUE.equals(mPublicClientConfiguration.isBrokerWarmUpEnabled())
+                || controllers.size() < 2
+                || !(acquireTokenSilentParameters.getAccount() instanceof MultiTenantAccount)) {
+            return null;
+        }
+
+        final String homeAccountId =
+                ((MultiTenantAccount) acquireTokenSilentParameters.getAccount()).getHomeAccountId();
+        final BrokerWarmUp.Ticket brokerWarmUp =
+                BrokerWarmUp.getInstance().newTicket(mPublicClientConfiguration.getAppContext());
+
+        final boolean accepted = runOnBackgroundExecutor(new Runnable() {
+            @Override
+            public void run() {
+                final AccountRecord localAccount = AccountAdapter.getAccountInternal(
+                        mPublicClientConfiguration.getClientId(),
+                        mPublicClientConfiguration.getOAuth2TokenCache(),
+                        homeAccountId,
+                        null
+                );
+
+                if (null != localAccount) {
+                    // The local controller holds tokens for the account and may well answer on its own.
+                    brokerWarmUp.finish();
+                    return;
+                }
+
+                final String brokerPackage = MSALControllerFactory.getTrustedBrokerPackage(
+                        mPublicClientConfiguration.getAppContext()
+                );
+
+                if (null == brokerPackage) {
+                    brokerWarmUp.finish();
+                } else {
+                    brokerWarmUp.start(brokerPackage);
+                }
+            }
+        });
+
+        if (!accepted) {
+            return null;
+        }
+
+        return brokerWarmUp;
+    }
+
+    /**
+     * Wraps a command callback so that the supplied broker warm-up is finished once the command
+     * completes.
+     */
+    private static CommandCallback finishingWarmUp(@NonNull final CommandCallback callback,
+                                                   @NonNull final BrokerWarmUp.Ticket brokerWarmUp) {
+        return new CommandCallback<Object, BaseException>() {
+            @Override
+            public void onTaskCompleted(final Object result) {
+                brokerWarmUp.finish();
+                callback.onTaskCompleted(result);
+            }
+
+            @Override
+            public void onError(final BaseException error) {
+                brokerWarmUp.finish();
+                callback.onError(error);
+            }
+
+            @Override
+            public void onCancel() {
+                brokerWarmUp.finish();
+                callback.onCancel();
+            }
+        };
+    }
+
+    /**
+     * Answers a silent request from the {@link AccessTokenMemoryCache}, if it is in use and holds
+     * a valid access token for it. Requests which force a refresh, carry claims, use a scheme
+     * other than Bearer or supply their own correlation id are never answered from memory.
+     *
+     * @param acquireTokenSilentParameters The request parameters.
+     * @param key                          The request key, if the request could be keyed.
+     * @return true if the request was answered, false if it must be dispatched.
+     */
+    private boolean deliverFromMemoryCache(
+            @NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters,
+            @Nullable final SilentTokenRequestKey key) {
+        final SilentAuthenticationCallback callback = acquireTokenSilentParameters.getCallback();
+
+        if (null == callback
+                || acquireTokenSilentParameters.getForceRefresh()
+                || null != acquireTokenSilentParameters.getCorrelationId()) {
+            return false;
+        }
+
+        if (null == key || !key.isBearer() || key.hasClaims() || !isAccessTokenMemoryCacheInUse()) {
+            return false;
+        }
+
+        final IAuthenticationResult result = AccessTokenMemoryCache.getInstance().get(key);
+
+        if (null == result) {
+            return false;
+        }
+
+        if (null != mTokenRefreshScheduler) {
+            mTokenRefreshScheduler.track(key, acquireTokenSilentParameters, result);
+        }
+
+        CallbackDispatcher.deliver(callback, new Runnable() {
+            @Override
+            public void run() {
+                callback.onSuccess(result);
+            }
+        });
+
+        return true;
+    }
+
+    /**
+     * The {@link AccessTokenMemoryCache} is opt-in, and is never used while the broker may serve
+     * the application: the broker owns the tokens it issues, and may change or remove them
+     * without this process knowing.
+     */
+    private boolean isAccessTokenMemoryCacheInUse() {
+        return Boolean.TRUE.equals(mPublicClientConfiguration.isAccessTokenMemoryCacheEnabled())
+                && !MSALControllerFactory.mayUseBroker(mPublicClientConfiguration);
+    }
+
+    /**
+     * Fails a silent request with the {@link MsalUiRequiredException} an equivalent request
+     * recently failed with, if the {@link UiRequiredCache} still holds it.
+     *
+     * @param acquireTokenSilentParameters The request parameters.
+     * @param key                          The request key, if the request could be keyed.
+     * @return true if the request was answered, false if it must be dispatched.
+     */
+    private boolean failFromUiRequiredCache(
+            @NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters,
+            @Nullable final SilentTokenRequestKey key) {
+        final SilentAuthenticationCallback callback = acquireTokenSilentParameters.getCallback();
+
+        if (null == callback || null == key) {
+            return false;
+        }
+
+        final MsalUiRequiredException exception = UiRequiredCache.getInstance().get(key);
+
+        if (null == exception) {
+            return false;
+        }
+
+        CallbackDispatcher.deliver(callback, new Runnable() {
+            @Override
+            public void run() {
+                callback.onError(exception);
+            }
+        });
+
+        return true;
+    }
+
+    /**
+     * Remembers a silent request which failed because user interaction is required, so that
+     * equivalent requests fail fast for the configured time.
+     */
+    void updateUiRequiredCache(@NonNull final TokenParameters requestParameters,
+                               @NonNull final MsalException exception) {
+        final Integer ttlSeconds = mPublicClientConfiguration.getUiRequiredCacheTtlSeconds();
+
+        if (!(exception instanceof MsalUiRequiredException)
+                || !(requestParameters instanceof AcquireTokenSilentParameters)
+                || null == ttlSeconds
+                || ttlSeconds <= 0) {
+            return;
+        }
+
+        final SilentTokenRequestKey key = SilentTokenRequestKey.of(
+                mPublicClientConfiguration,
+                requestParameters
+        );
+
+        if (null != key) {
+            UiRequiredCache.getInstance().put(
+                    key,
+                    (MsalUiRequiredException) exception,
+                    TimeUnit.SECONDS.toMillis(ttlSeconds)
+            );
+        }
+    }
+
+    /**
+     * Enlists a silent request with the {@link SilentRequestCoalescer}, so that concurrent
+     * equivalent requests share a single execution. Requests supplying their own correlation id
+     * are executed on their own.
+     *
+     * @param acquireTokenSilentParameters The request parameters.
+     * @param key                          The request key, if the request could be keyed.
+     * @return The callback the request must be executed with, or null if it was merged into an
+     * equivalent request already in flight.
+     */
+    @Nullable
+    private SilentAuthenticationCallback enlistForExecution(
+            @NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters,
+            @Nullable final SilentTokenRequestKey key) {
+        final SilentAuthenticationCallback callback = acquireTokenSilentParameters.getCallback();
+
+        if (null == callback
+                || null == key
+                || null != acquireTokenSilentParameters.getCorrelationId()) {
+            return callback;
+        }
+
+        return SilentRequestCoalescer.getInstance().enlist(
+                key,
+                acquireTokenSilentParameters.getForceRefresh(),
+                callback
+        );
+    }
+
+    /**
+     * Writes the result of a token request through to the {@link AccessTokenMemoryCache}.
+     * Silent Bearer results are cached for their request; an interactive result means the
+     * account's tokens were re-issued, so any result cached for that account is dropped.
+     */
+    private void updateMemoryCache(@NonNull final TokenParameters requestParameters,
+                                   @NonNull final IAuthenticationResult authenticationResult) {
+        if (requestParameters instanceof AcquireTokenSilentParameters) {
+            final SilentTokenRequestKey key = SilentTokenRequestKey.of(
+                    mPublicClientConfiguration,
+                    requestParameters
+            );
+
+            if (null != key) {
+                UiRequiredCache.getInstance().remove(key);
+            }
+
+            if (null != key && key.isBearer() && !key.hasClaims()) {
+                if (isAccessTokenMemoryCacheInUse()) {
+                    AccessTokenMemoryCache.getInstance().put(key, authenticationResult);
+                }
+
+                if (null != mTokenRefreshScheduler) {
+                    mTokenRefreshScheduler.track(
+                            key,
+                            (AcquireTokenSilentParameters) requestParameters,
+                            authenticationResult
+                    );
+                }
+            }
+        } else {
+            onUserSignedIn(authenticationResult.getAccount());
+        }
+    }
+
+    /**
+     * The user signed in again, so requests which required it may now succeed: drops the cached
+     * access tokens and ui_required failures of the account.
+     */
+    private static void onUserSignedIn(@Nullable final IAccount account) {
+        if (account instanceof MultiTenantAccount) {
+            final String homeAccountId = ((MultiTenantAccount) account).getHomeAccountId();
+
+            AccessTokenMemoryCache.getInstance().removeAccount(homeAccountId);
+            UiRequiredCache.getInstance().removeAccount(homeAccountId);
+        }
+    }
+
+    /**
+     * Drops everything held in memory for an account which was removed or signed out: its cached
+     * access tokens, cached ui_required failures, its node in the {@link AccountGraph} and any
+     * refresh scheduled for them.
+     *
+     * Account change listeners are told the account was removed.
+     *
+     * @param account The account.
+     */
+    void evictAccountFromMemory(@NonNull final MultiTenantAccount account) {
+        final String homeAccountId = account.getHomeAccountId();
+
+        AccessTokenMemoryCache.getInstance().removeAccount(homeAccountId);
+        UiRequiredCache.getInstance().removeAccount(homeAccountId);
+        AccountGraph.getInstance().removeAccount(
+                mPublicClientConfiguration.getClientId(),
+                homeAccountId
+        );
+
+        if (null != mTokenRefreshScheduler) {
+            mTokenRefreshScheduler.cancelAccount(homeAccountId);
+        }
+
+        AccountChangeNotifier.getInstance().onAccountRemoved(
+                mPublicClientConfiguration.getClientId(),
+                account
+        );
+    }
+
+    /**
+     * Writes the account of a token result through to the {@link AccountGraph} and reports it to
+     * account change listeners. The graph only models the local cache, so a result which may
+     * have come from the broker drops it instead.
+     *
+     * @param localAuthenticationResult The token result.
+     * @param account                   The account of the result.
+     */
+    void onTokensSaved(@NonNull final ILocalAuthenticationResult localAuthenticationResult,
+                       @NonNull final IAccount account) {
+        final String methodName = ":onTokensSaved";
+        final AccountGraph accountGraph = AccountGraph.getInstance();
+        final String clientId = mPublicClientConfiguration.getClientId();
+
+        AccountChangeNotifier.getInstance().onCredentialsSaved(clientId, account);
+
+        try {
+            if (readsAccountsLocally()) {
+                accountGraph.update(
+                        clientId,
+                        localAuthenticationResult.getCacheRecordWithTenantProfileData()
+                );
+                return;
+            }
+        } catch (final MsalClientException e) {
+            Logger.warn(TAG + methodName, "Unable to resolve controllers: " + e.getMessage());
+        }
+
+        accountGraph.invalidate(clientId);
+    }
+
+    /**
+     * @return true if accounts are read from the local cache alone, which is what the
+     * {@link AccountGraph} models; false if the broker is consulted too.
+     */
+    boolean readsAccountsLocally() throws MsalClientException {
+        return MSALControllerFactory.getAllControllers(
+                mPublicClientConfiguration.getAppContext(),
+                mPublicClientConfiguration.getDefaultAuthority(),
+                mPublicClientConfiguration
+        ).size() == 1;
+    }
+
+    @VisibleForTesting
+    AccountRecord selectAccountRecordForTokenRequest(
+            @NonNull final PublicClientApplicationConfiguration pcaConfig,
+            @NonNull final TokenParameters tokenParameters)
+            throws ServiceException, ClientException {
+        // If not authority was provided in the request, fallback to the default authority...
+        if (TextUtils.isEmpty(tokenParameters.getAuthority())) {
+            tokenParameters.setAuthority(
+                    pcaConfig
+                            .getDefaultAuthority()
+                            .getAuthorityUri()
+                            .toString()
+            );
+        }
+
+        if (null == tokenParameters.getAccount()) {
+            return null; // No account was set!
+        }
 
         // The root account we'll be fetching tokens for...
         final IAccount rootAccount = tokenParameters.getAccount();
@@ -1699,11 +2755,22 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
             final boolean isUuid = isUuid(tenantId);
 
             if (!isUuid && !isHomeTenantAlias(tenantId)) {
-                tenantId = ((AzureActiveDirectoryAuthority) authority)
-                        .getAudience()
-                        .getTenantUuidForAlias(
-                                authority.getAuthorityURL().toString()
-                        );
+                final TenantResolutionCache resolutionCache =
+                        TenantResolutionCache.getInstance(pcaConfig.getAppContext());
+                final String authorityUrl = authority.getAuthorityURL().toString();
+                final String cachedTenantId = resolutionCache.getTenantId(authorityUrl);
+
+                if (null != cachedTenantId) {
+                    tenantId = cachedTenantId;
+                } else {
+                    tenantId = aadAuthority
+                            .getAudience()
+                            .getTenantUuidForAlias(authorityUrl);
+
+                    if (isUuid(tenantId)) {
+                        resolutionCache.putTenantId(authorityUrl, tenantId);
+                    }
+                }
             }
             // Set the tenant id obtained for the accountRecord
             accountRecord.setRealm(tenantId);
@@ -1851,6 +2918,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     }
 
     static CommandCallback<List<ICacheRecord>, BaseException> getLoadAccountsCallback(
+            @NonNull final String clientId,
             final LoadAccountsCallback loadAccountsCallback) {
         return new CommandCallback<List<ICacheRecord>, BaseException>() {
             @Override
@@ -1858,9 +2926,11 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 if (null == result) {
                     loadAccountsCallback.onTaskCompleted(null);
                 } else {
-                    loadAccountsCallback.onTaskCompleted(
-                            AccountAdapter.adapt(result)
-                    );
+                    final List<IAccount> accounts = AccountAdapter.adapt(result);
+
+                    // A full load reveals changes made outside of this process
+                    AccountChangeNotifier.getInstance().onAccountsLoaded(clientId, accounts);
+                    loadAccountsCallback.onTaskCompleted(accounts);
                 }
             }
 
@@ -1884,9 +2954,11 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
 
         return new CommandCallback<ILocalAuthenticationResult, BaseException>() {
 
+            private final long mRequestStartMillis = System.currentTimeMillis();
+
             @Override
             public void onTaskCompleted(ILocalAuthenticationResult localAuthenticationResult) {
-                postAuthResult(localAuthenticationResult, tokenParameters, authenticationCallback);
+                postAuthResult(localAuthenticationResult, tokenParameters, authenticationCallback, mRequestStartMillis);
             }
 
             @Override
@@ -1895,6 +2967,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 if (authenticationCallback == null) {
                     throw new IllegalStateException(NONNULL_CONSTANTS.CALLBACK + NONNULL_CONSTANTS.NULL_ERROR_SUFFIX);
                 } else {
+                    updateUiRequiredCache(tokenParameters, msalException);
                     authenticationCallback.onError(msalException);
                 }
             }
@@ -1903,7 +2976,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
             public void onCancel() {
                 if (authenticationCallback instanceof AuthenticationCallback) {
                     ((AuthenticationCallback) authenticationCallback).onCancel();
-                } else {
+                } else if (!SilentRequestCoalescer.cancel(authenticationCallback)) {
                     throw new IllegalStateException("Silent requests cannot be cancelled.");
                 }
             }
@@ -1927,6 +3000,9 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 final IAuthenticationResult convertedResult = AuthenticationResultAdapter.adapt(
                         tokenResult);
 
+                onUserSignedIn(convertedResult.getAccount());
+                onTokensSaved(tokenResult, convertedResult.getAccount());
+
                 // Type cast the interface object
                 final AuthenticationResult authResult = (AuthenticationResult) convertedResult;
 
@@ -1969,6 +3045,19 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     protected void postAuthResult(@NonNull final ILocalAuthenticationResult localAuthenticationResult,
                                   @NonNull final TokenParameters requestParameters,
                                   @NonNull final SilentAuthenticationCallback authenticationCallback) {
+        postAuthResult(localAuthenticationResult, requestParameters, authenticationCallback, null);
+    }
+
+    /**
+     * As {@link #postAuthResult(ILocalAuthenticationResult, TokenParameters, SilentAuthenticationCallback)}.
+     *
+     * @param requestStartMillis When the request was started, to tell a silent result served from
+     *                           the cache from one which saved new tokens; null if not known.
+     */
+    void postAuthResult(@NonNull final ILocalAuthenticationResult localAuthenticationResult,
+                        @NonNull final TokenParameters requestParameters,
+                        @NonNull final SilentAuthenticationCallback authenticationCallback,
+                        @Nullable final Long requestStartMillis) {
 
         if (authenticationCallback == null) {
             throw new IllegalStateException(NONNULL_CONSTANTS.CALLBACK + NONNULL_CONSTANTS.NULL_ERROR_SUFFIX);
@@ -1990,14 +3079,54 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
             authenticationCallback.onError(declinedScopeException);
         } else {
             IAuthenticationResult authenticationResult = AuthenticationResultAdapter.adapt(localAuthenticationResult);
+            updateMemoryCache(requestParameters, authenticationResult);
+
+            if (savedTokens(localAuthenticationResult, requestParameters, requestStartMillis)) {
+                onTokensSaved(localAuthenticationResult, authenticationResult.getAccount());
+            }
+
             authenticationCallback.onSuccess(authenticationResult);
         }
     }
 
+    /**
+     * @return false if the result of a silent request was served from the cache, i.e. its access
+     * token was cached before the request started; true otherwise.
+     */
+    private static boolean savedTokens(@NonNull final ILocalAuthenticationResult localAuthenticationResult,
+                                       @NonNull final TokenParameters requestParameters,
+                                       @Nullable final Long requestStartMillis) {
+        if (!(requestParameters instanceof AcquireTokenSilentParameters) || null == requestStartMillis) {
+            return true;
+        }
+
+        final ICacheRecord cacheRecord = localAuthenticationResult.getCacheRecordWithTenantProfileData();
+
+        if (null == cacheRecord || null == cacheRecord.getAccessToken()) {
+            return true;
+        }
+
+        try {
+            final long cachedAtMillis = TimeUnit.SECONDS.toMillis(
+                    Long.parseLong(cacheRecord.getAccessToken().getCachedAt())
+            );
+
+            // cached_at only has a granularity of seconds
+            return cachedAtMillis >= requestStartMillis - TimeUnit.SECONDS.toMillis(1);
+        } catch (final NumberFormatException e) {
+            return true;
+        }
+    }
+
     private OAuth2TokenCache<?, ?, ?> getOAuth2TokenCache() {
         return MsalOAuth2TokenCache.create(mPublicClientConfiguration.getAppContext());
     }
 
+    /**
+     * @deprecated getAccount(identifier) no longer uses matchers; it resolves the identifier
+     * through exact-match indexes. Kept for subclasses only.
+     */
+    @Deprecated
     protected class AccountMatcher {
 
         private final AccountMatcher[] mDelegateMatchers;
@@ -2027,6 +3156,10 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         }
     }
 
+    /**
+     * @deprecated See {@link AccountMatcher}.
+     */
+    @Deprecated
     protected AccountMatcher homeAccountMatcher = new AccountMatcher() {
         @Override
         boolean matches(@NonNull final String homeAccountId,
@@ -2035,6 +3168,10 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         }
     };
 
+    /**
+     * @deprecated See {@link AccountMatcher}.
+     */
+    @Deprecated
     protected AccountMatcher localAccountMatcher = new AccountMatcher() {
         @Override
         boolean matches(@NonNull final String localAccountId,
@@ -2061,6 +3198,10 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         }
     };
 
+    /**
+     * @deprecated See {@link AccountMatcher}.
+     */
+    @Deprecated
     protected AccountMatcher usernameMatcher = new AccountMatcher() {
         @Override
         boolean matches(@NonNull final String username,
@@ -2154,38 +3295,72 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 mPublicClientConfiguration.getRedirectUri() // Our redirect uri
         );
 
-        final AdalMigrationAdapter adalMigrationAdapter = new AdalMigrationAdapter(
+        AdalMigration.getInstance().migrate(
                 mPublicClientConfiguration.getAppContext(),
                 redirects,
-                false
+                (IShareSingleSignOnState<MicrosoftAccount, MicrosoftRefreshToken>) mPublicClientConfiguration.getOAuth2TokenCache(),
+                new TokenMigrationCallback() {
+                    @Override
+                    public void onMigrationFinished(final int numberOfAccountsMigrated) {
+                        if (numberOfAccountsMigrated > 0) {
+                            onAccountsImported();
+                        }
+
+                        callback.onMigrationFinished(numberOfAccountsMigrated);
+                    }
+                }
         );
+    }
 
-        if (adalMigrationAdapter.getMigrationStatus()) {
-            callback.onMigrationFinished(0);
-        } else {
-            // Create the SharedPreferencesFileManager for the legacy accounts/credentials
-            final IStorageHelper storageHelper = new StorageHelper(mPublicClientConfiguration.getAppContext());
-            final ISharedPreferencesFileManager sharedPreferencesFileManager =
-                    new SharedPreferencesFileManager(
-                            mPublicClientConfiguration.getAppContext(),
-                            "com.microsoft.aad.adal.cache",
-                            storageHelper
-                    );
+    /**
+     * Runs the supplied task on the executor the applications are created on.
+     *
+     * @param runnable The task to run.
+     * @return false if the executor is saturated and rejected the task.
+     */
+    private static boolean runOnBackground(@NonNull final Runnable runnable) {
+        final String methodName = ":runOnBackground";
 
-            // Load the old TokenCacheItems as key/value JSON
-            final Map<String, String> credentials = sharedPreferencesFileManager.getAll();
+        try {
+            sCreationExecutor.execute(runnable);
+            return true;
+        } catch (final RejectedExecutionException e) {
+            Logger.warn(TAG + methodName, "Application creation rejected, the executor is saturated.");
+            return false;
+        }
+    }
 
-            new TokenMigrationUtility<MicrosoftAccount, MicrosoftRefreshToken>()._import(
-                    adalMigrationAdapter,
-                    credentials,
-                    (IShareSingleSignOnState<MicrosoftAccount, MicrosoftRefreshToken>) mPublicClientConfiguration.getOAuth2TokenCache(),
-                    callback
-            );
+    /**
+     * Runs the supplied task on the {@link BackgroundExecutor} of this instance.
+     *
+     * @param task The task to run.
+     * @return true if the task was accepted, false if the executor is saturated and rejected it.
+     */
+    boolean runOnBackgroundExecutor(@NonNull final Runnable task) {
+        try {
+            mBackgroundExecutor.execute(task);
+            return true;
+        } catch (final RejectedExecutionException e) {
+            return false;
         }
     }
 
-    private static void runOnBackground(@NonNull final Runnable runnable) {
-        new Thread(runnable).start();
+    private static MsalClientException newBackgroundExecutorRejectedException() {
+        return new MsalClientException(
+                BACKGROUND_EXECUTOR_REJECTED,
+                "The background executor is saturated, the request was rejected."
+        );
+    }
+
+    /**
+     * Gets a snapshot of the activity of the executor this PublicClientApplication prepares
+     * requests on.
+     *
+     * @return The {@link ExecutorMetrics}.
+     */
+    @NonNull
+    public ExecutorMetrics getBackgroundExecutorMetrics() {
+        return mBackgroundExecutor.getMetrics();
     }
 
     private static boolean isAccountHomeTenant(@Nullable final Map<String, ?> claims,
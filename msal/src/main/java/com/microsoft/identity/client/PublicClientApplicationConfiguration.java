@@ -35,12 +35,15 @@ import android.text.TextUtils;
 import android.util.Base64;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
 import com.google.gson.annotations.SerializedName;
 import com.microsoft.identity.client.configuration.AccountMode;
+import com.microsoft.identity.client.configuration.ExecutorConfiguration;
 import com.microsoft.identity.client.configuration.HttpConfiguration;
 import com.microsoft.identity.client.configuration.LoggerConfiguration;
+import com.microsoft.identity.client.configuration.TokenRefreshConfiguration;
 import com.microsoft.identity.client.exception.MsalClientException;
 import com.microsoft.identity.common.adal.internal.AuthenticationSettings;
 import com.microsoft.identity.common.internal.authorities.Authority;
@@ -58,15 +61,19 @@ import com.microsoft.identity.common.internal.ui.browser.BrowserDescriptor;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import javax.crypto.SecretKey;
 
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.ACCOUNT_MODE;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.AUTHORITIES;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.AUTHORIZATION_USER_AGENT;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.BACKGROUND_EXECUTOR;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.BROKER_WARM_UP_ENABLED;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.BROWSER_SAFE_LIST;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.CLIENT_CAPABILITIES;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.CLIENT_ID;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.CURRENT_ACCOUNT_FAST_PATH_ENABLED;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.ENVIRONMENT;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.HANDLE_TASKS_WITH_NULL_TASKAFFINITY;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.HTTP;
@@ -76,6 +83,8 @@ import static com.microsoft.identity.client.PublicClientApplicationConfiguration
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.REDIRECT_URI;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.REQUIRED_BROKER_PROTOCOL_VERSION;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.TELEMETRY;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.TOKEN_REFRESH;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.UI_REQUIRED_CACHE_TTL_SECONDS;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.USE_BROKER;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.WEB_VIEW_ZOOM_CONTROLS_ENABLED;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.WEB_VIEW_ZOOM_ENABLED;
@@ -106,6 +115,12 @@ public class PublicClientApplicationConfiguration {
         static final String WEB_VIEW_ZOOM_ENABLED = "web_view_zoom_enabled";
         static final String POWER_OPT_CHECK_FOR_NETWORK_REQUEST_ENABLED = "power_opt_check_for_network_req_enabled";
         static final String HANDLE_TASKS_WITH_NULL_TASKAFFINITY = "handle_null_taskaffinity";
+        static final String TOKEN_REFRESH = "token_refresh";
+        static final String BACKGROUND_EXECUTOR = "background_executor";
+        static final String BROKER_WARM_UP_ENABLED = "broker_warm_up_enabled";
+        static final String UI_REQUIRED_CACHE_TTL_SECONDS = "ui_required_cache_ttl_seconds";
+        static final String CURRENT_ACCOUNT_FAST_PATH_ENABLED = "current_account_fast_path_enabled";
+        static final String ACCESS_TOKEN_MEMORY_CACHE_ENABLED = "access_token_memory_cache_enabled";
 
     }
 
@@ -163,12 +178,34 @@ public class PublicClientApplicationConfiguration {
     @SerializedName(HANDLE_TASKS_WITH_NULL_TASKAFFINITY)
     private Boolean handleNullTaskAffinity;
 
+    @SerializedName(TOKEN_REFRESH)
+    private TokenRefreshConfiguration mTokenRefreshConfiguration;
+
+    @SerializedName(BACKGROUND_EXECUTOR)
+    private ExecutorConfiguration mExecutorConfiguration;
+
+    @SerializedName(BROKER_WARM_UP_ENABLED)
+    private Boolean brokerWarmUpEnabled;
+
+    @SerializedName(UI_REQUIRED_CACHE_TTL_SECONDS)
+    private Integer uiRequiredCacheTtlSeconds;
+
+    @SerializedName(CURRENT_ACCOUNT_FAST_PATH_ENABLED)
+    private Boolean currentAccountFastPathEnabled;
+
+    @SerializedName(ACCESS_TOKEN_MEMORY_CACHE_ENABLED)
+    private Boolean accessTokenMemoryCacheEnabled;
+
     transient private OAuth2TokenCache mOAuth2TokenCache;
 
     transient private Context mAppContext;
 
     transient private boolean mIsSharedDevice = false;
 
+    transient private Executor mBackgroundExecutor;
+
+    transient private Executor mCallbackExecutor;
+
     /**
      * Sets the secret key bytes to use when encrypting/decrypting cache entries.
      * {@link java.security.spec.KeySpec} algorithm is AES.
@@ -244,6 +281,71 @@ public class PublicClientApplicationConfiguration {
         return mLoggerConfiguration;
     }
 
+    /**
+     * Gets the currently configured {@link TokenRefreshConfiguration} for the PublicClientApplication.
+     *
+     * @return The TokenRefreshConfiguration to use.
+     */
+    public TokenRefreshConfiguration getTokenRefreshConfiguration() {
+        return mTokenRefreshConfiguration;
+    }
+
+    /**
+     * Gets the currently configured {@link ExecutorConfiguration} for the PublicClientApplication.
+     *
+     * @return The ExecutorConfiguration to use.
+     */
+    public ExecutorConfiguration getExecutorConfiguration() {
+        return mExecutorConfiguration;
+    }
+
+    /**
+     * Sets the {@link Executor} the PublicClientApplication prepares requests on, in place of
+     * the pool described by the {@link ExecutorConfiguration}. Requests submitted afterwards
+     * run on the supplied executor; pass null to go back to the configured pool.
+     *
+     * @param executor The executor to use, or null.
+     */
+    public void setBackgroundExecutor(@Nullable final Executor executor) {
+        mBackgroundExecutor = executor;
+    }
+
+    /**
+     * Gets the {@link Executor} set through {@link #setBackgroundExecutor(Executor)}, if any.
+     *
+     * @return The executor or null.
+     */
+    @Nullable
+    public Executor getBackgroundExecutor() {
+        return mBackgroundExecutor;
+    }
+
+    /**
+     * Sets the {@link Executor} the callbacks of token requests are invoked on, in place of the
+     * main thread. An executor set on the request itself takes precedence. Pass null to go back
+     * to the main thread.
+     * <p>
+     * Results served from memory, and errors raised before a request is dispatched, are handed to
+     * the executor from the MSAL worker thread which produced them. The results of dispatched
+     * requests, and of silent requests merged with them, are still posted to the main thread
+     * first and only then handed to the executor, so a busy main thread delays them.
+     *
+     * @param executor The executor to use, or null.
+     */
+    public void setCallbackExecutor(@Nullable final Executor executor) {
+        mCallbackExecutor = executor;
+    }
+
+    /**
+     * Gets the {@link Executor} set through {@link #setCallbackExecutor(Executor)}, if any.
+     *
+     * @return The executor or null.
+     */
+    @Nullable
+    public Executor getCallbackExecutor() {
+        return mCallbackExecutor;
+    }
+
     /**
      * Gets the currently configured {@link TelemetryConfiguration} for the PublicClientApplication.
      *
@@ -380,6 +482,51 @@ public class PublicClientApplicationConfiguration {
         return handleNullTaskAffinity;
     }
 
+    /**
+     * Gets whether silent requests which the local cache cannot answer start the broker ahead of
+     * falling back to it.
+     *
+     * @return True if the broker is warmed up in parallel with the local attempt.
+     */
+    public Boolean isBrokerWarmUpEnabled() {
+        return brokerWarmUpEnabled;
+    }
+
+    /**
+     * Gets for how long silent requests which failed because user interaction is required fail
+     * fast with the same error, instead of being retried against the cache and the network.
+     *
+     * @return The time to live, in seconds. Zero disables the cache.
+     */
+    public Integer getUiRequiredCacheTtlSeconds() {
+        return uiRequiredCacheTtlSeconds;
+    }
+
+    /**
+     * Gets whether the single account mode answers getCurrentAccountAsync with the persisted
+     * current account straight away, and only then checks it against the cache and the broker in
+     * the background. If they disagree, onAccountChanged is invoked once the check completes.
+     * The blocking and future variants of getCurrentAccount always wait for the check.
+     *
+     * @return True if the persisted current account is returned without waiting on the check.
+     */
+    public Boolean isCurrentAccountFastPathEnabled() {
+        return currentAccountFastPathEnabled;
+    }
+
+    /**
+     * Gets whether results of silent requests are kept in memory, so that repeated requests for a
+     * still valid access token are answered without reading the token cache. Tokens held in
+     * memory are not affected by changes other applications, processes or
+     * PublicClientApplication instances make to the token cache, until they expire. The memory
+     * cache is not used while the broker may serve the application.
+     *
+     * @return True if access tokens are cached in memory.
+     */
+    public Boolean isAccessTokenMemoryCacheEnabled() {
+        return accessTokenMemoryCacheEnabled;
+    }
+
     public Authority getDefaultAuthority() {
         if (mAuthorities != null) {
             if (mAuthorities.size() > 1) {
@@ -462,6 +609,12 @@ public class PublicClientApplicationConfiguration {
         this.webViewZoomEnabled = config.webViewZoomEnabled == null ? this.webViewZoomEnabled : config.webViewZoomEnabled;
         this.powerOptCheckEnabled = config.powerOptCheckEnabled == null ? this.powerOptCheckEnabled : config.powerOptCheckEnabled;
         this.handleNullTaskAffinity = config.handleNullTaskAffinity == null ? this.handleNullTaskAffinity : config.handleNullTaskAffinity;
+        this.mTokenRefreshConfiguration = config.mTokenRefreshConfiguration == null ? this.mTokenRefreshConfiguration : config.mTokenRefreshConfiguration;
+        this.mExecutorConfiguration = config.mExecutorConfiguration == null ? this.mExecutorConfiguration : config.mExecutorConfiguration;
+        this.brokerWarmUpEnabled = config.brokerWarmUpEnabled == null ? this.brokerWarmUpEnabled : config.brokerWarmUpEnabled;
+        this.uiRequiredCacheTtlSeconds = config.uiRequiredCacheTtlSeconds == null ? this.uiRequiredCacheTtlSeconds : config.uiRequiredCacheTtlSeconds;
+        this.currentAccountFastPathEnabled = config.currentAccountFastPathEnabled == null ? this.currentAccountFastPathEnabled : config.currentAccountFastPathEnabled;
+        this.accessTokenMemoryCacheEnabled = config.accessTokenMemoryCacheEnabled == null ? this.accessTokenMemoryCacheEnabled : config.accessTokenMemoryCacheEnabled;
     }
 
     void validateConfiguration() {
@@ -493,6 +646,14 @@ public class PublicClientApplicationConfiguration {
         }
     }
 
+    /**
+     * Runs the checks of {@link #validateConfiguration()} which need the installed app, for a
+     * configuration otherwise validated at build time.
+     */
+    void validateInstalledConfiguration() {
+        checkManifestPermissions();
+    }
+
     private void validateRedirectUri(@NonNull final String redirectUri) {
         final boolean isInvalid = TextUtils.isEmpty(redirectUri) || !hasSchemeAndAuthority(redirectUri);
 
@@ -45,12 +45,18 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
 
 import static com.microsoft.identity.client.internal.MsalUtils.validateNonNullArgument;
 
 public class PublicClientApplicationConfigurationFactory {
     private static final String TAG = PublicClientApplicationConfigurationFactory.class.getSimpleName();
 
+    private static final Map<Integer, String> sCompiledConfigurations = new HashMap<>();
+
+    private static Gson sGson;
+
     /**
      * Initializes a default PublicClientApplicationConfiguration object.
      **/
@@ -66,9 +72,92 @@ public class PublicClientApplicationConfigurationFactory {
     @WorkerThread
     public static PublicClientApplicationConfiguration initializeConfiguration(@NonNull final Context context,
                                                                                final int configResourceId) {
+        final PublicClientApplicationConfiguration compiledConfig =
+                initializeCompiledConfiguration(context, configResourceId);
+
+        if (null != compiledConfig) {
+            return compiledConfig;
+        }
+
         return initializeConfigurationInternal(context, loadConfiguration(context, configResourceId));
     }
 
+    /**
+     * Registers the configuration compiled at build time from the given configResourceId, so that
+     * it is used instead of loading and merging the resource. This is invoked by the class
+     * generated by the compileMsalConfiguration Gradle task, see
+     * msal/configuration/msal_config_tasks.gradle.
+     * <p>
+     * The configuration was merged over the defaults of the MSAL version it was compiled for. If
+     * that is not the version running, the defaults may differ, so the configuration is ignored
+     * and the resource is loaded and validated as usual.
+     *
+     * @param configResourceId  The resource the configuration was compiled from.
+     * @param configurationJson The configuration, already validated and merged over the defaults.
+     * @param msalVersion       The version of MSAL the configuration was compiled for.
+     */
+    public static void registerCompiledConfiguration(final int configResourceId,
+                                                     @NonNull final String configurationJson,
+                                                     @NonNull final String msalVersion) {
+        final String methodName = ":registerCompiledConfiguration";
+        validateNonNullArgument(configurationJson, "configurationJson");
+        validateNonNullArgument(msalVersion, "msalVersion");
+
+        if (!msalVersion.equals(PublicClientApplication.getSdkVersion())) {
+            Logger.warn(
+                    TAG + methodName,
+                    "Ignoring the configuration compiled for MSAL " + msalVersion
+                            + ", running " + PublicClientApplication.getSdkVersion()
+                            + ". Recompile it to skip loading the resource."
+            );
+            return;
+        }
+
+        synchronized (sCompiledConfigurations) {
+            sCompiledConfigurations.put(configResourceId, configurationJson);
+        }
+    }
+
+    /**
+     * Initializes a PublicClientApplicationConfiguration from the configuration compiled from the
+     * given configResourceId, if one was registered. It was validated and merged at build time,
+     * so only the checks which need the installed app are run.
+     *
+     * @return The configuration, or null if none was registered or it cannot be loaded.
+     */
+    @Nullable
+    @WorkerThread
+    private static PublicClientApplicationConfiguration initializeCompiledConfiguration(@NonNull final Context context,
+                                                                                        final int configResourceId) {
+        final String methodName = ":initializeCompiledConfiguration";
+        validateNonNullArgument(context, "context");
+
+        final String configurationJson;
+
+        synchronized (sCompiledConfigurations) {
+            configurationJson = sCompiledConfigurations.get(configResourceId);
+        }
+
+        if (null == configurationJson) {
+            return null;
+        }
+
+        final PublicClientApplicationConfiguration config;
+
+        try {
+            config = getGsonForLoadingConfiguration().fromJson(configurationJson, PublicClientApplicationConfiguration.class);
+        } catch (final RuntimeException e) {
+            Logger.warn(TAG + methodName, "Unable to load the compiled configuration, falling back to the resource: " + e);
+            return null;
+        }
+
+        config.setAppContext(context);
+        config.validateInstalledConfiguration();
+        config.setOAuth2TokenCache(MsalOAuth2TokenCache.create(context));
+
+        return config;
+    }
+
     /**
      * Initializes a PublicClientApplicationConfiguration from the given file, if there is any,
      * and merge it to the default config object.
@@ -169,7 +258,15 @@ public class PublicClientApplicationConfigurationFactory {
         }
     }
 
-    private static Gson getGsonForLoadingConfiguration() {
+    private static synchronized Gson getGsonForLoadingConfiguration() {
+        if (null == sGson) {
+            sGson = createGsonForLoadingConfiguration();
+        }
+
+        return sGson;
+    }
+
+    private static Gson createGsonForLoadingConfiguration() {
         return new GsonBuilder()
                 .registerTypeAdapter(
                         Authority.class,
@@ -0,0 +1,291 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.util.Pair;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collapses concurrent, equivalent silent requests into a single execution.
+ * <p>
+ * The first request for a given {@link SilentTokenRequestKey} (and forceRefresh value) is
+ * executed; equivalent requests arriving while it is in flight are parked, and the single result
+ * (or error) is fanned out to every waiting {@link SilentAuthenticationCallback}.
+ * <p>
+ * An execution which has not completed within {@link #IN_FLIGHT_TIMEOUT_MILLIS} is presumed lost:
+ * the next equivalent request is executed instead, and the requests parked on the lost one
+ * receive its result.
+ */
+final class SilentRequestCoalescer {
+
+    private static final String TAG = SilentRequestCoalescer.class.getSimpleName();
+
+    /**
+     * How long an execution may be in flight before equivalent requests stop merging into it.
+     * Well above the connect and read timeouts of a token request, including a broker fallback.
+     */
+    static final long IN_FLIGHT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    private static final SilentRequestCoalescer sInstance = new SilentRequestCoalescer();
+
+    private final Map<Pair<SilentTokenRequestKey, Boolean>, InFlight> mInFlight = new HashMap<>();
+    private final long mInFlightTimeoutMillis;
+    private final AtomicLong mExecutedCount = new AtomicLong();
+    private final AtomicLong mMergedCount = new AtomicLong();
+
+    SilentRequestCoalescer() {
+        this(IN_FLIGHT_TIMEOUT_MILLIS);
+    }
+
+    @VisibleForTesting
+    SilentRequestCoalescer(final long inFlightTimeoutMillis) {
+        mInFlightTimeoutMillis = inFlightTimeoutMillis;
+    }
+
+    /**
+     * @return The process-wide instance.
+     */
+    @NonNull
+    static SilentRequestCoalescer getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Completes the execution a callback returned by {@link #enlist} belongs to with an error, if
+     * the supplied callback is one. Used when the command executing it was cancelled.
+     *
+     * @param callback The callback a request was executed with.
+     * @return true if the callback belonged to an execution of the coalescer.
+     */
+    static boolean cancel(@Nullable final SilentAuthenticationCallback callback) {
+        if (!(callback instanceof FanOutCallback)) {
+            return false;
+        }
+
+        callback.onError(new MsalClientException(
+                MsalClientException.UNKNOWN_ERROR,
+                "The silent request was cancelled."
+        ));
+
+        return true;
+    }
+
+    /**
+     * Enlists a request for execution.
+     *
+     * @param key          The request key.
+     * @param forceRefresh Whether the request forces a refresh.
+     * @param callback     The callback of the request.
+     * @return The callback the request must be executed with, which notifies every merged
+     * request on completion; or null if the request was merged into one already in flight and
+     * must not be executed.
+     */
+    @Nullable
+    SilentAuthenticationCallback enlist(@NonNull final SilentTokenRequestKey key,
+                                        final boolean forceRefresh,
+                                        @NonNull final SilentAuthenticationCallback callback) {
+        final String methodName = ":enlist";
+        final Pair<SilentTokenRequestKey, Boolean> inFlightKey = new Pair<>(key, forceRefresh);
+        final long now = System.currentTimeMillis();
+        final InFlight inFlight = new InFlight(inFlightKey, now);
+
+        synchronized (mInFlight) {
+            final InFlight current = mInFlight.get(inFlightKey);
+
+            if (null != current && now - current.mStartedMillis < mInFlightTimeoutMillis) {
+                current.mCallbacks.add(callback);
+                Logger.verbose(
+                        TAG + methodName,
+                        "Merged silent request into one in flight. Total merged: ["
+                                + mMergedCount.incrementAndGet() + "]"
+                );
+                return null;
+            }
+
+            if (null != current) {
+                Logger.warn(
+                        TAG + methodName,
+                        "Silent request in flight for [" + (now - current.mStartedMillis)
+                                + "] ms, executing its equivalent instead."
+                );
+                inFlight.mCallbacks.addAll(current.mCallbacks);
+                current.mCallbacks.clear();
+            }
+
+            inFlight.mCallbacks.add(callback);
+            mInFlight.put(inFlightKey, inFlight);
+        }
+
+        mExecutedCount.incrementAndGet();
+
+        return new FanOutCallback(inFlight);
+    }
+
+    /**
+     * Drops all in-flight requests without notifying them.
+     */
+    void clear() {
+        synchronized (mInFlight) {
+            mInFlight.clear();
+        }
+    }
+
+    /**
+     * @return The number of requests which were executed.
+     */
+    long getExecutedCount() {
+        return mExecutedCount.get();
+    }
+
+    /**
+     * @return The number of requests which were merged into an in-flight request.
+     */
+    long getMergedCount() {
+        return mMergedCount.get();
+    }
+
+    /**
+     * An execution, and the requests waiting on it. Guarded by mInFlight.
+     */
+    private static final class InFlight {
+
+        private final Pair<SilentTokenRequestKey, Boolean> mKey;
+        private final long mStartedMillis;
+        private final List<SilentAuthenticationCallback> mCallbacks = new ArrayList<>();
+
+        InFlight(@NonNull final Pair<SilentTokenRequestKey, Boolean> key, final long startedMillis) {
+            mKey = key;
+            mStartedMillis = startedMillis;
+        }
+    }
+
+    /**
+     * Notifies every request merged into an execution. It is invoked wherever the executed
+     * request completes; each merged request is then notified on its own callback thread. A
+     * callback which throws does not keep the others from being notified; the first exception is
+     * rethrown once all of them were.
+     */
+    private final class FanOutCallback
+            implements SilentAuthenticationCallback, CallbackDispatcher.AnyThreadCallback {
+
+        private final InFlight mExecution;
+
+        FanOutCallback(@NonNull final InFlight execution) {
+            mExecution = execution;
+        }
+
+        @Override
+        public void onSuccess(final IAuthenticationResult authenticationResult) {
+            RuntimeException thrown = null;
+
+            for (final SilentAuthenticationCallback waiting : complete(mExecution)) {
+                thrown = notifyWaiting(thrown, waiting, new Runnable() {
+                    @Override
+                    public void run() {
+                        waiting.onSuccess(authenticationResult);
+                    }
+                });
+            }
+
+            rethrow(thrown);
+        }
+
+        @Override
+        public void onError(final MsalException exception) {
+            RuntimeException thrown = null;
+
+            for (final SilentAuthenticationCallback waiting : complete(mExecution)) {
+                thrown = notifyWaiting(thrown, waiting, new Runnable() {
+                    @Override
+                    public void run() {
+                        waiting.onError(exception);
+                    }
+                });
+            }
+
+            rethrow(thrown);
+        }
+    }
+
+    /**
+     * Notifies one merged request.
+     *
+     * @return The first exception thrown so far, which is either the supplied one or, if there is
+     * none, the one the notification threw.
+     */
+    @Nullable
+    private static RuntimeException notifyWaiting(@Nullable final RuntimeException thrown,
+                                                  @NonNull final SilentAuthenticationCallback waiting,
+                                                  @NonNull final Runnable delivery) {
+        final String methodName = ":notifyWaiting";
+
+        try {
+            CallbackDispatcher.dispatch(waiting, delivery);
+            return thrown;
+        } catch (final RuntimeException exception) {
+            if (null == thrown) {
+                return exception;
+            }
+
+            Logger.error(TAG + methodName, "Another merged request callback threw.", exception);
+            return thrown;
+        }
+    }
+
+    private static void rethrow(@Nullable final RuntimeException thrown) {
+        if (null != thrown) {
+            throw thrown;
+        }
+    }
+
+    @NonNull
+    private List<SilentAuthenticationCallback> complete(@NonNull final InFlight inFlight) {
+        final List<SilentAuthenticationCallback> callbacks;
+
+        synchronized (mInFlight) {
+            // Unless it was superseded, having timed out.
+            if (mInFlight.get(inFlight.mKey) == inFlight) {
+                mInFlight.remove(inFlight.mKey);
+            }
+
+            callbacks = new ArrayList<>(inFlight.mCallbacks);
+            inFlight.mCallbacks.clear();
+        }
+
+        return callbacks;
+    }
+}
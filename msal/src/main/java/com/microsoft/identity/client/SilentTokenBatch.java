@@ -0,0 +1,117 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.client.exception.MsalException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects the per-request outcomes of a batch silent token request and reports them once every
+ * request has finished. The per-request outcomes are recorded on whichever thread produces them;
+ * the batch callback is invoked as any other callback, see {@link CallbackDispatcher}.
+ */
+final class SilentTokenBatch {
+
+    private final List<AcquireTokenSilentParameters> mParameters;
+    private final BatchSilentAuthenticationCallback mCallback;
+    private final SilentTokenResult[] mResults;
+    private final AtomicInteger mRemaining;
+
+    SilentTokenBatch(@NonNull final List<AcquireTokenSilentParameters> parameters,
+                     @NonNull final BatchSilentAuthenticationCallback callback) {
+        mParameters = new ArrayList<>(parameters);
+        mCallback = callback;
+        mResults = new SilentTokenResult[mParameters.size()];
+        mRemaining = new AtomicInteger(mParameters.size());
+    }
+
+    /**
+     * Returns the callback recording the outcome of the request at the supplied position.
+     *
+     * @param index The position of the request in the batch.
+     * @return The callback of the request.
+     */
+    @NonNull
+    SilentAuthenticationCallback callbackFor(final int index) {
+        return new EntryCallback(index);
+    }
+
+    /**
+     * Records the outcome of one request of the batch, on any thread.
+     */
+    private final class EntryCallback
+            implements SilentAuthenticationCallback, CallbackDispatcher.AnyThreadCallback {
+
+        private final int mIndex;
+
+        EntryCallback(final int index) {
+            mIndex = index;
+        }
+
+        @Override
+        public void onSuccess(final IAuthenticationResult authenticationResult) {
+            complete(mIndex, new SilentTokenResult(mParameters.get(mIndex), authenticationResult, null));
+        }
+
+        @Override
+        public void onError(final MsalException exception) {
+            complete(mIndex, new SilentTokenResult(mParameters.get(mIndex), null, exception));
+        }
+    }
+
+    private void complete(final int index, @NonNull final SilentTokenResult result) {
+        synchronized (mResults) {
+            if (null != mResults[index]) {
+                // Each request reports once, ignore anything after the first outcome.
+                return;
+            }
+
+            mResults[index] = result;
+        }
+
+        // The callback is only set for the duration of the batch, so the request can be reused.
+        mParameters.get(index).setCallback(null);
+
+        if (0 == mRemaining.decrementAndGet()) {
+            final List<SilentTokenResult> results;
+
+            synchronized (mResults) {
+                results = Collections.unmodifiableList(Arrays.asList(mResults.clone()));
+            }
+
+            CallbackDispatcher.deliver(mCallback, new Runnable() {
+                @Override
+                public void run() {
+                    mCallback.onCompleted(results);
+                }
+            });
+        }
+    }
+}
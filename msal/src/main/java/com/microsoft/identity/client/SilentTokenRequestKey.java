@@ -0,0 +1,216 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.claims.ClaimsRequest;
+import com.microsoft.identity.common.internal.authscheme.BearerAuthenticationSchemeInternal;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Identifies a silent token request by the properties which determine the access token it
+ * resolves to: the client id, account, authority, (normalized) scopes, claims and
+ * authentication scheme.
+ */
+final class SilentTokenRequestKey {
+
+    private final String mClientId;
+    private final String mHomeAccountId;
+    private final String mAuthority;
+    private final String mScopes;
+    private final String mClaims;
+    private final String mAuthenticationScheme;
+    private final int mHashCode;
+
+    private SilentTokenRequestKey(@NonNull final String clientId,
+                                  @NonNull final String homeAccountId,
+                                  @NonNull final String authority,
+                                  @NonNull final String scopes,
+                                  @Nullable final String claims,
+                                  @NonNull final String authenticationScheme) {
+        mClientId = clientId;
+        mHomeAccountId = homeAccountId;
+        mAuthority = authority;
+        mScopes = scopes;
+        mClaims = claims;
+        mAuthenticationScheme = authenticationScheme;
+        mHashCode = computeHashCode();
+    }
+
+    /**
+     * Creates the key for the supplied silent request.
+     *
+     * @param configuration The configuration of the application issuing the request.
+     * @param parameters    The request parameters.
+     * @return The key, or null if the request lacks the account or scopes to be keyed.
+     */
+    @Nullable
+    static SilentTokenRequestKey of(@NonNull final PublicClientApplicationConfiguration configuration,
+                                    @NonNull final TokenParameters parameters) {
+        if (!(parameters.getAccount() instanceof MultiTenantAccount)
+                || null == parameters.getScopes()
+                || parameters.getScopes().isEmpty()) {
+            return null;
+        }
+
+        final String authority;
+
+        if (TextUtils.isEmpty(parameters.getAuthority())) {
+            if (null == configuration.getDefaultAuthority()) {
+                return null;
+            }
+
+            authority = configuration.getDefaultAuthority().getAuthorityUri().toString();
+        } else {
+            authority = parameters.getAuthority();
+        }
+
+        final ClaimsRequest claimsRequest = parameters.getClaimsRequest();
+
+        return new SilentTokenRequestKey(
+                configuration.getClientId(),
+                normalizeHomeAccountId(((MultiTenantAccount) parameters.getAccount()).getHomeAccountId()),
+                normalizeAuthority(authority),
+                normalizeScopes(parameters.getScopes()),
+                null == claimsRequest ? null : ClaimsRequest.getJsonStringFromClaimsRequest(claimsRequest),
+                getSchemeName(parameters.getAuthenticationScheme())
+        );
+    }
+
+    /**
+     * Returns the name of the supplied scheme; requests without an explicit scheme use Bearer.
+     */
+    @NonNull
+    static String getSchemeName(@Nullable final AuthenticationScheme scheme) {
+        return null == scheme
+                ? BearerAuthenticationSchemeInternal.SCHEME_BEARER
+                : scheme.getName();
+    }
+
+    @NonNull
+    String getHomeAccountId() {
+        return mHomeAccountId;
+    }
+
+    /**
+     * Home account ids are matched case-insensitively, both by key equality and here.
+     *
+     * @param homeAccountId The home account id of an account.
+     * @return true if this key belongs to the account.
+     */
+    boolean belongsTo(@NonNull final String homeAccountId) {
+        return mHomeAccountId.equals(normalizeHomeAccountId(homeAccountId));
+    }
+
+    boolean isBearer() {
+        return BearerAuthenticationSchemeInternal.SCHEME_BEARER.equals(mAuthenticationScheme);
+    }
+
+    boolean hasClaims() {
+        return null != mClaims;
+    }
+
+    @NonNull
+    private static String normalizeHomeAccountId(@NonNull final String homeAccountId) {
+        return homeAccountId.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @NonNull
+    private static String normalizeAuthority(@NonNull final String authority) {
+        String normalized = authority.trim().toLowerCase(Locale.ROOT);
+
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+
+        return normalized;
+    }
+
+    @NonNull
+    private static String normalizeScopes(@NonNull final List<String> scopes) {
+        // Sorted, so that the same scopes requested in a different order map to the same key
+        final Set<String> normalized = new TreeSet<>();
+
+        for (final String scope : scopes) {
+            if (!TextUtils.isEmpty(scope)) {
+                normalized.add(scope.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        final StringBuilder builder = new StringBuilder();
+
+        for (final String scope : normalized) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+
+            builder.append(scope);
+        }
+
+        return builder.toString();
+    }
+
+    private int computeHashCode() {
+        int result = mClientId.hashCode();
+        result = 31 * result + mHomeAccountId.hashCode();
+        result = 31 * result + mAuthority.hashCode();
+        result = 31 * result + mScopes.hashCode();
+        result = 31 * result + (null == mClaims ? 0 : mClaims.hashCode());
+        result = 31 * result + mAuthenticationScheme.hashCode();
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        return mHashCode;
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof SilentTokenRequestKey)) {
+            return false;
+        }
+
+        final SilentTokenRequestKey other = (SilentTokenRequestKey) obj;
+
+        return mHashCode == other.mHashCode
+                && mClientId.equals(other.mClientId)
+                && mHomeAccountId.equals(other.mHomeAccountId)
+                && mAuthority.equals(other.mAuthority)
+                && mScopes.equals(other.mScopes)
+                && (null == mClaims ? null == other.mClaims : mClaims.equals(other.mClaims))
+                && mAuthenticationScheme.equals(other.mAuthenticationScheme);
+    }
+}
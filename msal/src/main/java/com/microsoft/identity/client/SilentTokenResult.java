@@ -0,0 +1,83 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.exception.MsalException;
+
+/**
+ * The outcome of one request of a batch silent token request.
+ */
+public class SilentTokenResult {
+
+    private final AcquireTokenSilentParameters mParameters;
+    private final IAuthenticationResult mAuthenticationResult;
+    private final MsalException mException;
+
+    SilentTokenResult(@NonNull final AcquireTokenSilentParameters parameters,
+                      @Nullable final IAuthenticationResult authenticationResult,
+                      @Nullable final MsalException exception) {
+        mParameters = parameters;
+        mAuthenticationResult = authenticationResult;
+        mException = exception;
+    }
+
+    /**
+     * Gets the request this result belongs to.
+     *
+     * @return The request parameters.
+     */
+    @NonNull
+    public AcquireTokenSilentParameters getParameters() {
+        return mParameters;
+    }
+
+    /**
+     * Gets the result of the request, if it succeeded.
+     *
+     * @return The {@link IAuthenticationResult} or null.
+     */
+    @Nullable
+    public IAuthenticationResult getAuthenticationResult() {
+        return mAuthenticationResult;
+    }
+
+    /**
+     * Gets the error of the request, if it failed.
+     *
+     * @return The {@link MsalException} or null.
+     */
+    @Nullable
+    public MsalException getException() {
+        return mException;
+    }
+
+    /**
+     * @return True if the request succeeded. False otherwise.
+     */
+    public boolean isSuccessful() {
+        return null == mException;
+    }
+}
@@ -23,10 +23,10 @@
 package com.microsoft.identity.client;
 
 import android.app.Activity;
-import android.content.Context;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.annotation.WorkerThread;
 
 import com.microsoft.identity.client.exception.MsalClientException;
@@ -35,12 +35,9 @@ import com.microsoft.identity.client.internal.AsyncResult;
 import com.microsoft.identity.client.internal.CommandParametersAdapter;
 import com.microsoft.identity.client.internal.controllers.MSALControllerFactory;
 import com.microsoft.identity.client.internal.controllers.MsalExceptionAdapter;
-import com.microsoft.identity.common.adal.internal.cache.StorageHelper;
-import com.microsoft.identity.common.adal.internal.util.JsonExtensions;
 import com.microsoft.identity.common.adal.internal.util.StringExtensions;
 import com.microsoft.identity.common.exception.BaseException;
 import com.microsoft.identity.common.internal.cache.ICacheRecord;
-import com.microsoft.identity.common.internal.cache.SharedPreferencesFileManager;
 import com.microsoft.identity.common.internal.commands.CommandCallback;
 import com.microsoft.identity.common.internal.commands.GetCurrentAccountCommand;
 import com.microsoft.identity.common.internal.commands.RemoveCurrentAccountCommand;
@@ -54,6 +51,7 @@ import com.microsoft.identity.common.internal.result.ILocalAuthenticationResult;
 import com.microsoft.identity.common.internal.result.ResultFuture;
 import com.microsoft.identity.common.logging.Logger;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 
@@ -90,19 +88,11 @@ public class SingleAccountPublicClientApplication
     public static final String CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY =
             "com.microsoft.identity.client.single_account_credential_cache.current_account";
 
-    private SharedPreferencesFileManager sharedPreferencesFileManager;
+    private final CurrentAccountCache mCurrentAccountCache;
 
     protected SingleAccountPublicClientApplication(@NonNull final PublicClientApplicationConfiguration config) throws MsalClientException {
         super(config);
-        initializeSharedPreferenceFileManager(config.getAppContext());
-    }
-
-    private void initializeSharedPreferenceFileManager(@NonNull final Context context) {
-        sharedPreferencesFileManager = new SharedPreferencesFileManager(
-                context,
-                SINGLE_ACCOUNT_CREDENTIAL_SHARED_PREFERENCES,
-                new StorageHelper(context)
-        );
+        mCurrentAccountCache = CurrentAccountCache.getInstance(config.getAppContext());
     }
 
     @Override
@@ -112,6 +102,75 @@ public class SingleAccountPublicClientApplication
 
     private void getCurrentAccountAsyncInternal(@NonNull final CurrentAccountCallback callback,
                                                 @NonNull final String publicApiId) {
+        if (Boolean.TRUE.equals(mPublicClientConfiguration.isCurrentAccountFastPathEnabled())
+                && getCurrentAccountFromSnapshot(callback, publicApiId)) {
+            return;
+        }
+
+        loadCurrentAccount(callback, publicApiId);
+    }
+
+    /**
+     * Answers with the persisted current account, then reconciles it with the cache and the
+     * broker in the background. The callback is only invoked again, with onAccountChanged, if
+     * they disagree.
+     *
+     * @return false if the background executor rejected the request.
+     */
+    @VisibleForTesting
+    boolean getCurrentAccountFromSnapshot(@NonNull final CurrentAccountCallback callback,
+                                          @NonNull final String publicApiId) {
+        final String methodName = ":getCurrentAccountFromSnapshot";
+
+        return runOnBackgroundExecutor(new Runnable() {
+            @Override
+            public void run() {
+                // Read off the calling thread, as the first read of the process decrypts from disk.
+                final MultiTenantAccount persistedAccount = getPersistedCurrentAccount();
+
+                CallbackDispatcher.deliver(callback, new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onAccountLoaded(persistedAccount);
+                    }
+                });
+
+                loadCurrentAccount(
+                        new CurrentAccountCallback() {
+                            @Override
+                            public void onAccountLoaded(@Nullable final IAccount activeAccount) {
+                                // Already answered, either above or through onAccountChanged.
+                            }
+
+                            @Override
+                            public void onAccountChanged(@Nullable final IAccount priorAccount,
+                                                         @Nullable final IAccount currentAccount) {
+                                // Same thread as onAccountLoaded, whichever thread reconciled.
+                                CallbackDispatcher.deliver(callback, new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        callback.onAccountChanged(priorAccount, currentAccount);
+                                    }
+                                });
+                            }
+
+                            @Override
+                            public void onError(@NonNull final MsalException exception) {
+                                Logger.warn(
+                                        TAG + methodName,
+                                        "Failed to reconcile the current account: " + exception.getErrorCode()
+                                );
+                            }
+                        },
+                        publicApiId
+                );
+            }
+        });
+    }
+
+    @VisibleForTesting
+    void loadCurrentAccount(@NonNull final CurrentAccountCallback callback,
+                            @NonNull final String publicApiId) {
         TokenMigrationCallback migrationCallback = new TokenMigrationCallback() {
             @Override
             public void onMigrationFinished(int numberOfAccountsMigrated) {
@@ -135,9 +194,10 @@ public class SingleAccountPublicClientApplication
                             public void onTaskCompleted(final List<ICacheRecord> result) {
                                 // To simplify the logic, if more than one account is returned, the first account will be picked.
                                 // We do not support switching from MULTIPLE to SINGLE.
-                                // See getAccountFromICacheRecordList() for more details.
-                                checkCurrentAccountNotifyCallback(callback, result);
-                                persistCurrentAccount(result);
+                                // See CurrentAccountCache.toAccount() for more details.
+                                final MultiTenantAccount localAccount = getPersistedCurrentAccount();
+                                final MultiTenantAccount newAccount = persistCurrentAccount(result);
+                                checkCurrentAccountNotifyCallback(callback, localAccount, newAccount);
                             }
 
                             @Override
@@ -166,7 +226,8 @@ public class SingleAccountPublicClientApplication
 
         final ResultFuture<AsyncResult<CurrentAccountResult>> future = new ResultFuture<>();
 
-        getCurrentAccountAsyncInternal(
+        // Skips the fast path: the first answer is final here, so it has to be the reconciled one.
+        loadCurrentAccount(
                 new CurrentAccountCallback() {
                     @Override
                     public void onAccountLoaded(@Nullable final IAccount activeAccount) {
@@ -217,14 +278,45 @@ public class SingleAccountPublicClientApplication
         }
     }
 
-    private void checkCurrentAccountNotifyCallback(@NonNull final CurrentAccountCallback callback,
-                                                   @Nullable final List<ICacheRecord> newAccountRecords) {
-        final MultiTenantAccount localAccount = getPersistedCurrentAccount();
-        final MultiTenantAccount newAccount = newAccountRecords == null
-                ? null
-                : getAccountFromICacheRecordList(newAccountRecords);
+    @Override
+    @NonNull
+    public MsalFuture<ICurrentAccountResult> getCurrentAccountFuture() {
+        final MsalFuture<ICurrentAccountResult> future = new MsalFuture<>();
 
+        // Skips the fast path: the first answer is final here, so it has to be the reconciled one.
+        loadCurrentAccount(
+                new CurrentAccountCallback() {
+                    @Override
+                    public void onAccountLoaded(@Nullable final IAccount activeAccount) {
+                        // Already completed by onAccountChanged if the account changed.
+                        future.set(new CurrentAccountResult(activeAccount, null, false));
+                    }
+
+                    @Override
+                    public void onAccountChanged(@Nullable final IAccount priorAccount,
+                                                 @Nullable final IAccount currentAccount) {
+                        future.set(new CurrentAccountResult(currentAccount, priorAccount, false));
+                    }
+
+                    @Override
+                    public void onError(@NonNull final MsalException exception) {
+                        future.setException(exception);
+                    }
+                },
+                SINGLE_ACCOUNT_PCA_GET_CURRENT_ACCOUNT
+        );
+
+        return future;
+    }
+
+    private void checkCurrentAccountNotifyCallback(@NonNull final CurrentAccountCallback callback,
+                                                   @Nullable final MultiTenantAccount localAccount,
+                                                   @Nullable final MultiTenantAccount newAccount) {
         if (!isHomeAccountIdMatching(localAccount, newAccount)) {
+            if (null != localAccount) {
+                evictAccountFromMemory(localAccount);
+            }
+
             callback.onAccountChanged(localAccount, newAccount);
         }
 
@@ -336,6 +428,8 @@ public class SingleAccountPublicClientApplication
             @NonNull final TokenParameters tokenParameters) {
         return new CommandCallback<ILocalAuthenticationResult, BaseException>() {
 
+            private final long mRequestStartMillis = System.currentTimeMillis();
+
             @Override
             public void onTaskCompleted(@NonNull final ILocalAuthenticationResult localAuthenticationResult) {
                 if (authenticationCallback == null) {
@@ -343,7 +437,7 @@ public class SingleAccountPublicClientApplication
                 }
 
                 persistCurrentAccount(localAuthenticationResult.getCacheRecordWithTenantProfileData());
-                postAuthResult(localAuthenticationResult, tokenParameters, authenticationCallback);
+                postAuthResult(localAuthenticationResult, tokenParameters, authenticationCallback, mRequestStartMillis);
             }
 
             @Override
@@ -352,6 +446,7 @@ public class SingleAccountPublicClientApplication
                 if (authenticationCallback == null) {
                     throw new IllegalStateException(NONNULL_CONSTANTS.CALLBACK + NONNULL_CONSTANTS.NULL_ERROR_SUFFIX);
                 } else {
+                    updateUiRequiredCache(tokenParameters, msalException);
                     authenticationCallback.onError(msalException);
                 }
             }
@@ -360,7 +455,7 @@ public class SingleAccountPublicClientApplication
             public void onCancel() {
                 if (authenticationCallback instanceof AuthenticationCallback) {
                     ((AuthenticationCallback) authenticationCallback).onCancel();
-                } else {
+                } else if (!SilentRequestCoalescer.cancel(authenticationCallback)) {
                     throw new IllegalStateException("Silent requests cannot be cancelled.");
                 }
             }
@@ -428,6 +523,7 @@ public class SingleAccountPublicClientApplication
 
                     @Override
                     public void onTaskCompleted(Boolean result) {
+                        evictAccountFromMemory(persistedCurrentAccount);
                         persistCurrentAccount(null);
                         callback.onSignOut();
                     }
@@ -483,67 +579,49 @@ public class SingleAccountPublicClientApplication
         }
     }
 
-    /**
-     * Get current account that is persisted in shared preference.
-     *
-     * @return a persisted MultiTenantAccount. This could be null.
-     */
-    private MultiTenantAccount getPersistedCurrentAccount() {
-        synchronized(SingleAccountPublicClientApplication.class) {
-            final String currentAccountJsonString = sharedPreferencesFileManager.getString(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY);
+    @Override
+    @NonNull
+    public MsalFuture<Boolean> signOutFuture() {
+        final MsalFuture<Boolean> future = new MsalFuture<>();
 
-            if (StringExtensions.isNullOrBlank(currentAccountJsonString)) {
-                return null;
-            }
+        signOutInternal(
+                new SignOutCallback() {
+                    @Override
+                    public void onSignOut() {
+                        future.set(true);
+                    }
 
-            final List<ICacheRecord> cacheRecordList = JsonExtensions.getICacheRecordListFromJsonString(currentAccountJsonString);
-            return getAccountFromICacheRecordList(cacheRecordList);
-        }
+                    @Override
+                    public void onError(@NonNull final MsalException exception) {
+                        future.setException(exception);
+                    }
+                },
+                SINGLE_ACCOUNT_PCA_SIGN_OUT
+        );
+
+        return future;
     }
 
     /**
-     * Persists current account to shared preference.
+     * Get current account that is persisted in shared preference.
+     * It is served from the in-memory snapshot without locking; shared preference is only read once per process.
      *
-     * @param cacheRecords list of cache record that belongs to an account.
-     *                     Please note that this layer will not verify if the list belongs to a single account or not.
+     * @return a persisted MultiTenantAccount. This could be null.
      */
-    private void persistCurrentAccount(@Nullable final List<ICacheRecord> cacheRecords) {
-        synchronized(SingleAccountPublicClientApplication.class) {
-            if (cacheRecords == null || cacheRecords.size() == 0) {
-                sharedPreferencesFileManager.clear();
-                return;
-            }
-
-            final String currentAccountJsonString = JsonExtensions.getJsonStringFromICacheRecordList(cacheRecords);
-            sharedPreferencesFileManager.putString(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY, currentAccountJsonString);
-        }
+    @VisibleForTesting
+    MultiTenantAccount getPersistedCurrentAccount() {
+        return mCurrentAccountCache.getSnapshot().getAccount();
     }
 
     /**
-     * Get a MultiTenantAccount from a list of ICacheRecord.
+     * Persists current account to shared preference, unless it is unchanged.
      *
      * @param cacheRecords list of cache record that belongs to an account.
-     *                     If the list can be converted to multiple accounts, only the first one will be returned.
+     *                     Please note that this layer will not verify if the list belongs to a single account or not.
+     * @return the current account after the update. This could be null.
      */
-    @Nullable
-    private MultiTenantAccount getAccountFromICacheRecordList(@NonNull final List<ICacheRecord> cacheRecords) {
-        final String methodName = ":getAccountFromICacheRecords";
-
-        if (cacheRecords == null || cacheRecords.size() == 0) {
-            return null;
-        }
-
-        final List<IAccount> account = AccountAdapter.adapt(cacheRecords);
-
-        if (account.size() != 1) {
-            Logger.verbose(
-                    TAG + methodName,
-                    "Returned cacheRecords were adapted into multiple IAccount. " +
-                            "This is unexpected in Single account mode." +
-                            "Returning the first adapted account.");
-        }
-
-        return (MultiTenantAccount) account.get(0);
+    private MultiTenantAccount persistCurrentAccount(@Nullable final List<ICacheRecord> cacheRecords) {
+        return mCurrentAccountCache.update(cacheRecords).getAccount();
     }
 
     @Override
@@ -704,4 +782,64 @@ public class SingleAccountPublicClientApplication
                 SINGLE_ACCOUNT_PCA_ACQUIRE_TOKEN_SILENT_WITH_PARAMETERS
         );
     }
+
+    @Override
+    public void acquireTokensSilentAsync(@NonNull final List<AcquireTokenSilentParameters> acquireTokenSilentParameters,
+                                         @NonNull final BatchSilentAuthenticationCallback callback) {
+        final MsalClientException exception = checkCurrentAccount(acquireTokenSilentParameters);
+
+        if (exception != null) {
+            final List<SilentTokenResult> results = new ArrayList<>();
+
+            for (final AcquireTokenSilentParameters parameters : acquireTokenSilentParameters) {
+                results.add(new SilentTokenResult(parameters, null, exception));
+            }
+
+            callback.onCompleted(results);
+            return;
+        }
+
+        acquireTokensSilentAsyncInternal(
+                acquireTokenSilentParameters,
+                callback,
+                SINGLE_ACCOUNT_PCA_ACQUIRE_TOKEN_SILENT_ASYNC_WITH_PARAMETERS
+        );
+    }
+
+    @Override
+    public List<SilentTokenResult> acquireTokensSilent(@NonNull final List<AcquireTokenSilentParameters> acquireTokenSilentParameters) throws InterruptedException, MsalException {
+        final MsalClientException exception = checkCurrentAccount(acquireTokenSilentParameters);
+
+        if (exception != null) {
+            throw exception;
+        }
+
+        return acquireTokensSilentInternal(
+                acquireTokenSilentParameters,
+                SINGLE_ACCOUNT_PCA_ACQUIRE_TOKEN_SILENT_WITH_PARAMETERS
+        );
+    }
+
+    /**
+     * Checks that every request of a batch is for the current account.
+     *
+     * @return The error to report, or null if all requests are for the current account.
+     */
+    @Nullable
+    private MsalClientException checkCurrentAccount(@NonNull final List<AcquireTokenSilentParameters> acquireTokenSilentParameters) {
+        final IAccount persistedAccount = getPersistedCurrentAccount();
+        if (persistedAccount == null) {
+            return new MsalClientException(MsalClientException.NO_CURRENT_ACCOUNT,
+                    MsalClientException.NO_CURRENT_ACCOUNT_ERROR_MESSAGE);
+        }
+
+        for (final AcquireTokenSilentParameters parameters : acquireTokenSilentParameters) {
+            if (!isHomeAccountIdMatching(persistedAccount, parameters.getAccount())) {
+                return new MsalClientException(MsalClientException.CURRENT_ACCOUNT_MISMATCH,
+                        MsalClientException.CURRENT_ACCOUNT_MISMATCH_ERROR_MESSAGE);
+            }
+        }
+
+        return null;
+    }
 }
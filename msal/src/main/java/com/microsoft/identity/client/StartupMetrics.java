@@ -0,0 +1,131 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+
+import java.util.Map;
+
+/**
+ * A breakdown of the time a PublicClientApplication took to initialize.
+ * <p>
+ * Initialization has two phases. The critical path runs before the PublicClientApplication is
+ * returned, and holds what requests cannot do without and what may fail its creation. The
+ * deferred phase runs afterwards on the background executor of the PublicClientApplication.
+ * Steps of the critical path may overlap, so their durations can add up to more than the
+ * critical path itself.
+ */
+public class StartupMetrics {
+
+    /**
+     * Sets the environment, the known authorities, the HTTP timeouts and the logger.
+     */
+    public static final String STEP_CONFIGURATION = "configuration";
+
+    /**
+     * Configures telemetry.
+     */
+    public static final String STEP_TELEMETRY = "telemetry";
+
+    /**
+     * Creates the token sharing library.
+     */
+    public static final String STEP_TOKEN_SHARING = "token_sharing";
+
+    /**
+     * Checks that the manifest declares the broker redirect activity, when the broker is used.
+     */
+    public static final String STEP_BROKER_INTENT_FILTER_CHECK = "broker_intent_filter_check";
+
+    /**
+     * Checks that the app holds the network permissions.
+     */
+    public static final String STEP_INTERNET_PERMISSION_CHECK = "internet_permission_check";
+
+    /**
+     * Creates the proactive token refresh scheduler.
+     */
+    public static final String STEP_TOKEN_REFRESH_SCHEDULER = "token_refresh_scheduler";
+
+    /**
+     * Opens the on-disk HTTP cache. Deferred.
+     */
+    public static final String STEP_HTTP_CACHE = "http_cache";
+
+    private final long mCriticalPathMillis;
+    private final Map<String, Long> mCriticalStepMillis;
+    private final Map<String, Long> mDeferredStepMillis;
+    private final boolean mDeferredComplete;
+
+    StartupMetrics(final long criticalPathMillis,
+                   @NonNull final Map<String, Long> criticalStepMillis,
+                   @NonNull final Map<String, Long> deferredStepMillis,
+                   final boolean deferredComplete) {
+        mCriticalPathMillis = criticalPathMillis;
+        mCriticalStepMillis = criticalStepMillis;
+        mDeferredStepMillis = deferredStepMillis;
+        mDeferredComplete = deferredComplete;
+    }
+
+    /**
+     * @return The time spent initializing before the PublicClientApplication was returned, in
+     * milliseconds.
+     */
+    public long getCriticalPathMillis() {
+        return mCriticalPathMillis;
+    }
+
+    /**
+     * @return The duration of each step of the critical path, in milliseconds, in the order the
+     * steps completed.
+     */
+    @NonNull
+    public Map<String, Long> getCriticalStepMillis() {
+        return mCriticalStepMillis;
+    }
+
+    /**
+     * @return The duration of each deferred step completed so far, in milliseconds.
+     */
+    @NonNull
+    public Map<String, Long> getDeferredStepMillis() {
+        return mDeferredStepMillis;
+    }
+
+    /**
+     * @return True if every deferred step has completed.
+     */
+    public boolean isDeferredComplete() {
+        return mDeferredComplete;
+    }
+
+    @Override
+    public String toString() {
+        return "StartupMetrics{"
+                + "criticalPath=" + mCriticalPathMillis
+                + ", critical=" + mCriticalStepMillis
+                + ", deferred=" + mDeferredStepMillis
+                + ", deferredComplete=" + mDeferredComplete
+                + '}';
+    }
+}
@@ -0,0 +1,79 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each step of the initialization of a PublicClientApplication took, and hands
+ * the result out as {@link StartupMetrics}. Steps may be recorded from any thread.
+ */
+final class StartupTrace {
+
+    private final Map<String, Long> mCriticalStepMillis = new LinkedHashMap<>();
+    private final Map<String, Long> mDeferredStepMillis = new LinkedHashMap<>();
+    private long mCriticalPathMillis;
+    private boolean mDeferredComplete;
+
+    /**
+     * @return The start time of a step, to pass to one of the record methods once it is done.
+     */
+    static long start() {
+        return System.nanoTime();
+    }
+
+    synchronized void recordCriticalStep(@NonNull final String step, final long startNanos) {
+        mCriticalStepMillis.put(step, elapsedMillis(startNanos));
+    }
+
+    synchronized void recordCriticalPath(final long startNanos) {
+        mCriticalPathMillis = elapsedMillis(startNanos);
+    }
+
+    synchronized void recordDeferredStep(@NonNull final String step, final long startNanos) {
+        mDeferredStepMillis.put(step, elapsedMillis(startNanos));
+    }
+
+    synchronized void onDeferredComplete() {
+        mDeferredComplete = true;
+    }
+
+    @NonNull
+    synchronized StartupMetrics getMetrics() {
+        return new StartupMetrics(
+                mCriticalPathMillis,
+                Collections.unmodifiableMap(new LinkedHashMap<>(mCriticalStepMillis)),
+                Collections.unmodifiableMap(new LinkedHashMap<>(mDeferredStepMillis)),
+                mDeferredComplete
+        );
+    }
+
+    private static long elapsedMillis(final long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
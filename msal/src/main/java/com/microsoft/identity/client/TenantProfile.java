@@ -28,6 +28,8 @@ import androidx.annotation.Nullable;
 import com.microsoft.identity.common.internal.providers.microsoft.MicrosoftIdToken;
 import com.microsoft.identity.common.internal.providers.oauth2.IDToken;
 
+import java.util.Map;
+
 public class TenantProfile extends Account implements ITenantProfile {
 
     public TenantProfile(@Nullable final String clientInfo,
@@ -35,6 +37,12 @@ public class TenantProfile extends Account implements ITenantProfile {
         super(clientInfo, idToken);
     }
 
+    TenantProfile(@Nullable final String clientInfo,
+                  @Nullable final String rawIdToken,
+                  @Nullable final Map<String, ?> idTokenClaims) {
+        super(clientInfo, rawIdToken, idTokenClaims);
+    }
+
     @NonNull
     @Override
     public String getTenantId() {
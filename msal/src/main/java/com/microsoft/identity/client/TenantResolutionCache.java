@@ -0,0 +1,209 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.microsoft.identity.common.adal.internal.cache.StorageHelper;
+import com.microsoft.identity.common.internal.cache.ISharedPreferencesFileManager;
+import com.microsoft.identity.common.internal.cache.SharedPreferencesFileManager;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A process-wide cache of the tenant ids named tenants, such as contoso.onmicrosoft.com, resolve
+ * to through OpenId Provider Configuration Metadata.
+ * <p>
+ * Tenant ids are written through to disk with an expiry, so that after the first request
+ * against a named tenant neither this process nor later ones need the metadata lookup until
+ * the entry expires. Entries are keyed by the normalized authority URL.
+ */
+final class TenantResolutionCache {
+
+    private static final String TAG = TenantResolutionCache.class.getSimpleName();
+
+    static final String SHARED_PREFERENCES_NAME = "com.microsoft.identity.client.tenant_resolution";
+
+    /**
+     * How long a resolved tenant id is trusted. The id of a named tenant does not change, so
+     * this only bounds how long a stale entry can survive if it ever does.
+     */
+    static final long TENANT_ID_TTL_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static final String VALUE_SEPARATOR = "|";
+
+    private static TenantResolutionCache sInstance;
+
+    private final ISharedPreferencesFileManager mFileManager;
+    private final long mTtlMillis;
+    private final Map<String, TenantIdEntry> mTenantIds = new HashMap<>();
+
+    private static final class TenantIdEntry {
+        private final String mTenantId;
+        private final long mExpiresOn;
+
+        private TenantIdEntry(@NonNull final String tenantId, final long expiresOn) {
+            mTenantId = tenantId;
+            mExpiresOn = expiresOn;
+        }
+    }
+
+    @VisibleForTesting
+    TenantResolutionCache(@Nullable final ISharedPreferencesFileManager fileManager,
+                          final long ttlMillis) {
+        mFileManager = fileManager;
+        mTtlMillis = ttlMillis;
+    }
+
+    /**
+     * @param context The application context, used to open the on-disk store on first use.
+     * @return The process-wide instance.
+     */
+    @NonNull
+    static synchronized TenantResolutionCache getInstance(@NonNull final Context context) {
+        if (null == sInstance) {
+            sInstance = new TenantResolutionCache(
+                    new SharedPreferencesFileManager(
+                            context,
+                            SHARED_PREFERENCES_NAME,
+                            new StorageHelper(context)
+                    ),
+                    TENANT_ID_TTL_MILLIS
+            );
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Drops the process-wide instance, so that the next call to {@link #getInstance(Context)}
+     * starts from disk.
+     */
+    @VisibleForTesting
+    static synchronized void reset() {
+        sInstance = null;
+    }
+
+    /**
+     * Returns the tenant id the supplied authority URL was last resolved to, if it has not
+     * expired.
+     *
+     * @param authorityUrl The authority URL of a named tenant.
+     * @return The tenant id or null.
+     */
+    @Nullable
+    String getTenantId(@NonNull final String authorityUrl) {
+        final String methodName = ":getTenantId";
+        final String key = normalize(authorityUrl);
+        final long now = System.currentTimeMillis();
+
+        synchronized (mTenantIds) {
+            TenantIdEntry entry = mTenantIds.get(key);
+
+            if (null == entry) {
+                entry = readFromDisk(key);
+
+                if (null != entry) {
+                    mTenantIds.put(key, entry);
+                }
+            }
+
+            if (null == entry || entry.mExpiresOn <= now) {
+                return null;
+            }
+
+            Logger.verbose(TAG + methodName, "Tenant id resolved from cache.");
+            return entry.mTenantId;
+        }
+    }
+
+    /**
+     * Records the tenant id the supplied authority URL resolved to.
+     *
+     * @param authorityUrl The authority URL of a named tenant.
+     * @param tenantId     The tenant id.
+     */
+    void putTenantId(@NonNull final String authorityUrl, @NonNull final String tenantId) {
+        final String key = normalize(authorityUrl);
+        final TenantIdEntry entry = new TenantIdEntry(tenantId, System.currentTimeMillis() + mTtlMillis);
+
+        synchronized (mTenantIds) {
+            mTenantIds.put(key, entry);
+
+            if (null != mFileManager) {
+                mFileManager.putString(key, entry.mExpiresOn + VALUE_SEPARATOR + entry.mTenantId);
+            }
+        }
+    }
+
+    @Nullable
+    private TenantIdEntry readFromDisk(@NonNull final String key) {
+        final String methodName = ":readFromDisk";
+
+        if (null == mFileManager) {
+            return null;
+        }
+
+        final String value = mFileManager.getString(key);
+
+        if (null == value) {
+            return null;
+        }
+
+        final int separatorIndex = value.indexOf(VALUE_SEPARATOR);
+
+        if (separatorIndex < 0) {
+            Logger.warn(TAG + methodName, "Ignoring malformed tenant resolution entry.");
+            return null;
+        }
+
+        try {
+            return new TenantIdEntry(
+                    value.substring(separatorIndex + 1),
+                    Long.parseLong(value.substring(0, separatorIndex))
+            );
+        } catch (final NumberFormatException e) {
+            Logger.warn(TAG + methodName, "Ignoring malformed tenant resolution entry.");
+            return null;
+        }
+    }
+
+    @NonNull
+    private static String normalize(@NonNull final String authorityUrl) {
+        String normalized = authorityUrl.trim().toLowerCase(Locale.US);
+
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+
+        return normalized;
+    }
+}
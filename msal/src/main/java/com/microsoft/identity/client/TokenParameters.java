@@ -35,6 +35,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 /**
  * Base class for AcquireTokenParameters and AcquireTokenSilentParameters
@@ -48,6 +49,7 @@ public abstract class TokenParameters {
     private AccountRecord mAccountRecord;
     private AuthenticationScheme mAuthenticationScheme;
     private String mCorrelationId;
+    private Executor mCallbackExecutor;
 
     protected TokenParameters(@NonNull final TokenParameters.Builder builder) {
         mAccount = builder.mAccount;
@@ -56,6 +58,7 @@ public abstract class TokenParameters {
         mScopes = builder.mScopes;
         mAuthenticationScheme = builder.mAuthenticationScheme;
         mCorrelationId = builder.mCorrelationId;
+        mCallbackExecutor = builder.mCallbackExecutor;
     }
 
     /**
@@ -154,6 +157,17 @@ public abstract class TokenParameters {
         return mCorrelationId;
     }
 
+    /**
+     * Gets the {@link Executor} the callback of the request is invoked on. If not specified, the
+     * one set on the {@link PublicClientApplicationConfiguration} is used, or the main thread.
+     *
+     * @return The callback executor or null.
+     */
+    @Nullable
+    public Executor getCallbackExecutor() {
+        return mCallbackExecutor;
+    }
+
     /**
      * TokenParameters builder
      *
@@ -167,6 +181,7 @@ public abstract class TokenParameters {
         private ClaimsRequest mClaimsRequest;
         private AuthenticationScheme mAuthenticationScheme;
         private String mCorrelationId;
+        private Executor mCallbackExecutor;
 
         public B withAuthenticationScheme(@NonNull final AuthenticationScheme scheme) {
             mAuthenticationScheme = scheme;
@@ -261,6 +276,17 @@ public abstract class TokenParameters {
             return self();
         }
 
+        /**
+         * Sets the {@link Executor} the callback of the request is invoked on, in place of the
+         * main thread. The result is handed to the executor from the MSAL worker thread only when
+         * it is served from memory or the request fails before it is dispatched; otherwise it is
+         * posted to the main thread first.
+         */
+        public B withCallbackExecutor(@NonNull final Executor executor) {
+            mCallbackExecutor = executor;
+            return self();
+        }
+
         public abstract B self();
 
         public abstract TokenParameters build();
@@ -0,0 +1,356 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.configuration.TokenRefreshConfiguration;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renews access tokens handed out by acquireTokenSilent shortly before they expire.
+ * <p>
+ * Every token delivered to the app is tracked by its {@link SilentTokenRequestKey}. Once the
+ * token enters the configured lead window (brought forward by a random jitter), a forced silent
+ * refresh is issued for the same account, scopes, authority and scheme, so that the renewed
+ * token is already in cache when the app next asks for it. At most the configured number of
+ * refreshes run at the same time; due refreshes beyond that are deferred. The result of a
+ * refresh is not tracked again until it is itself handed out, so tokens the app stops asking
+ * for are not renewed indefinitely.
+ */
+final class TokenRefreshScheduler {
+
+    private static final String TAG = TokenRefreshScheduler.class.getSimpleName();
+
+    static final long DEFAULT_REFRESH_LEAD_TIME_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    static final int DEFAULT_MAX_CONCURRENT_REFRESHES = 2;
+
+    /**
+     * How long a due refresh waits before retrying when the concurrency cap is reached.
+     */
+    static final long DEFERRAL_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    /**
+     * Issues a silent request on behalf of the scheduler.
+     */
+    interface Refresher {
+        void refresh(@NonNull AcquireTokenSilentParameters parameters);
+    }
+
+    private final ScheduledExecutorService mExecutor;
+    private final Refresher mRefresher;
+    private final long mRefreshLeadTimeMillis;
+    private final long mMaxJitterMillis;
+    private final long mDeferralMillis;
+    private final int mMaxConcurrentRefreshes;
+    private final Random mRandom = new Random();
+
+    // All maps are guarded by mScheduled.
+    private final Map<SilentTokenRequestKey, ScheduledFuture<?>> mScheduled = new HashMap<>();
+    private final Map<SilentTokenRequestKey, Long> mScheduledExpiresOn = new HashMap<>();
+    private final Map<SilentTokenRequestKey, AcquireTokenSilentParameters> mRefreshing = new HashMap<>();
+
+    private final AtomicLong mRefreshCount = new AtomicLong();
+    private final AtomicLong mFailureCount = new AtomicLong();
+
+    /**
+     * Creates a scheduler for the supplied configuration.
+     *
+     * @param configuration The token refresh configuration, if any.
+     * @param refresher     Issues the refresh requests.
+     * @return The scheduler, or null if proactive refresh is not enabled.
+     */
+    @Nullable
+    static TokenRefreshScheduler create(@Nullable final TokenRefreshConfiguration configuration,
+                                        @NonNull final Refresher refresher) {
+        if (null == configuration || !configuration.isEnabled()) {
+            return null;
+        }
+
+        final long leadTimeMillis = configuration.getRefreshLeadTimeSeconds() > 0
+                ? TimeUnit.SECONDS.toMillis(configuration.getRefreshLeadTimeSeconds())
+                : DEFAULT_REFRESH_LEAD_TIME_MILLIS;
+
+        final int maxConcurrentRefreshes = configuration.getMaxConcurrentRefreshes() > 0
+                ? configuration.getMaxConcurrentRefreshes()
+                : DEFAULT_MAX_CONCURRENT_REFRESHES;
+
+        return new TokenRefreshScheduler(
+                newExecutor(),
+                refresher,
+                leadTimeMillis,
+                TimeUnit.SECONDS.toMillis(Math.max(0, configuration.getMaxJitterSeconds())),
+                maxConcurrentRefreshes,
+                DEFERRAL_MILLIS
+        );
+    }
+
+    /**
+     * Creates the single thread executor the refreshes run on. Cancelled refreshes are removed
+     * from its queue straight away, as tokens are re-tracked every time they are handed out.
+     */
+    @NonNull
+    static ScheduledThreadPoolExecutor newExecutor() {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "msal-token-refresh");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    TokenRefreshScheduler(@NonNull final ScheduledExecutorService executor,
+                          @NonNull final Refresher refresher,
+                          final long refreshLeadTimeMillis,
+                          final long maxJitterMillis,
+                          final int maxConcurrentRefreshes,
+                          final long deferralMillis) {
+        mExecutor = executor;
+        mRefresher = refresher;
+        mRefreshLeadTimeMillis = refreshLeadTimeMillis;
+        mMaxJitterMillis = maxJitterMillis;
+        mMaxConcurrentRefreshes = maxConcurrentRefreshes;
+        mDeferralMillis = deferralMillis;
+    }
+
+    /**
+     * Tracks a token handed out for a silent request, replacing any refresh scheduled for the
+     * same key. Handing out the same token again keeps the refresh already scheduled for it.
+     *
+     * @param key        The request key.
+     * @param parameters The request the token was handed out for.
+     * @param result     The result handed out.
+     */
+    void track(@NonNull final SilentTokenRequestKey key,
+               @NonNull final AcquireTokenSilentParameters parameters,
+               @NonNull final IAuthenticationResult result) {
+        final String methodName = ":track";
+        final long expiresOn = result.getExpiresOn().getTime();
+        final long now = System.currentTimeMillis();
+
+        if (expiresOn <= now) {
+            return;
+        }
+
+        final long jitter = mMaxJitterMillis > 0
+                ? (long) (mRandom.nextDouble() * mMaxJitterMillis)
+                : 0;
+        final long delay = Math.max(0, expiresOn - mRefreshLeadTimeMillis - jitter - now);
+        final AcquireTokenSilentParameters template = parameters;
+
+        synchronized (mScheduled) {
+            if (mRefreshing.containsKey(key)) {
+                // Either the result of our own refresh, or a refresh is already under way.
+                return;
+            }
+
+            if (mScheduled.containsKey(key)
+                    && Long.valueOf(expiresOn).equals(mScheduledExpiresOn.get(key))) {
+                // The same token was handed out before, keep the refresh scheduled for it.
+                return;
+            }
+
+            cancel(mScheduled.remove(key));
+            mScheduled.put(key, mExecutor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    onRefreshDue(key, template, expiresOn);
+                }
+            }, delay, TimeUnit.MILLISECONDS));
+            mScheduledExpiresOn.put(key, expiresOn);
+        }
+
+        Logger.verbose(TAG + methodName, "Access token refresh scheduled in [" + delay + "] ms.");
+    }
+
+    /**
+     * Cancels all scheduled refreshes of the supplied account.
+     *
+     * @param homeAccountId The home account id of the account.
+     */
+    void cancelAccount(@NonNull final String homeAccountId) {
+        synchronized (mScheduled) {
+            final Iterator<Map.Entry<SilentTokenRequestKey, ScheduledFuture<?>>> iterator =
+                    mScheduled.entrySet().iterator();
+
+            while (iterator.hasNext()) {
+                final Map.Entry<SilentTokenRequestKey, ScheduledFuture<?>> entry = iterator.next();
+
+                if (entry.getKey().belongsTo(homeAccountId)) {
+                    cancel(entry.getValue());
+                    mScheduledExpiresOn.remove(entry.getKey());
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancels all scheduled refreshes.
+     */
+    void cancelAll() {
+        synchronized (mScheduled) {
+            for (final ScheduledFuture<?> future : mScheduled.values()) {
+                cancel(future);
+            }
+
+            mScheduled.clear();
+            mScheduledExpiresOn.clear();
+        }
+    }
+
+    int getScheduledCount() {
+        synchronized (mScheduled) {
+            return mScheduled.size();
+        }
+    }
+
+    int getRefreshingCount() {
+        synchronized (mScheduled) {
+            return mRefreshing.size();
+        }
+    }
+
+    long getRefreshCount() {
+        return mRefreshCount.get();
+    }
+
+    long getFailureCount() {
+        return mFailureCount.get();
+    }
+
+    private void onRefreshDue(@NonNull final SilentTokenRequestKey key,
+                              @NonNull final AcquireTokenSilentParameters template,
+                              final long expiresOn) {
+        final String methodName = ":onRefreshDue";
+        final AcquireTokenSilentParameters refreshParameters;
+
+        synchronized (mScheduled) {
+            mScheduled.remove(key);
+            mScheduledExpiresOn.remove(key);
+
+            if (expiresOn <= System.currentTimeMillis()) {
+                // Too late to be proactive, the next request for the token will renew it.
+                return;
+            }
+
+            if (mRefreshing.size() >= mMaxConcurrentRefreshes) {
+                Logger.verbose(TAG + methodName, "Too many refreshes in progress, deferring.");
+                mScheduled.put(key, mExecutor.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        onRefreshDue(key, template, expiresOn);
+                    }
+                }, mDeferralMillis, TimeUnit.MILLISECONDS));
+                mScheduledExpiresOn.put(key, expiresOn);
+                return;
+            }
+
+            refreshParameters = createRefreshParameters(key, template);
+            mRefreshing.put(key, refreshParameters);
+        }
+
+        mRefreshCount.incrementAndGet();
+        Logger.verbose(TAG + methodName, "Refreshing access token ahead of expiry.");
+
+        try {
+            mRefresher.refresh(refreshParameters);
+        } catch (final Exception exception) {
+            Logger.warn(TAG + methodName, "Failed to issue the refresh request: " + exception.getMessage());
+            onRefreshCompleted(key, refreshParameters, false);
+        }
+    }
+
+    @NonNull
+    private AcquireTokenSilentParameters createRefreshParameters(
+            @NonNull final SilentTokenRequestKey key,
+            @NonNull final AcquireTokenSilentParameters template) {
+        final AcquireTokenSilentParameters.Builder builder = new AcquireTokenSilentParameters.Builder()
+                .forAccount(template.getAccount())
+                .fromAuthority(template.getAuthority())
+                .withScopes(template.getScopes())
+                .forceRefresh(true);
+
+        if (null != template.getAuthenticationScheme()) {
+            builder.withAuthenticationScheme(template.getAuthenticationScheme());
+        }
+
+        final AcquireTokenSilentParameters parameters = builder.build();
+
+        parameters.setCallback(new SilentAuthenticationCallback() {
+            @Override
+            public void onSuccess(final IAuthenticationResult authenticationResult) {
+                onRefreshCompleted(key, parameters, true);
+            }
+
+            @Override
+            public void onError(final MsalException exception) {
+                Logger.warn(
+                        TAG + ":onRefreshCompleted",
+                        "Proactive refresh failed: " + exception.getErrorCode()
+                );
+                onRefreshCompleted(key, parameters, false);
+            }
+        });
+
+        return parameters;
+    }
+
+    private void onRefreshCompleted(@NonNull final SilentTokenRequestKey key,
+                                    @NonNull final AcquireTokenSilentParameters parameters,
+                                    final boolean succeeded) {
+        if (!succeeded) {
+            mFailureCount.incrementAndGet();
+        }
+
+        synchronized (mScheduled) {
+            if (mRefreshing.get(key) == parameters) {
+                mRefreshing.remove(key);
+            }
+        }
+    }
+
+    private static void cancel(@Nullable final ScheduledFuture<?> future) {
+        if (null != future) {
+            future.cancel(false);
+        }
+    }
+}
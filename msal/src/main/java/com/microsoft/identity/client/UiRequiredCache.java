@@ -0,0 +1,201 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.exception.MsalUiRequiredException;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, process-wide, in-memory cache of silent requests which failed because user
+ * interaction is required.
+ * <p>
+ * Once the refresh token of an account is revoked, or consent for a scope is missing, every
+ * silent request for it fails the same way until the user signs in again. Remembering the
+ * {@link MsalUiRequiredException} for a short while, keyed by {@link SilentTokenRequestKey},
+ * lets repeated requests fail fast instead of each making the same round trip. Entries are
+ * dropped when they expire, when a token is acquired for the account again, or when the account
+ * is removed.
+ */
+final class UiRequiredCache {
+
+    private static final String TAG = UiRequiredCache.class.getSimpleName();
+
+    /**
+     * The maximum number of failures held in memory.
+     */
+    static final int MAX_ENTRIES = 128;
+
+    private static final UiRequiredCache sInstance = new UiRequiredCache(MAX_ENTRIES);
+
+    private final Map<SilentTokenRequestKey, Entry> mEntries;
+    private final AtomicLong mHitCount = new AtomicLong();
+
+    UiRequiredCache(final int maxEntries) {
+        mEntries = new LinkedHashMap<SilentTokenRequestKey, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<SilentTokenRequestKey, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return The process-wide instance.
+     */
+    @NonNull
+    static UiRequiredCache getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Returns the failure cached for the supplied key, if it has not expired.
+     *
+     * @param key The request key.
+     * @return The cached exception or null.
+     */
+    @Nullable
+    MsalUiRequiredException get(@NonNull final SilentTokenRequestKey key) {
+        return get(key, System.currentTimeMillis());
+    }
+
+    @Nullable
+    MsalUiRequiredException get(@NonNull final SilentTokenRequestKey key, final long now) {
+        final String methodName = ":get";
+        final MsalUiRequiredException exception;
+
+        synchronized (mEntries) {
+            final Entry entry = mEntries.get(key);
+
+            if (null == entry) {
+                return null;
+            }
+
+            if (entry.mExpiresAt <= now) {
+                mEntries.remove(key);
+                return null;
+            }
+
+            exception = entry.mException;
+        }
+
+        Logger.verbose(
+                TAG + methodName,
+                "Failing fast with a cached ui_required result. Total hits: ["
+                        + mHitCount.incrementAndGet() + "]"
+        );
+
+        return exception;
+    }
+
+    /**
+     * Caches the failure of a silent request.
+     *
+     * @param key       The request key.
+     * @param exception The failure.
+     * @param ttlMillis How long to fail fast for. Nothing is cached unless positive.
+     */
+    void put(@NonNull final SilentTokenRequestKey key,
+             @NonNull final MsalUiRequiredException exception,
+             final long ttlMillis) {
+        put(key, exception, ttlMillis, System.currentTimeMillis());
+    }
+
+    void put(@NonNull final SilentTokenRequestKey key,
+             @NonNull final MsalUiRequiredException exception,
+             final long ttlMillis,
+             final long now) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+
+        synchronized (mEntries) {
+            mEntries.put(key, new Entry(exception, now + ttlMillis));
+        }
+    }
+
+    /**
+     * Removes the failure cached for the supplied key.
+     *
+     * @param key The request key.
+     */
+    void remove(@NonNull final SilentTokenRequestKey key) {
+        synchronized (mEntries) {
+            mEntries.remove(key);
+        }
+    }
+
+    /**
+     * Removes every failure cached for the supplied account.
+     *
+     * @param homeAccountId The home account id of the account.
+     */
+    void removeAccount(@NonNull final String homeAccountId) {
+        synchronized (mEntries) {
+            final Iterator<SilentTokenRequestKey> iterator = mEntries.keySet().iterator();
+
+            while (iterator.hasNext()) {
+                if (iterator.next().belongsTo(homeAccountId)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all cached failures.
+     */
+    void clear() {
+        synchronized (mEntries) {
+            mEntries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (mEntries) {
+            return mEntries.size();
+        }
+    }
+
+    long getHitCount() {
+        return mHitCount.get();
+    }
+
+    private static final class Entry {
+
+        private final MsalUiRequiredException mException;
+        private final long mExpiresAt;
+
+        Entry(@NonNull final MsalUiRequiredException exception, final long expiresAt) {
+            mException = exception;
+            mExpiresAt = expiresAt;
+        }
+    }
+}
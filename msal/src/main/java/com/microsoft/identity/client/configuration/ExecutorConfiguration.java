@@ -0,0 +1,76 @@
+package com.microsoft.identity.client.configuration;
+
+import com.google.gson.annotations.SerializedName;
+
+import static com.microsoft.identity.client.configuration.ExecutorConfiguration.SerializedNames.MAX_POOL_SIZE;
+import static com.microsoft.identity.client.configuration.ExecutorConfiguration.SerializedNames.QUEUE_CAPACITY;
+import static com.microsoft.identity.client.configuration.ExecutorConfiguration.SerializedNames.REJECTION_POLICY;
+
+/**
+ * Configures the pool each PublicClientApplication uses to prepare requests in the background.
+ * Every PublicClientApplication gets its own pool, unless an executor is supplied through
+ * {@link com.microsoft.identity.client.PublicClientApplicationConfiguration#setBackgroundExecutor(java.util.concurrent.Executor)}.
+ */
+public class ExecutorConfiguration {
+
+    /**
+     * What to do with a request submitted while all threads are busy and the queue is full.
+     */
+    public enum RejectionPolicy {
+        /**
+         * Fail the request with {@link com.microsoft.identity.client.exception.MsalClientException#BACKGROUND_EXECUTOR_REJECTED}.
+         */
+        ABORT,
+
+        /**
+         * Run the request on the calling thread, unless that is the main thread, in which case
+         * the request fails as with {@link #ABORT}.
+         */
+        CALLER_RUNS
+    }
+
+    /**
+     * Field names used for serialization by Gson.
+     */
+    public static final class SerializedNames {
+        public static final String MAX_POOL_SIZE = "max_pool_size";
+        public static final String QUEUE_CAPACITY = "queue_capacity";
+        public static final String REJECTION_POLICY = "rejection_policy";
+    }
+
+    @SerializedName(MAX_POOL_SIZE)
+    private int mMaxPoolSize;
+
+    @SerializedName(QUEUE_CAPACITY)
+    private int mQueueCapacity;
+
+    @SerializedName(REJECTION_POLICY)
+    private RejectionPolicy mRejectionPolicy;
+
+    /**
+     * Gets the maximum number of threads of the pool.
+     *
+     * @return The maximum pool size.
+     */
+    public int getMaxPoolSize() {
+        return mMaxPoolSize;
+    }
+
+    /**
+     * Gets the maximum number of requests waiting for a thread.
+     *
+     * @return The queue capacity.
+     */
+    public int getQueueCapacity() {
+        return mQueueCapacity;
+    }
+
+    /**
+     * Gets the {@link RejectionPolicy} to use.
+     *
+     * @return The RejectionPolicy.
+     */
+    public RejectionPolicy getRejectionPolicy() {
+        return mRejectionPolicy;
+    }
+}
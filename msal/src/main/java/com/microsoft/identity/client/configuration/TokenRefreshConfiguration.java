@@ -0,0 +1,75 @@
+package com.microsoft.identity.client.configuration;
+
+import com.google.gson.annotations.SerializedName;
+
+import static com.microsoft.identity.client.configuration.TokenRefreshConfiguration.SerializedNames.ENABLED;
+import static com.microsoft.identity.client.configuration.TokenRefreshConfiguration.SerializedNames.MAX_CONCURRENT_REFRESHES;
+import static com.microsoft.identity.client.configuration.TokenRefreshConfiguration.SerializedNames.MAX_JITTER_SECONDS;
+import static com.microsoft.identity.client.configuration.TokenRefreshConfiguration.SerializedNames.REFRESH_LEAD_TIME_SECONDS;
+
+/**
+ * Configures the proactive refresh of access tokens handed out by acquireTokenSilent. When
+ * enabled, tokens are renewed silently in the background shortly before they expire, so that
+ * later silent requests are answered from cache instead of waiting on the network.
+ */
+public class TokenRefreshConfiguration {
+
+    /**
+     * Field names used for serialization by Gson.
+     */
+    public static final class SerializedNames {
+        public static final String ENABLED = "enabled";
+        public static final String REFRESH_LEAD_TIME_SECONDS = "refresh_lead_time_seconds";
+        public static final String MAX_JITTER_SECONDS = "max_jitter_seconds";
+        public static final String MAX_CONCURRENT_REFRESHES = "max_concurrent_refreshes";
+    }
+
+    @SerializedName(ENABLED)
+    private boolean mEnabled;
+
+    @SerializedName(REFRESH_LEAD_TIME_SECONDS)
+    private int mRefreshLeadTimeSeconds;
+
+    @SerializedName(MAX_JITTER_SECONDS)
+    private int mMaxJitterSeconds;
+
+    @SerializedName(MAX_CONCURRENT_REFRESHES)
+    private int mMaxConcurrentRefreshes;
+
+    /**
+     * Gets the enabled state of the proactive refresh.
+     *
+     * @return True if tokens should be refreshed ahead of expiry. False otherwise.
+     */
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * Gets how long before expiry a token becomes due for refresh.
+     *
+     * @return The lead time, in seconds.
+     */
+    public int getRefreshLeadTimeSeconds() {
+        return mRefreshLeadTimeSeconds;
+    }
+
+    /**
+     * Gets the upper bound of the random amount by which refreshes are brought forward, so that
+     * tokens issued together are not all renewed at the same instant.
+     *
+     * @return The maximum jitter, in seconds.
+     */
+    public int getMaxJitterSeconds() {
+        return mMaxJitterSeconds;
+    }
+
+    /**
+     * Gets the maximum number of refreshes allowed to run at the same time.
+     *
+     * @return The refresh concurrency cap.
+     */
+    public int getMaxConcurrentRefreshes() {
+        return mMaxConcurrentRefreshes;
+    }
+}
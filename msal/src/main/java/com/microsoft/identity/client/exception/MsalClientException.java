@@ -199,6 +199,11 @@ public final class MsalClientException extends MsalException {
      */
     public static final String REDIRECT_URI_VALIDATION_ERROR = "redirect_uri_validation_error";
 
+    /**
+     * The request could not be scheduled because the background executor of the PublicClientApplication is saturated.
+     */
+    public static final String BACKGROUND_EXECUTOR_REJECTED = "background_executor_rejected";
+
     /**
      * Temporary non-exposed error code to indicate that ADFS authority validation fails. ADFS as authority is not supported
      * for preview.
@@ -0,0 +1,237 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal.controllers;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.microsoft.identity.common.adal.internal.AuthenticationConstants;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches, per process, whether a trusted broker is installed.
+ * <p>
+ * Finding out takes an AccountManager IPC and a signature check, which add up when done for
+ * every request. The answer only changes when a broker app is installed, updated or
+ * uninstalled, so it is kept until a package broadcast for one of the broker packages
+ * arrives.
+ */
+final class BrokerInstallationCache {
+
+    private static final String TAG = BrokerInstallationCache.class.getSimpleName();
+
+    private static final BrokerInstallationCache sInstance = new BrokerInstallationCache();
+
+    /**
+     * Looks up the trusted broker on the device.
+     */
+    interface Probe {
+        /**
+         * @param applicationContext The application context.
+         * @return The package name of the installed, trusted broker, or null if there is none.
+         */
+        @Nullable
+        String findTrustedBroker(@NonNull Context applicationContext);
+    }
+
+    private final Object mLock = new Object();
+    private final Set<String> mBrokerPackages = new HashSet<>();
+    private Boolean mBrokerInstalled;
+    private String mTrustedBrokerPackage;
+    private long mGeneration;
+    private boolean mReceiverRegistered;
+
+    private final AtomicLong mHitCount = new AtomicLong();
+    private final AtomicLong mMissCount = new AtomicLong();
+
+    private final BroadcastReceiver mPackageChangeReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(final Context context, final Intent intent) {
+            onPackageChanged(intent);
+        }
+    };
+
+    @VisibleForTesting
+    BrokerInstallationCache() {
+        mBrokerPackages.add(AuthenticationConstants.Broker.AZURE_AUTHENTICATOR_APP_PACKAGE_NAME);
+        mBrokerPackages.add(AuthenticationConstants.Broker.COMPANY_PORTAL_APP_PACKAGE_NAME);
+    }
+
+    /**
+     * @return The process-wide instance.
+     */
+    @NonNull
+    static BrokerInstallationCache getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Returns whether a trusted broker is installed, asking the supplied probe only if the
+     * answer is not cached.
+     *
+     * @param applicationContext The application context.
+     * @param probe              Looks up the trusted broker on a cache miss.
+     * @return True if a trusted broker is installed.
+     */
+    boolean isBrokerInstalled(@NonNull final Context applicationContext,
+                              @NonNull final Probe probe) {
+        final String methodName = ":isBrokerInstalled";
+        final long generation;
+
+        synchronized (mLock) {
+            if (null != mBrokerInstalled) {
+                mHitCount.incrementAndGet();
+                return mBrokerInstalled;
+            }
+
+            generation = mGeneration;
+        }
+
+        mMissCount.incrementAndGet();
+
+        // Listen before probing, so that a change happening meanwhile is not missed.
+        registerPackageChangeReceiver(applicationContext);
+
+        final String brokerPackage = probe.findTrustedBroker(applicationContext);
+        final boolean brokerInstalled = null != brokerPackage;
+
+        synchronized (mLock) {
+            if (null != brokerPackage) {
+                mBrokerPackages.add(brokerPackage);
+            }
+
+            // Do not cache an answer which a package change has made stale since.
+            if (generation == mGeneration) {
+                mBrokerInstalled = brokerInstalled;
+                mTrustedBrokerPackage = brokerPackage;
+            }
+        }
+
+        Logger.verbose(TAG + methodName, "Is broker installed? [" + brokerInstalled + "]");
+        return brokerInstalled;
+    }
+
+    /**
+     * Returns the cached answer, without probing for the broker.
+     *
+     * @return True or false if the answer is cached, null if it is not.
+     */
+    @Nullable
+    Boolean peekBrokerInstalled() {
+        synchronized (mLock) {
+            return mBrokerInstalled;
+        }
+    }
+
+    /**
+     * Returns the package name of the trusted broker found by the last probe, if it is still
+     * current.
+     *
+     * @return The package name, or null if no broker is installed or the answer is not cached.
+     */
+    @Nullable
+    String getTrustedBrokerPackage() {
+        synchronized (mLock) {
+            return mTrustedBrokerPackage;
+        }
+    }
+
+    /**
+     * Drops the cached answer.
+     */
+    void invalidate() {
+        synchronized (mLock) {
+            mBrokerInstalled = null;
+            mTrustedBrokerPackage = null;
+            mGeneration++;
+        }
+    }
+
+    /**
+     * @return A number which changes whenever the cached answer is dropped.
+     */
+    long getGeneration() {
+        synchronized (mLock) {
+            return mGeneration;
+        }
+    }
+
+    long getHitCount() {
+        return mHitCount.get();
+    }
+
+    long getMissCount() {
+        return mMissCount.get();
+    }
+
+    @VisibleForTesting
+    void onPackageChanged(@Nullable final Intent intent) {
+        final String methodName = ":onPackageChanged";
+        final Uri data = null == intent ? null : intent.getData();
+
+        if (null == data) {
+            return;
+        }
+
+        final String packageName = data.getSchemeSpecificPart();
+        final boolean isBrokerPackage;
+
+        synchronized (mLock) {
+            isBrokerPackage = mBrokerPackages.contains(packageName);
+        }
+
+        if (isBrokerPackage) {
+            Logger.info(TAG + methodName, "Broker package changed [" + intent.getAction() + "], invalidating.");
+            invalidate();
+        }
+    }
+
+    private void registerPackageChangeReceiver(@NonNull final Context applicationContext) {
+        synchronized (mLock) {
+            if (mReceiverRegistered) {
+                return;
+            }
+
+            mReceiverRegistered = true;
+        }
+
+        final IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addDataScheme("package");
+
+        applicationContext.getApplicationContext().registerReceiver(mPackageChangeReceiver, filter);
+    }
+}
@@ -0,0 +1,189 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal.controllers;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import com.microsoft.identity.common.internal.controllers.BaseController;
+import com.microsoft.identity.common.internal.controllers.BrokerMsalController;
+import com.microsoft.identity.common.internal.controllers.LocalMSALController;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the controllers of one PublicClientApplication, so that the same instances serve every
+ * command instead of being constructed per request.
+ * <p>
+ * Controllers keep no per-request state for silent commands, and interactive commands are run
+ * one at a time by the CommandDispatcher, so sharing them between commands is safe. The broker
+ * controller, and the lists holding it, are dropped whenever the {@link BrokerInstallationCache}
+ * is invalidated, as a broker was installed, updated or removed.
+ */
+final class ControllerRegistry {
+
+    private static final String TAG = ControllerRegistry.class.getSimpleName();
+
+    private final Context mApplicationContext;
+    private final BrokerInstallationCache mBrokerInstallationCache;
+
+    // Guarded by this.
+    private BaseController mLocalController;
+    private BaseController mBrokerController;
+    private List<BaseController> mLocalControllers;
+    private List<BaseController> mLocalAndBrokerControllers;
+    private long mBrokerGeneration;
+
+    private final AtomicLong mCreatedCount = new AtomicLong();
+    private final AtomicLong mReusedCount = new AtomicLong();
+
+    ControllerRegistry(@NonNull final Context applicationContext) {
+        this(applicationContext, BrokerInstallationCache.getInstance());
+    }
+
+    @VisibleForTesting
+    ControllerRegistry(@NonNull final Context applicationContext,
+                       @NonNull final BrokerInstallationCache brokerInstallationCache) {
+        mApplicationContext = applicationContext;
+        mBrokerInstallationCache = brokerInstallationCache;
+        mBrokerGeneration = brokerInstallationCache.getGeneration();
+    }
+
+    /**
+     * @return The local controller.
+     */
+    @NonNull
+    synchronized BaseController getLocalController() {
+        if (null == mLocalController) {
+            mLocalController = new LocalMSALController();
+            onCreated(mLocalController);
+        } else {
+            onReused(mLocalController);
+        }
+
+        return mLocalController;
+    }
+
+    /**
+     * @return The broker controller.
+     */
+    @NonNull
+    synchronized BaseController getBrokerController() {
+        dropStaleBrokerController();
+
+        if (null == mBrokerController) {
+            mBrokerController = new BrokerMsalController(mApplicationContext);
+            onCreated(mBrokerController);
+        } else {
+            onReused(mBrokerController);
+        }
+
+        return mBrokerController;
+    }
+
+    /**
+     * Returns the controllers to try in turn, local controller first.
+     *
+     * @param includeBroker Whether the broker controller should follow the local one.
+     * @return An unmodifiable list of controllers.
+     */
+    @NonNull
+    synchronized List<BaseController> getControllers(final boolean includeBroker) {
+        if (includeBroker) {
+            dropStaleBrokerController();
+
+            if (null == mLocalAndBrokerControllers) {
+                final List<BaseController> controllers = new ArrayList<>(2);
+                controllers.add(getLocalController());
+                controllers.add(getBrokerController());
+                mLocalAndBrokerControllers = Collections.unmodifiableList(controllers);
+            } else {
+                onReused(mLocalController);
+                onReused(mBrokerController);
+            }
+
+            return mLocalAndBrokerControllers;
+        }
+
+        if (null == mLocalControllers) {
+            mLocalControllers = Collections.singletonList(getLocalController());
+        } else {
+            onReused(mLocalController);
+        }
+
+        return mLocalControllers;
+    }
+
+    long getCreatedCount() {
+        return mCreatedCount.get();
+    }
+
+    long getReusedCount() {
+        return mReusedCount.get();
+    }
+
+    /**
+     * Drops the broker controller if the broker installation changed since it was created.
+     * Must be called holding this.
+     */
+    private void dropStaleBrokerController() {
+        final long generation = mBrokerInstallationCache.getGeneration();
+
+        if (generation == mBrokerGeneration) {
+            return;
+        }
+
+        if (null != mBrokerController) {
+            Logger.info(
+                    TAG + ":dropStaleBrokerController",
+                    "Broker installation changed, dropping the broker controller."
+            );
+        }
+
+        mBrokerController = null;
+        mLocalAndBrokerControllers = null;
+        mBrokerGeneration = generation;
+    }
+
+    private void onCreated(@NonNull final BaseController controller) {
+        mCreatedCount.incrementAndGet();
+        Logger.verbose(
+                TAG + ":onCreated",
+                "Created [" + controller.getClass().getSimpleName() + "]."
+        );
+    }
+
+    private void onReused(@NonNull final BaseController controller) {
+        Logger.verbose(
+                TAG + ":onReused",
+                "Reusing [" + controller.getClass().getSimpleName()
+                        + "], reuse count: [" + mReusedCount.incrementAndGet() + "]"
+        );
+    }
+}
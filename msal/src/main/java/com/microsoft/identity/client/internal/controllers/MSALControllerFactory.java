@@ -30,6 +30,7 @@ import android.os.Build;
 import android.os.PowerManager;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.microsoft.identity.client.PublicClientApplicationConfiguration;
 import com.microsoft.identity.client.exception.MsalClientException;
@@ -39,12 +40,11 @@ import com.microsoft.identity.common.internal.authorities.Authority;
 import com.microsoft.identity.common.internal.authorities.AzureActiveDirectoryAuthority;
 import com.microsoft.identity.common.internal.broker.BrokerValidator;
 import com.microsoft.identity.common.internal.controllers.BaseController;
-import com.microsoft.identity.common.internal.controllers.BrokerMsalController;
-import com.microsoft.identity.common.internal.controllers.LocalMSALController;
 import com.microsoft.identity.common.logging.Logger;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Responsible for returning the correct controller depending on the type of request (Silent, Interactive), authority
@@ -53,6 +53,8 @@ import java.util.List;
 public class MSALControllerFactory {
     private static final String TAG = MSALControllerFactory.class.getName();
 
+    private static final Map<PublicClientApplicationConfiguration, ControllerRegistry> sRegistries = new WeakHashMap<>();
+
     /**
      * Returns the appropriate MSAL Controller depending on Authority, App and Device state
      * <p>
@@ -69,10 +71,12 @@ public class MSALControllerFactory {
                                                       @NonNull final Authority authority,
                                                       @NonNull final PublicClientApplicationConfiguration applicationConfiguration)
             throws MsalClientException {
+        final ControllerRegistry registry = getRegistry(applicationContext, applicationConfiguration);
+
         if (brokerEligible(applicationContext, authority, applicationConfiguration)) {
-            return new BrokerMsalController(applicationContext);
+            return registry.getBrokerController();
         } else {
-            return new LocalMSALController();
+            return registry.getLocalController();
         }
     }
 
@@ -96,13 +100,28 @@ public class MSALControllerFactory {
                                                          @NonNull final Authority authority,
                                                          @NonNull final PublicClientApplicationConfiguration applicationConfiguration)
             throws MsalClientException {
-        List<BaseController> controllers = new ArrayList<>();
-        controllers.add(new LocalMSALController());
-        if (brokerEligible(applicationContext, authority, applicationConfiguration)) {
-            controllers.add(new BrokerMsalController(applicationContext));
-        }
+        return getRegistry(applicationContext, applicationConfiguration).getControllers(
+                brokerEligible(applicationContext, authority, applicationConfiguration)
+        );
+    }
+
+    /**
+     * Returns the {@link ControllerRegistry} of the PublicClientApplication the supplied
+     * configuration belongs to. Each PublicClientApplication holds its own configuration, so the
+     * registry lives as long as the application does.
+     */
+    private static ControllerRegistry getRegistry(@NonNull final Context applicationContext,
+                                                  @NonNull final PublicClientApplicationConfiguration applicationConfiguration) {
+        synchronized (sRegistries) {
+            ControllerRegistry registry = sRegistries.get(applicationConfiguration);
+
+            if (null == registry) {
+                registry = new ControllerRegistry(applicationContext.getApplicationContext());
+                sRegistries.put(applicationConfiguration, registry);
+            }
 
-        return controllers;
+            return registry;
+        }
     }
 
     /**
@@ -147,10 +166,6 @@ public class MSALControllerFactory {
             return false;
         }
 
-        if (powerOptimizationEnabled(applicationContext)) {
-            Logger.verbose(TAG + methodName, "Is the power optimization enabled? [true]");
-        }
-
         return true;
     }
 
@@ -170,7 +185,71 @@ public class MSALControllerFactory {
     }
 
     /**
-     * Check if a broker is installed and trusted:
+     * Check if a broker is installed and trusted. The answer is cached per process by the
+     * {@link BrokerInstallationCache} until a broker package is installed, updated or removed.
+     *
+     * @param applicationContext
+     * @return
+     */
+    protected static boolean brokerInstalled(@NonNull final Context applicationContext) {
+        return BrokerInstallationCache.getInstance().isBrokerInstalled(
+                applicationContext,
+                new BrokerInstallationCache.Probe() {
+                    @Override
+                    public String findTrustedBroker(@NonNull final Context context) {
+                        final String trustedBroker = findTrustedBrokerPackage(context);
+
+                        if (null != trustedBroker && powerOptimizationEnabled(context)) {
+                            Logger.verbose(TAG + ":brokerInstalled", "Is the power optimization enabled? [true]");
+                        }
+
+                        return trustedBroker;
+                    }
+                }
+        );
+    }
+
+    /**
+     * Returns whether the broker may serve requests of the supplied configuration, without
+     * probing for it: if whether a broker is installed is not known yet, it is assumed it is.
+     *
+     * @param applicationConfiguration The configuration of the application.
+     * @return False only if the app does not use the broker or no broker is installed.
+     */
+    public static boolean mayUseBroker(@NonNull final PublicClientApplicationConfiguration applicationConfiguration) {
+        if (!applicationConfiguration.getUseBroker()) {
+            return false;
+        }
+
+        final Boolean brokerInstalled = BrokerInstallationCache.getInstance().peekBrokerInstalled();
+
+        return null == brokerInstalled || brokerInstalled;
+    }
+
+    /**
+     * Drops the cached broker installation state, so that the next request checks again.
+     */
+    public static void invalidateBrokerInstallationCache() {
+        BrokerInstallationCache.getInstance().invalidate();
+    }
+
+    /**
+     * Returns the package name of the trusted broker installed on the device.
+     *
+     * @param applicationContext The application context.
+     * @return The package name, or null if no trusted broker is installed.
+     */
+    @Nullable
+    public static String getTrustedBrokerPackage(@NonNull final Context applicationContext) {
+        if (!brokerInstalled(applicationContext)) {
+            return null;
+        }
+
+        return BrokerInstallationCache.getInstance().getTrustedBrokerPackage();
+    }
+
+    /**
+     * Find the trusted broker:
      * - Check that authenticator is available for custom account type "Work Account"
      * - Verify that the signature of package associated with the authenticator is trusted
      * <p>
@@ -180,9 +259,9 @@ public class MSALControllerFactory {
      * queue up and will be active after first one is uninstalled.
      *
      * @param applicationContext
-     * @return
+     * @return The package name of the trusted broker, or null if there is none.
      */
-    protected static boolean brokerInstalled(@NonNull final Context applicationContext) {
+    private static String findTrustedBrokerPackage(@NonNull final Context applicationContext) {
         BrokerValidator brokerValidator = new BrokerValidator(applicationContext);
         AccountManager accountManager = AccountManager.get(applicationContext);
 
@@ -191,10 +270,10 @@ public class MSALControllerFactory {
         for (AuthenticatorDescription authenticator : authenticators) {
             if (authenticator.type.equals(AuthenticationConstants.Broker.BROKER_ACCOUNT_TYPE)
                     && brokerValidator.verifySignature(authenticator.packageName)) {
-                return true;
+                return authenticator.packageName;
             }
         }
 
-        return false;
+        return null;
     }
 }
@@ -0,0 +1,127 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static com.microsoft.identity.client.RoboTestCacheHelper.account;
+
+@RunWith(RobolectricTestRunner.class)
+public class AccessTokenMemoryCacheTest {
+
+    private static final String CLIENT_ID = "some-client-id";
+    private static final String AUTHORITY = "https://login.microsoftonline.com/common";
+
+    private PublicClientApplicationConfiguration mConfiguration;
+    private AccessTokenMemoryCache mCache;
+
+    @Before
+    public void setup() {
+        mConfiguration = new PublicClientApplicationConfiguration();
+        mConfiguration.setClientId(CLIENT_ID);
+        mCache = new AccessTokenMemoryCache(2);
+    }
+
+    @Test
+    public void testCachedResultReturnedForSameRequestWithReorderedScopes() {
+        final IAuthenticationResult result = resultExpiringIn(TimeUnit.HOURS.toMillis(1));
+        mCache.put(key("uid", "User.Read", "Mail.Read"), result);
+
+        Assert.assertSame(result, mCache.get(key("uid", "mail.read ", "user.read")));
+        Assert.assertEquals(1, mCache.getHitCount());
+    }
+
+    @Test
+    public void testNoResultForDifferentAccount() {
+        mCache.put(key("uid", "User.Read"), resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+
+        Assert.assertNull(mCache.get(key("other-uid", "User.Read")));
+        Assert.assertEquals(1, mCache.getMissCount());
+    }
+
+    @Test
+    public void testResultWithinExpiryBufferIsNotReturned() {
+        mCache.put(key("uid", "User.Read"), resultExpiringIn(AccessTokenMemoryCache.EXPIRY_BUFFER_MILLIS / 2));
+
+        Assert.assertNull(mCache.get(key("uid", "User.Read")));
+    }
+
+    @Test
+    public void testRemoveAccountDropsOnlyThatAccount() {
+        mCache.put(key("uid", "User.Read"), resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+        mCache.put(key("other-uid", "User.Read"), resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+
+        mCache.removeAccount(account("uid").getHomeAccountId());
+
+        Assert.assertNull(mCache.get(key("uid", "User.Read")));
+        Assert.assertNotNull(mCache.get(key("other-uid", "User.Read")));
+    }
+
+    @Test
+    public void testHomeAccountIdIsMatchedCaseInsensitively() {
+        mCache.put(key("uid", "User.Read"), resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+
+        Assert.assertNotNull(mCache.get(key("UID", "User.Read")));
+
+        mCache.removeAccount(account("UID").getHomeAccountId());
+
+        Assert.assertEquals(0, mCache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        mCache.put(key("uid", "a"), resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+        mCache.put(key("uid", "b"), resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+        mCache.get(key("uid", "a"));
+        mCache.put(key("uid", "c"), resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+
+        Assert.assertEquals(2, mCache.size());
+        Assert.assertNotNull(mCache.get(key("uid", "a")));
+        Assert.assertNull(mCache.get(key("uid", "b")));
+    }
+
+    private SilentTokenRequestKey key(final String uid, final String... scopes) {
+        final AcquireTokenSilentParameters parameters = new AcquireTokenSilentParameters.Builder()
+                .forAccount(account(uid))
+                .fromAuthority(AUTHORITY)
+                .withScopes(Arrays.asList(scopes))
+                .build();
+
+        return SilentTokenRequestKey.of(mConfiguration, parameters);
+    }
+
+    private static IAuthenticationResult resultExpiringIn(final long millis) {
+        final IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+        Mockito.when(result.getExpiresOn()).thenReturn(new Date(System.currentTimeMillis() + millis));
+        return result;
+    }
+}
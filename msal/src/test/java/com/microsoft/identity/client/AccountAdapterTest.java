@@ -0,0 +1,127 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.common.internal.cache.ICacheRecord;
+import com.microsoft.identity.common.internal.dto.AccountRecord;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.microsoft.identity.client.RoboTestCacheHelper.ENVIRONMENT;
+import static com.microsoft.identity.client.RoboTestCacheHelper.HOME_TENANT;
+import static com.microsoft.identity.client.RoboTestCacheHelper.guestRecord;
+import static com.microsoft.identity.client.RoboTestCacheHelper.homeRecord;
+
+@RunWith(RobolectricTestRunner.class)
+public class AccountAdapterTest {
+
+    @Test
+    public void testGuestTenantsAreAttachedToTheirHomeAccount() {
+        final List<IAccount> accounts = AccountAdapter.adapt(Arrays.asList(
+                guestRecord("uid", "guest-tenant-1"),
+                homeRecord("uid"),
+                guestRecord("uid", "guest-tenant-2"),
+                homeRecord("other-uid")
+        ));
+
+        Assert.assertEquals(2, accounts.size());
+        Assert.assertEquals("uid", accounts.get(0).getId());
+        Assert.assertEquals(HOME_TENANT, accounts.get(0).getTenantId());
+        Assert.assertEquals(
+                2,
+                ((MultiTenantAccount) accounts.get(0)).getTenantProfiles().size()
+        );
+        Assert.assertTrue(((MultiTenantAccount) accounts.get(0)).getTenantProfiles().containsKey("guest-tenant-2"));
+        Assert.assertEquals("other-uid", accounts.get(1).getId());
+        Assert.assertTrue(((MultiTenantAccount) accounts.get(1)).getTenantProfiles().isEmpty());
+    }
+
+    @Test
+    public void testGuestsWithoutHomeAccountAreGroupedUnderAnEmptyRoot() {
+        final List<IAccount> accounts = AccountAdapter.adapt(Arrays.asList(
+                homeRecord("uid"),
+                guestRecord("guest-uid", "guest-tenant-1"),
+                guestRecord("guest-uid", "guest-tenant-2")
+        ));
+
+        Assert.assertEquals(2, accounts.size());
+        Assert.assertEquals("uid", accounts.get(0).getId());
+
+        final MultiTenantAccount rootless = (MultiTenantAccount) accounts.get(1);
+        Assert.assertEquals("guest-uid", rootless.getId());
+        Assert.assertEquals(HOME_TENANT, rootless.getTenantId());
+        Assert.assertEquals(ENVIRONMENT, rootless.getEnvironment());
+        Assert.assertEquals(2, rootless.getTenantProfiles().size());
+    }
+
+    @Test
+    public void testAdaptReadsEachRecordAConstantNumberOfTimes() {
+        // Reading a record or one of its fields is the unit of work; if adaptation is linear, the
+        // reads per record do not grow with the size of the cache. Matching guest records to
+        // their home account reads the home account ids, so a pairwise scan shows up here.
+        final int smallReads = countAccountReads(50);
+        final int largeReads = countAccountReads(800);
+
+        Assert.assertTrue(smallReads > 0);
+        Assert.assertEquals(smallReads / 50.0, largeReads / 800.0, 0.0);
+    }
+
+    private static int countAccountReads(final int accounts) {
+        final List<ICacheRecord> records = new ArrayList<>();
+
+        for (int i = 0; i < accounts; i++) {
+            records.add(recording(homeRecord("uid-" + i)));
+            records.add(recording(guestRecord("uid-" + i, "guest-tenant")));
+            records.add(recording(guestRecord("guest-uid-" + i, "guest-tenant")));
+        }
+
+        Assert.assertEquals(2 * accounts, AccountAdapter.adapt(records).size());
+
+        int reads = 0;
+
+        for (final ICacheRecord record : records) {
+            reads += Mockito.mockingDetails(record).getInvocations().size();
+            reads += Mockito.mockingDetails(record.getAccount()).getInvocations().size();
+        }
+
+        return reads;
+    }
+
+    /**
+     * Records the reads of the cache record and of its {@link AccountRecord} accessors.
+     */
+    private static ICacheRecord recording(final ICacheRecord record) {
+        final AccountRecord accountRecord = Mockito.spy(record.getAccount());
+        final ICacheRecord mock = Mockito.mock(ICacheRecord.class);
+        Mockito.when(mock.getAccount()).thenReturn(accountRecord);
+        return mock;
+    }
+}
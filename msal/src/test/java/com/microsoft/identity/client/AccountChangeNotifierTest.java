@@ -0,0 +1,158 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.microsoft.identity.client.RoboTestCacheHelper.account;
+
+@RunWith(RobolectricTestRunner.class)
+public class AccountChangeNotifierTest {
+
+    private static final String CLIENT_ID = "some-client-id";
+
+    private static final Executor INLINE = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    };
+
+    private AccountChangeNotifier mNotifier;
+    private IPublicClientApplication.AccountChangeListener mListener;
+
+    @Before
+    public void setup() {
+        mNotifier = new AccountChangeNotifier();
+        mListener = Mockito.mock(IPublicClientApplication.AccountChangeListener.class);
+    }
+
+    @Test
+    public void testFirstRegistrationNeedsSnapshot() {
+        Assert.assertTrue(mNotifier.register(CLIENT_ID, mListener, INLINE));
+
+        mNotifier.onAccountsLoaded(CLIENT_ID, Collections.<IAccount>emptyList());
+
+        Assert.assertFalse(mNotifier.register(CLIENT_ID, Mockito.mock(IPublicClientApplication.AccountChangeListener.class), INLINE));
+    }
+
+    @Test
+    public void testFirstLoadOnlyEstablishesSnapshot() {
+        mNotifier.register(CLIENT_ID, mListener, INLINE);
+
+        mNotifier.onAccountsLoaded(CLIENT_ID, Collections.<IAccount>singletonList(account("uid")));
+
+        Mockito.verify(mListener, Mockito.never()).onAccountAdded(Mockito.any(IAccount.class));
+    }
+
+    @Test
+    public void testTokensForKnownAccountUpdateCredentials() {
+        final MultiTenantAccount account = account("uid");
+        mNotifier.register(CLIENT_ID, mListener, INLINE);
+        mNotifier.onAccountsLoaded(CLIENT_ID, Collections.<IAccount>singletonList(account));
+
+        mNotifier.onCredentialsSaved(CLIENT_ID, account("uid"));
+
+        Mockito.verify(mListener).onCredentialsUpdated(Mockito.any(IAccount.class));
+        Mockito.verify(mListener, Mockito.never()).onAccountAdded(Mockito.any(IAccount.class));
+    }
+
+    @Test
+    public void testTokensForNewAccountAddIt() {
+        final MultiTenantAccount account = account("uid");
+        mNotifier.register(CLIENT_ID, mListener, INLINE);
+        mNotifier.onAccountsLoaded(CLIENT_ID, Collections.<IAccount>emptyList());
+
+        mNotifier.onCredentialsSaved(CLIENT_ID, account);
+        mNotifier.onCredentialsSaved(CLIENT_ID, account);
+
+        Mockito.verify(mListener).onAccountAdded(account);
+        Mockito.verify(mListener).onCredentialsUpdated(account);
+    }
+
+    @Test
+    public void testLoadsAreDiffedAgainstSnapshot() {
+        final MultiTenantAccount kept = account("kept");
+        final MultiTenantAccount removed = account("removed");
+        final MultiTenantAccount added = account("added");
+        mNotifier.register(CLIENT_ID, mListener, INLINE);
+        mNotifier.onAccountsLoaded(CLIENT_ID, Arrays.<IAccount>asList(kept, removed));
+
+        mNotifier.onAccountsLoaded(CLIENT_ID, Arrays.<IAccount>asList(kept, added));
+
+        Mockito.verify(mListener).onAccountAdded(added);
+        Mockito.verify(mListener).onAccountRemoved(removed);
+        Mockito.verify(mListener, Mockito.never()).onAccountRemoved(kept);
+    }
+
+    @Test
+    public void testRemovedAccountIsNotified() {
+        final MultiTenantAccount account = account("uid");
+        mNotifier.register(CLIENT_ID, mListener, INLINE);
+
+        mNotifier.onAccountRemoved(CLIENT_ID, account);
+
+        Mockito.verify(mListener).onAccountRemoved(account);
+    }
+
+    @Test
+    public void testUnregisteredListenerIsNotNotified() {
+        mNotifier.register(CLIENT_ID, mListener, INLINE);
+
+        Assert.assertTrue(mNotifier.unregister(CLIENT_ID, mListener));
+        mNotifier.onCredentialsSaved(CLIENT_ID, account("uid"));
+
+        Mockito.verify(mListener, Mockito.never()).onAccountAdded(Mockito.any(IAccount.class));
+        Assert.assertFalse(mNotifier.hasListeners(CLIENT_ID));
+    }
+
+    @Test
+    public void testRejectingExecutorDoesNotStopOtherListeners() {
+        final IPublicClientApplication.AccountChangeListener rejected =
+                Mockito.mock(IPublicClientApplication.AccountChangeListener.class);
+        final MultiTenantAccount account = account("uid");
+
+        mNotifier.register(CLIENT_ID, rejected, new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        });
+        mNotifier.register(CLIENT_ID, mListener, INLINE);
+
+        mNotifier.onCredentialsSaved(CLIENT_ID, account);
+
+        Mockito.verify(rejected, Mockito.never()).onAccountAdded(account);
+        Mockito.verify(mListener).onAccountAdded(account);
+    }
+}
@@ -0,0 +1,225 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.common.internal.cache.CacheRecord;
+import com.microsoft.identity.common.internal.cache.ICacheRecord;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.microsoft.identity.client.RoboTestCacheHelper.HOME_TENANT;
+import static com.microsoft.identity.client.RoboTestCacheHelper.accountRecord;
+import static com.microsoft.identity.client.RoboTestCacheHelper.guestRecord;
+import static com.microsoft.identity.client.RoboTestCacheHelper.homeRecord;
+
+@RunWith(RobolectricTestRunner.class)
+public class AccountGraphTest {
+
+    private static final String CLIENT_ID = "some-client-id";
+
+    private AccountGraph mGraph;
+
+    @Before
+    public void setup() {
+        mGraph = new AccountGraph();
+    }
+
+    @Test
+    public void testNoAccountsUntilLoaded() {
+        Assert.assertNull(mGraph.getAccounts(CLIENT_ID));
+
+        mGraph.load(CLIENT_ID, Collections.<ICacheRecord>emptyList(), mGraph.getVersion(CLIENT_ID));
+
+        Assert.assertTrue(mGraph.getAccounts(CLIENT_ID).isEmpty());
+    }
+
+    @Test
+    public void testLoadedAccountsAreMaterializedOnce() {
+        mGraph.load(
+                CLIENT_ID,
+                Arrays.asList(homeRecord("uid"), guestRecord("uid", "guest-tenant"), homeRecord("other-uid")),
+                mGraph.getVersion(CLIENT_ID)
+        );
+
+        final List<IAccount> accounts = mGraph.getAccounts(CLIENT_ID);
+
+        Assert.assertEquals(2, accounts.size());
+        Assert.assertEquals(1, ((MultiTenantAccount) accounts.get(0)).getTenantProfiles().size());
+        Assert.assertSame(accounts.get(0), mGraph.getAccounts(CLIENT_ID).get(0));
+    }
+
+    @Test
+    public void testUpdateReplacesOnlyThatAccount() {
+        mGraph.load(
+                CLIENT_ID,
+                Arrays.asList(homeRecord("uid"), homeRecord("other-uid")),
+                mGraph.getVersion(CLIENT_ID)
+        );
+        final IAccount untouched = mGraph.getAccounts(CLIENT_ID).get(1);
+
+        mGraph.update(CLIENT_ID, Arrays.asList(homeRecord("uid"), guestRecord("uid", "guest-tenant")));
+        mGraph.update(CLIENT_ID, Collections.singletonList(homeRecord("new-uid")));
+
+        final List<IAccount> accounts = mGraph.getAccounts(CLIENT_ID);
+
+        Assert.assertEquals(3, accounts.size());
+        Assert.assertEquals(1, ((MultiTenantAccount) accounts.get(0)).getTenantProfiles().size());
+        Assert.assertSame(untouched, accounts.get(1));
+        Assert.assertEquals(HOME_TENANT, accounts.get(2).getTenantId());
+    }
+
+    @Test
+    public void testRemoveAccountDropsIt() {
+        mGraph.load(
+                CLIENT_ID,
+                Arrays.asList(homeRecord("uid"), homeRecord("other-uid")),
+                mGraph.getVersion(CLIENT_ID)
+        );
+
+        mGraph.removeAccount(CLIENT_ID, "uid." + HOME_TENANT);
+
+        Assert.assertEquals(1, mGraph.getAccounts(CLIENT_ID).size());
+    }
+
+    @Test
+    public void testLoadRacingWithUpdateIsDiscarded() {
+        final long version = mGraph.getVersion(CLIENT_ID);
+
+        mGraph.update(CLIENT_ID, Collections.singletonList(homeRecord("uid")));
+        mGraph.load(CLIENT_ID, Collections.<ICacheRecord>emptyList(), version);
+
+        Assert.assertNull(mGraph.getAccounts(CLIENT_ID));
+    }
+
+    @Test
+    public void testInvalidateRequiresReload() {
+        mGraph.load(CLIENT_ID, Collections.singletonList(homeRecord("uid")), mGraph.getVersion(CLIENT_ID));
+
+        mGraph.invalidate(CLIENT_ID);
+
+        Assert.assertNull(mGraph.getAccounts(CLIENT_ID));
+    }
+
+    @Test
+    public void testGraphsAreKeptPerClientId() {
+        mGraph.load(CLIENT_ID, Collections.singletonList(homeRecord("uid")), mGraph.getVersion(CLIENT_ID));
+
+        Assert.assertNull(mGraph.getAccounts("other-client-id"));
+    }
+
+    @Test
+    public void testPagesFollowContinuationTokens() {
+        mGraph.load(
+                CLIENT_ID,
+                Arrays.asList(homeRecord("a"), homeRecord("b"), homeRecord("c")),
+                mGraph.getVersion(CLIENT_ID)
+        );
+
+        final AccountPage first = mGraph.getPage(CLIENT_ID, AccountQuery.builder().withPageSize(2).build());
+
+        Assert.assertEquals(2, first.getAccounts().size());
+        Assert.assertTrue(first.hasMore());
+
+        final AccountPage second = mGraph.getPage(
+                CLIENT_ID,
+                AccountQuery.builder()
+                        .withPageSize(2)
+                        .withContinuationToken(first.getContinuationToken())
+                        .build()
+        );
+
+        Assert.assertEquals(1, second.getAccounts().size());
+        Assert.assertFalse(second.hasMore());
+    }
+
+    @Test
+    public void testContinuationTokenSurvivesRemovalAndReload() {
+        mGraph.load(
+                CLIENT_ID,
+                Arrays.asList(homeRecord("a"), homeRecord("b"), homeRecord("c")),
+                mGraph.getVersion(CLIENT_ID)
+        );
+        final String token = mGraph.getPage(
+                CLIENT_ID,
+                AccountQuery.builder().withPageSize(1).build()
+        ).getContinuationToken();
+
+        mGraph.removeAccount(CLIENT_ID, "b." + HOME_TENANT);
+        mGraph.invalidate(CLIENT_ID);
+        mGraph.load(
+                CLIENT_ID,
+                Arrays.asList(homeRecord("d"), homeRecord("c"), homeRecord("a")),
+                mGraph.getVersion(CLIENT_ID)
+        );
+
+        final AccountPage page = mGraph.getPage(
+                CLIENT_ID,
+                AccountQuery.builder().withContinuationToken(token).build()
+        );
+
+        // "a" was returned already and "d" is new, so it comes after "c"
+        Assert.assertEquals(2, page.getAccounts().size());
+        Assert.assertEquals("c", page.getAccounts().get(0).getId());
+        Assert.assertEquals("d", page.getAccounts().get(1).getId());
+    }
+
+    @Test
+    public void testPagesFilterByTenantAndEnvironment() {
+        final ICacheRecord otherCloud = CacheRecord.builder()
+                .account(accountRecord("cloud-uid", "cloud-uid", HOME_TENANT))
+                .build();
+        otherCloud.getAccount().setEnvironment("login.microsoftonline.us");
+
+        mGraph.load(
+                CLIENT_ID,
+                Arrays.asList(homeRecord("a"), homeRecord("b"), guestRecord("b", "guest-tenant"), otherCloud),
+                mGraph.getVersion(CLIENT_ID)
+        );
+
+        Assert.assertEquals(1, mGraph.getPage(
+                CLIENT_ID,
+                AccountQuery.builder().withTenantId("guest-tenant").build()
+        ).getAccounts().size());
+        Assert.assertEquals(1, mGraph.getPage(
+                CLIENT_ID,
+                AccountQuery.builder().withEnvironment("login.microsoftonline.us").build()
+        ).getAccounts().size());
+        Assert.assertEquals(3, mGraph.getPage(
+                CLIENT_ID,
+                AccountQuery.builder().withTenantId(HOME_TENANT).build()
+        ).getAccounts().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedContinuationTokenIsRejected() {
+        AccountQuery.builder().withContinuationToken("not-a-token").build();
+    }
+}
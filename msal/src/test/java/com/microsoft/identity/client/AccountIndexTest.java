@@ -0,0 +1,124 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.common.exception.ServiceException;
+import com.microsoft.identity.common.internal.providers.oauth2.IDToken;
+import com.microsoft.identity.internal.testutils.mocks.MockTokenCreator;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.microsoft.identity.client.RoboTestCacheHelper.account;
+import static com.microsoft.identity.internal.testutils.mocks.MockTokenCreator.MOCK_PREFERRED_USERNAME_VALUE;
+
+@RunWith(RobolectricTestRunner.class)
+public class AccountIndexTest {
+
+    private MultiTenantAccount mAccount;
+    private MultiTenantAccount mOtherAccount;
+    private ITenantProfile mGuestProfile;
+    private AccountIndex mIndex;
+
+    @Before
+    public void setup() throws ServiceException {
+        mGuestProfile = new TenantProfile(null, new IDToken(MockTokenCreator.createMockIdToken()));
+
+        final Map<String, ITenantProfile> profiles = new HashMap<>();
+        profiles.put("guest-tenant", mGuestProfile);
+
+        mAccount = account("uid");
+        mAccount.setTenantProfiles(profiles);
+        mOtherAccount = account("uid2");
+
+        mIndex = AccountIndex.of(Arrays.<IAccount>asList(mAccount, mOtherAccount));
+    }
+
+    @Test
+    public void testFindByHomeAccountId() {
+        Assert.assertSame(mOtherAccount, mIndex.find("uid2.utid"));
+    }
+
+    @Test
+    public void testFindByLocalAccountId() {
+        Assert.assertSame(mOtherAccount, mIndex.find(" uid2 "));
+    }
+
+    @Test
+    public void testFindByGuestProfileLocalAccountId() {
+        Assert.assertSame(mAccount, mIndex.find(mGuestProfile.getId()));
+    }
+
+    @Test
+    public void testFindByUsernameIgnoresCase() {
+        Assert.assertSame(mAccount, mIndex.find(MOCK_PREFERRED_USERNAME_VALUE.toUpperCase(Locale.ROOT)));
+    }
+
+    @Test
+    public void testSubstringOfAnIdDoesNotMatch() {
+        // "uid2.utid" contains "uid", which a substring match would have resolved to mAccount
+        Assert.assertNull(AccountIndex.of(Collections.<IAccount>singletonList(mAccount)).find("uid2.utid"));
+    }
+
+    @Test
+    public void testFirstMatchingAccountWinsWhateverTheKind() {
+        // The identifier is the local account id of the first account and the home account id of the second
+        final MultiTenantAccount first = account("b.utid");
+        final MultiTenantAccount second = account("b");
+
+        Assert.assertSame(first, AccountIndex.of(Arrays.<IAccount>asList(first, second)).find("b.utid"));
+        Assert.assertSame(second, AccountIndex.of(Arrays.<IAccount>asList(second, first)).find("b.utid"));
+    }
+
+    @Test
+    public void testUsernamesAreOnlyReadAsFarAsTheLookupNeeds() {
+        final MultiTenantAccount first = Mockito.mock(MultiTenantAccount.class);
+        Mockito.when(first.getHomeAccountId()).thenReturn("first.utid");
+        final MultiTenantAccount second = Mockito.mock(MultiTenantAccount.class);
+        Mockito.when(second.getHomeAccountId()).thenReturn("second.utid");
+        final AccountIndex index = AccountIndex.of(Arrays.<IAccount>asList(first, second));
+
+        Assert.assertSame(first, index.find("first.utid"));
+        Mockito.verify(first, Mockito.never()).getClaims();
+        Mockito.verify(second, Mockito.never()).getClaims();
+
+        Assert.assertSame(second, index.find("second.utid"));
+        Mockito.verify(first, Mockito.atLeastOnce()).getClaims();
+        Mockito.verify(second, Mockito.never()).getClaims();
+    }
+
+    @Test
+    public void testUnknownIdentifier() {
+        Assert.assertNull(mIndex.find("unknown"));
+    }
+}
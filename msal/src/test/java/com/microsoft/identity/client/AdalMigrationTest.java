@@ -0,0 +1,192 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.microsoft.identity.common.adal.internal.cache.IStorageHelper;
+import com.microsoft.identity.common.internal.cache.IShareSingleSignOnState;
+import com.microsoft.identity.common.internal.migration.AdalMigrationAdapter;
+import com.microsoft.identity.common.internal.migration.TokenMigrationCallback;
+import com.microsoft.identity.common.internal.providers.microsoft.MicrosoftAccount;
+import com.microsoft.identity.common.internal.providers.microsoft.MicrosoftRefreshToken;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+
+import java.security.GeneralSecurityException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class AdalMigrationTest {
+
+    private static final Map<String, String> REDIRECTS =
+            Collections.singletonMap("some-client-id", "msauth://com.microsoft.identity.client/redirect");
+
+    private Context mContext;
+    private IShareSingleSignOnState<MicrosoftAccount, MicrosoftRefreshToken> mCache;
+    private AdalMigration mMigration;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mCache = Mockito.mock(IShareSingleSignOnState.class);
+        mMigration = new AdalMigration();
+    }
+
+    @Test
+    public void testCompletedMigrationRemembered() throws InterruptedException {
+        final CountDownLatch firstMigration = new CountDownLatch(1);
+
+        mMigration.migrate(mContext, REDIRECTS, mCache, countDown(firstMigration));
+
+        Assert.assertTrue(firstMigration.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(mMigration.isComplete());
+
+        // Answered on the calling thread, without looking at the legacy cache again
+        final CountDownLatch secondMigration = new CountDownLatch(1);
+        mMigration.migrate(mContext, REDIRECTS, mCache, countDown(secondMigration));
+
+        Assert.assertEquals(0, secondMigration.getCount());
+    }
+
+    @Test
+    public void testResetForgetsCompletedMigration() throws InterruptedException {
+        final CountDownLatch migration = new CountDownLatch(1);
+
+        mMigration.migrate(mContext, REDIRECTS, mCache, countDown(migration));
+        Assert.assertTrue(migration.await(5, TimeUnit.SECONDS));
+
+        mMigration.reset();
+
+        Assert.assertFalse(mMigration.isComplete());
+    }
+
+    @Test
+    public void testImportWhichNeverFinishesReleasesWaiters() throws InterruptedException {
+        final CountDownLatch importStarted = new CountDownLatch(1);
+        final AtomicInteger imports = new AtomicInteger();
+        final AdalMigration migration = new AdalMigration(new AdalMigration.Importer() {
+            @Override
+            public void importCredentials(@NonNull final AdalMigrationAdapter adalMigrationAdapter,
+                                          @NonNull final Map<String, String> credentials,
+                                          @NonNull final IShareSingleSignOnState<MicrosoftAccount, MicrosoftRefreshToken> cache,
+                                          @NonNull final TokenMigrationCallback callback) {
+                // Never calls back
+                imports.incrementAndGet();
+                importStarted.countDown();
+            }
+        }, 200);
+        final CountDownLatch starter = new CountDownLatch(1);
+        final CountDownLatch waiter = new CountDownLatch(1);
+
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                migration.migrate(mContext, REDIRECTS, mCache, countDown(starter));
+            }
+        }).start();
+
+        Assert.assertTrue(importStarted.await(5, TimeUnit.SECONDS));
+        migration.migrate(mContext, REDIRECTS, mCache, countDown(waiter));
+
+        Assert.assertTrue(starter.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(waiter.await(5, TimeUnit.SECONDS));
+        Assert.assertFalse(migration.isComplete());
+
+        // Not parked on the abandoned migration, but trying again
+        final CountDownLatch retry = new CountDownLatch(1);
+        migration.migrate(mContext, REDIRECTS, mCache, countDown(retry));
+
+        Assert.assertEquals(0, retry.getCount());
+        Assert.assertEquals(2, imports.get());
+    }
+
+    @Test
+    public void testLegacyEntriesDecryptedInBatches() throws Exception {
+        final IStorageHelper storageHelper = Mockito.mock(IStorageHelper.class);
+        Mockito.when(storageHelper.decrypt(Mockito.anyString())).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(final InvocationOnMock invocation) throws GeneralSecurityException {
+                final String encrypted = invocation.getArgument(0);
+
+                if ("corrupt".equals(encrypted)) {
+                    throw new GeneralSecurityException("Bad padding");
+                }
+
+                return "decrypted-" + encrypted;
+            }
+        });
+
+        final Map<String, Object> entries = new LinkedHashMap<>();
+        for (int i = 0; i < 4; i++) {
+            entries.put("key" + i, "value" + i);
+        }
+        entries.put("corrupt-key", "corrupt");
+
+        final ExecutorService pool = Mockito.spy(Executors.newFixedThreadPool(2));
+
+        try {
+            final Map<String, String> credentials = AdalMigration.decrypt(
+                    entries,
+                    storageHelper,
+                    pool,
+                    2
+            );
+
+            Assert.assertEquals(4, credentials.size());
+            Assert.assertEquals("decrypted-value3", credentials.get("key3"));
+            Assert.assertFalse(credentials.containsKey("corrupt-key"));
+            Mockito.verify(pool, Mockito.times(3)).invokeAll(Mockito.<Callable<Object>>anyCollection());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static TokenMigrationCallback countDown(final CountDownLatch latch) {
+        return new TokenMigrationCallback() {
+            @Override
+            public void onMigrationFinished(final int numberOfAccountsMigrated) {
+                latch.countDown();
+            }
+        };
+    }
+}
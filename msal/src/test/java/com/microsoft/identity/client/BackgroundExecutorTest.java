@@ -0,0 +1,226 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.google.gson.Gson;
+import com.microsoft.identity.client.configuration.ExecutorConfiguration;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class BackgroundExecutorTest {
+
+    private static final long WAIT_SECONDS = 5;
+
+    @Test
+    public void testTasksRunOnInjectedExecutorAndAreCounted() {
+        final PublicClientApplicationConfiguration configuration = new PublicClientApplicationConfiguration();
+        configuration.setBackgroundExecutor(new Executor() {
+            @Override
+            public void execute(final Runnable runnable) {
+                runnable.run();
+            }
+        });
+
+        final BackgroundExecutor executor = new BackgroundExecutor(configuration);
+        final boolean[] ran = new boolean[1];
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                ran[0] = true;
+            }
+        });
+
+        Assert.assertTrue(ran[0]);
+
+        final ExecutorMetrics metrics = executor.getMetrics();
+        Assert.assertEquals(0, metrics.getActiveCount());
+        Assert.assertEquals(0, metrics.getQueuedCount());
+        Assert.assertEquals(1, metrics.getCompletedCount());
+        Assert.assertEquals(0, metrics.getRejectedCount());
+    }
+
+    @Test
+    public void testSaturatedPoolRejectsAndCountsTasks() throws InterruptedException {
+        final ThreadPoolExecutor pool = BackgroundExecutor.createPool(
+                "msal-test",
+                configurationOf(1, 1, ExecutorConfiguration.RejectionPolicy.ABORT)
+        );
+        final PublicClientApplicationConfiguration configuration = new PublicClientApplicationConfiguration();
+        configuration.setBackgroundExecutor(pool);
+
+        final BackgroundExecutor executor = new BackgroundExecutor(configuration);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            executor.execute(blockingTask(started, release));
+            Assert.assertTrue(started.await(WAIT_SECONDS, TimeUnit.SECONDS));
+            executor.execute(blockingTask(new CountDownLatch(1), release));
+
+            try {
+                executor.execute(blockingTask(new CountDownLatch(1), release));
+                Assert.fail("Expected the task to be rejected.");
+            } catch (final RejectedExecutionException expected) {
+                // Expected.
+            }
+
+            final ExecutorMetrics metrics = executor.getMetrics();
+            Assert.assertEquals(1, metrics.getActiveCount());
+            Assert.assertEquals(1, metrics.getQueuedCount());
+            Assert.assertEquals(1, metrics.getRejectedCount());
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+
+        Assert.assertTrue(pool.awaitTermination(WAIT_SECONDS, TimeUnit.SECONDS));
+        Assert.assertEquals(2, executor.getMetrics().getCompletedCount());
+    }
+
+    @Test
+    public void testCallerRunsPolicyRunsOnCallingThreadWhenSaturated() throws InterruptedException {
+        final ThreadPoolExecutor pool = BackgroundExecutor.createPool(
+                "msal-test",
+                configurationOf(1, 1, ExecutorConfiguration.RejectionPolicy.CALLER_RUNS)
+        );
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread[] ranOn = new Thread[1];
+        final Thread caller = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                pool.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        ranOn[0] = Thread.currentThread();
+                    }
+                });
+            }
+        });
+
+        try {
+            pool.execute(blockingTask(started, release));
+            Assert.assertTrue(started.await(WAIT_SECONDS, TimeUnit.SECONDS));
+            pool.execute(blockingTask(new CountDownLatch(1), release));
+
+            caller.start();
+            caller.join(TimeUnit.SECONDS.toMillis(WAIT_SECONDS));
+
+            Assert.assertSame(caller, ranOn[0]);
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testCallerRunsPolicyRejectsOnMainThreadWhenSaturated() throws InterruptedException {
+        final ThreadPoolExecutor pool = BackgroundExecutor.createPool(
+                "msal-test",
+                configurationOf(1, 1, ExecutorConfiguration.RejectionPolicy.CALLER_RUNS)
+        );
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final boolean[] ran = new boolean[1];
+
+        try {
+            pool.execute(blockingTask(started, release));
+            Assert.assertTrue(started.await(WAIT_SECONDS, TimeUnit.SECONDS));
+            pool.execute(blockingTask(new CountDownLatch(1), release));
+
+            try {
+                pool.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        ran[0] = true;
+                    }
+                });
+                Assert.fail("Expected the task to be rejected on the main thread.");
+            } catch (final RejectedExecutionException expected) {
+                // Expected.
+            }
+
+            Assert.assertFalse(ran[0]);
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPoolThreadsAreNamed() throws InterruptedException {
+        final ThreadPoolExecutor pool = BackgroundExecutor.createPool("msal-test", null);
+        final String[] threadName = new String[1];
+        final CountDownLatch ran = new CountDownLatch(1);
+
+        pool.execute(new Runnable() {
+            @Override
+            public void run() {
+                threadName[0] = Thread.currentThread().getName();
+                ran.countDown();
+            }
+        });
+
+        Assert.assertTrue(ran.await(WAIT_SECONDS, TimeUnit.SECONDS));
+        Assert.assertEquals("msal-test-1", threadName[0]);
+        Assert.assertEquals(BackgroundExecutor.DEFAULT_MAX_POOL_SIZE, pool.getMaximumPoolSize());
+        pool.shutdown();
+    }
+
+    private static ExecutorConfiguration configurationOf(final int maxPoolSize,
+                                                         final int queueCapacity,
+                                                         final ExecutorConfiguration.RejectionPolicy rejectionPolicy) {
+        return new Gson().fromJson(
+                "{\"max_pool_size\":" + maxPoolSize
+                        + ",\"queue_capacity\":" + queueCapacity
+                        + ",\"rejection_policy\":\"" + rejectionPolicy.name() + "\"}",
+                ExecutorConfiguration.class
+        );
+    }
+
+    private static Runnable blockingTask(final CountDownLatch started, final CountDownLatch release) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+
+                try {
+                    release.await(WAIT_SECONDS, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,150 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.content.Context;
+import android.content.ServiceConnection;
+
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.microsoft.identity.common.adal.internal.AuthenticationConstants;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class BrokerWarmUpTest {
+
+    private static final String BROKER = AuthenticationConstants.Broker.AZURE_AUTHENTICATOR_APP_PACKAGE_NAME;
+
+    private Context mContext;
+    private FakeConnector mConnector;
+    private BrokerWarmUp mWarmUp;
+
+    @Before
+    public void setup() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mConnector = new FakeConnector();
+        mWarmUp = new BrokerWarmUp(mConnector);
+    }
+
+    @Test
+    public void testStartUpTimeIsMeasuredWhenBrokerIsUpBeforeCompletion() {
+        final BrokerWarmUp.Ticket ticket = mWarmUp.newTicket(mContext);
+        Assert.assertTrue(ticket.start(BROKER, 1000));
+        Assert.assertEquals(BROKER, mConnector.mBrokerPackage);
+
+        ticket.onConnected(1300);
+
+        Assert.assertEquals(300, ticket.finish(2000));
+        Assert.assertEquals(1, mWarmUp.getWarmUpCount());
+        Assert.assertEquals(300, mWarmUp.getBrokerStartUpMillis());
+        Assert.assertEquals(1, mConnector.mDisconnectCount);
+    }
+
+    @Test
+    public void testNoStartUpTimeIfBrokerNotUpInTime() {
+        final BrokerWarmUp.Ticket ticket = mWarmUp.newTicket(mContext);
+        ticket.start(BROKER, 1000);
+
+        Assert.assertEquals(0, ticket.finish(1200));
+
+        // Connecting after the request completed is not counted either.
+        ticket.onConnected(1500);
+        Assert.assertEquals(0, mWarmUp.getBrokerStartUpMillis());
+    }
+
+    @Test
+    public void testFinishIsIdempotent() {
+        final BrokerWarmUp.Ticket ticket = mWarmUp.newTicket(mContext);
+        ticket.start(BROKER, 1000);
+        ticket.onConnected(1100);
+
+        Assert.assertEquals(100, ticket.finish(1200));
+        Assert.assertEquals(0, ticket.finish(1300));
+        Assert.assertEquals(100, mWarmUp.getBrokerStartUpMillis());
+        Assert.assertEquals(1, mConnector.mDisconnectCount);
+    }
+
+    @Test
+    public void testNotStartedOnceFinished() {
+        final BrokerWarmUp.Ticket ticket = mWarmUp.newTicket(mContext);
+
+        Assert.assertEquals(0, ticket.finish(1000));
+        Assert.assertFalse(ticket.start(BROKER, 1100));
+        Assert.assertNull(mConnector.mBrokerPackage);
+        Assert.assertEquals(0, mWarmUp.getWarmUpCount());
+        Assert.assertEquals(0, mConnector.mDisconnectCount);
+    }
+
+    @Test
+    public void testNotStartedIfBindFails() {
+        mConnector.mConnects = false;
+        final BrokerWarmUp.Ticket ticket = mWarmUp.newTicket(mContext);
+
+        Assert.assertFalse(ticket.start(BROKER, 1000));
+        Assert.assertEquals(0, mWarmUp.getWarmUpCount());
+        // A failed bind is still released, once.
+        Assert.assertEquals(1, mConnector.mDisconnectCount);
+        ticket.finish(1100);
+        Assert.assertEquals(1, mConnector.mDisconnectCount);
+    }
+
+    @Test
+    public void testNotStartedIfBindNotAllowed() {
+        mConnector.mThrows = true;
+
+        Assert.assertFalse(mWarmUp.newTicket(mContext).start(BROKER, 1000));
+        Assert.assertEquals(0, mWarmUp.getWarmUpCount());
+    }
+
+    private static final class FakeConnector implements BrokerWarmUp.Connector {
+
+        boolean mConnects = true;
+        boolean mThrows;
+        String mBrokerPackage;
+        int mDisconnectCount;
+
+        @Override
+        public boolean connect(@NonNull final Context applicationContext,
+                               @NonNull final String brokerPackage,
+                               @NonNull final ServiceConnection connection) {
+            if (mThrows) {
+                throw new SecurityException("Not allowed");
+            }
+
+            mBrokerPackage = brokerPackage;
+            return mConnects;
+        }
+
+        @Override
+        public void disconnect(@NonNull final Context applicationContext,
+                               @NonNull final ServiceConnection connection) {
+            mDisconnectCount++;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+@RunWith(RobolectricTestRunner.class)
+public class CallbackDispatcherTest {
+
+    private RecordingExecutor mExecutor;
+    private PublicClientApplicationConfiguration mConfiguration;
+
+    @Before
+    public void setup() {
+        mExecutor = new RecordingExecutor();
+        mConfiguration = new PublicClientApplicationConfiguration();
+    }
+
+    @Test
+    public void testCallbackIsNotWrappedWithoutExecutor() {
+        final SilentAuthenticationCallback callback = Mockito.mock(SilentAuthenticationCallback.class);
+
+        Assert.assertSame(callback, CallbackDispatcher.wrap(callback, null));
+    }
+
+    @Test
+    public void testWrappedCallbackRunsOnExecutor() {
+        final SilentAuthenticationCallback callback = Mockito.mock(SilentAuthenticationCallback.class);
+        final IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+
+        final SilentAuthenticationCallback wrapped = CallbackDispatcher.wrap(callback, mExecutor);
+        Assert.assertTrue(wrapped instanceof CallbackDispatcher.AnyThreadCallback);
+        Assert.assertFalse(wrapped instanceof AuthenticationCallback);
+
+        wrapped.onSuccess(result);
+        Mockito.verify(callback, Mockito.never()).onSuccess(result);
+
+        mExecutor.runAll();
+        Mockito.verify(callback).onSuccess(result);
+    }
+
+    @Test
+    public void testWrappedInteractiveCallbackForwardsCancel() {
+        final AuthenticationCallback callback = Mockito.mock(AuthenticationCallback.class);
+
+        final SilentAuthenticationCallback wrapped = CallbackDispatcher.wrap(callback, mExecutor);
+        Assert.assertTrue(wrapped instanceof AuthenticationCallback);
+
+        ((AuthenticationCallback) wrapped).onCancel();
+        mExecutor.runAll();
+
+        Mockito.verify(callback).onCancel();
+    }
+
+    @Test
+    public void testWrappedCallbackIsNotWrappedAgain() {
+        final SilentAuthenticationCallback wrapped = CallbackDispatcher.wrap(
+                Mockito.mock(SilentAuthenticationCallback.class),
+                mExecutor
+        );
+
+        Assert.assertSame(wrapped, CallbackDispatcher.wrap(wrapped, new RecordingExecutor()));
+    }
+
+    @Test
+    public void testRequestExecutorTakesPrecedence() {
+        final RecordingExecutor requestExecutor = new RecordingExecutor();
+        mConfiguration.setCallbackExecutor(mExecutor);
+
+        final AcquireTokenSilentParameters withExecutor = new AcquireTokenSilentParameters.Builder()
+                .withScopes(Collections.singletonList("User.Read"))
+                .withCallbackExecutor(requestExecutor)
+                .build();
+        final AcquireTokenSilentParameters withoutExecutor = new AcquireTokenSilentParameters.Builder()
+                .withScopes(Collections.singletonList("User.Read"))
+                .build();
+
+        Assert.assertSame(requestExecutor, CallbackDispatcher.getCallbackExecutor(withExecutor, mConfiguration));
+        Assert.assertSame(mExecutor, CallbackDispatcher.getCallbackExecutor(withoutExecutor, mConfiguration));
+
+        mConfiguration.setCallbackExecutor(null);
+        Assert.assertNull(CallbackDispatcher.getCallbackExecutor(withoutExecutor, mConfiguration));
+    }
+
+    @Test
+    public void testDeliverRunsAnyThreadCallbackInline() {
+        final SilentAuthenticationCallback callback = Mockito.mock(SilentAuthenticationCallback.class);
+        final SilentAuthenticationCallback wrapped = CallbackDispatcher.wrap(callback, mExecutor);
+        final MsalClientException exception = new MsalClientException(MsalClientException.UNKNOWN_ERROR);
+
+        CallbackDispatcher.deliver(wrapped, new Runnable() {
+            @Override
+            public void run() {
+                wrapped.onError(exception);
+            }
+        });
+
+        Assert.assertEquals(1, mExecutor.mPending.size());
+        mExecutor.runAll();
+        Mockito.verify(callback).onError(exception);
+    }
+
+    private static final class RecordingExecutor implements Executor {
+
+        final List<Runnable> mPending = new ArrayList<>();
+
+        @Override
+        public void execute(final Runnable command) {
+            mPending.add(command);
+        }
+
+        void runAll() {
+            for (final Runnable runnable : mPending) {
+                runnable.run();
+            }
+            mPending.clear();
+        }
+    }
+}
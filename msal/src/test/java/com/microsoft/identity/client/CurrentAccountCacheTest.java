@@ -0,0 +1,165 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.common.adal.internal.util.JsonExtensions;
+import com.microsoft.identity.common.internal.cache.ICacheRecord;
+import com.microsoft.identity.common.internal.cache.ISharedPreferencesFileManager;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.microsoft.identity.client.RoboTestCacheHelper.homeRecord;
+import static com.microsoft.identity.client.SingleAccountPublicClientApplication.CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY;
+
+@RunWith(RobolectricTestRunner.class)
+public class CurrentAccountCacheTest {
+
+    private ISharedPreferencesFileManager mFileManager;
+    private CurrentAccountCache mCache;
+
+    @Before
+    public void setup() {
+        mFileManager = Mockito.mock(ISharedPreferencesFileManager.class);
+        mCache = new CurrentAccountCache(mFileManager);
+    }
+
+    @Test
+    public void testPersistedAccountReadOnce() {
+        Mockito.when(mFileManager.getString(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY))
+                .thenReturn(JsonExtensions.getJsonStringFromICacheRecordList(records("uid")));
+
+        final IAccount account = mCache.getSnapshot().getAccount();
+
+        Assert.assertNotNull(account);
+        Assert.assertEquals("uid", account.getId());
+        Assert.assertSame(account, mCache.getSnapshot().getAccount());
+        Mockito.verify(mFileManager, Mockito.times(1)).getString(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY);
+    }
+
+    @Test
+    public void testUnchangedAccountNotPersistedAgain() {
+        final CurrentAccountCache.Snapshot first = mCache.update(records("uid"));
+        final CurrentAccountCache.Snapshot second = mCache.update(records("uid"));
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, second.getVersion());
+        Mockito.verify(mFileManager, Mockito.times(1))
+                .putString(Mockito.eq(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY), Mockito.anyString());
+    }
+
+    @Test
+    public void testChangedAccountPersisted() {
+        mCache.update(records("uid"));
+        final CurrentAccountCache.Snapshot snapshot = mCache.update(records("uid2"));
+
+        Assert.assertEquals(2, snapshot.getVersion());
+        Assert.assertEquals("uid2", snapshot.getAccount().getId());
+        Mockito.verify(mFileManager, Mockito.times(2))
+                .putString(Mockito.eq(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY), Mockito.anyString());
+    }
+
+    @Test
+    public void testSignOutClearsOnlyOnce() {
+        mCache.update(records("uid"));
+        mCache.update(null);
+        final CurrentAccountCache.Snapshot snapshot = mCache.update(Collections.<ICacheRecord>emptyList());
+
+        Assert.assertNull(snapshot.getAccount());
+        Assert.assertEquals(2, snapshot.getVersion());
+        Mockito.verify(mFileManager, Mockito.times(1)).clear();
+    }
+
+    @Test
+    public void testReadersNotBlockedByWriter() throws InterruptedException {
+        final int readerCount = 8;
+        final int readsPerReader = 10000;
+        final CountDownLatch writeStarted = new CountDownLatch(1);
+        final CountDownLatch readsDone = new CountDownLatch(readerCount);
+        final CountDownLatch releaseWrite = new CountDownLatch(1);
+
+        mCache.update(records("uid"));
+
+        // Stalls the writer inside the disk write until every reader has finished
+        Mockito.doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws InterruptedException {
+                writeStarted.countDown();
+                releaseWrite.await();
+                return null;
+            }
+        }).when(mFileManager).putString(Mockito.eq(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY), Mockito.anyString());
+
+        final Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                mCache.update(records("uid2"));
+            }
+        });
+        writer.start();
+        Assert.assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+
+        final AtomicInteger staleReads = new AtomicInteger();
+
+        for (int i = 0; i < readerCount; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int read = 0; read < readsPerReader; read++) {
+                        if ("uid".equals(mCache.getSnapshot().getAccount().getId())) {
+                            staleReads.incrementAndGet();
+                        }
+                    }
+
+                    readsDone.countDown();
+                }
+            }).start();
+        }
+
+        // Every read completes while the write is still in progress, and sees the last
+        // published snapshot
+        final boolean readersFinished = readsDone.await(5, TimeUnit.SECONDS);
+        releaseWrite.countDown();
+        writer.join();
+
+        Assert.assertTrue(readersFinished);
+        Assert.assertEquals(readerCount * readsPerReader, staleReads.get());
+        Assert.assertEquals("uid2", mCache.getSnapshot().getAccount().getId());
+    }
+
+    private static List<ICacheRecord> records(final String uid) {
+        return Collections.singletonList(homeRecord(uid));
+    }
+}
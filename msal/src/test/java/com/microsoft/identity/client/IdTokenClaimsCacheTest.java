@@ -0,0 +1,123 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.util.Base64;
+
+import com.microsoft.identity.internal.testutils.mocks.MockTokenCreator;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Map;
+
+import static com.microsoft.identity.internal.testutils.mocks.MockTokenCreator.MOCK_PREFERRED_USERNAME_VALUE;
+
+@RunWith(RobolectricTestRunner.class)
+public class IdTokenClaimsCacheTest {
+
+    private String mRawIdToken;
+
+    @Before
+    public void setup() {
+        IdTokenClaimsCache.getInstance().clear();
+        mRawIdToken = MockTokenCreator.createMockIdToken();
+    }
+
+    @Test
+    public void testTokenParsedOnce() {
+        final IdTokenClaimsCache cache = new IdTokenClaimsCache(IdTokenClaimsCache.MAX_ENTRIES);
+
+        final Map<String, ?> claims = cache.getClaims(mRawIdToken);
+
+        Assert.assertNotNull(claims);
+        Assert.assertSame(claims, cache.getClaims(mRawIdToken));
+        Assert.assertEquals(1, cache.getParseCount());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testClaimsAreUnmodifiable() {
+        final IdTokenClaimsCache cache = new IdTokenClaimsCache(IdTokenClaimsCache.MAX_ENTRIES);
+
+        cache.getClaims(mRawIdToken).clear();
+    }
+
+    @Test
+    public void testMalformedTokenYieldsNoClaims() {
+        final IdTokenClaimsCache cache = new IdTokenClaimsCache(IdTokenClaimsCache.MAX_ENTRIES);
+
+        Assert.assertNull(cache.getClaims("not-a-jwt"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedTokenEvicted() {
+        final IdTokenClaimsCache cache = new IdTokenClaimsCache(1);
+        final String otherRawIdToken = unsignedIdToken("{\"oid\":\"other-oid\"}");
+
+        cache.getClaims(mRawIdToken);
+        cache.getClaims(otherRawIdToken);
+        cache.getClaims(mRawIdToken);
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(3, cache.getParseCount());
+    }
+
+    @Test
+    public void testAccountClaimsParsedOnFirstUse() {
+        final IdTokenClaimsCache cache = IdTokenClaimsCache.getInstance();
+        final long parsed = cache.getParseCount();
+
+        final Account account = new Account(null, mRawIdToken, null);
+        final Account sameTokenAccount = new TenantProfile(null, mRawIdToken, null);
+
+        Assert.assertEquals(parsed, cache.getParseCount());
+        Assert.assertEquals(MOCK_PREFERRED_USERNAME_VALUE, account.getUsername());
+        Assert.assertEquals(account.getClaims(), sameTokenAccount.getClaims());
+        Assert.assertEquals(parsed + 1, cache.getParseCount());
+    }
+
+    @Test
+    public void testAccountClaimsAreACopyOfItsOwn() {
+        final Account account = new Account(null, mRawIdToken, null);
+        final Account sameTokenAccount = new Account(null, mRawIdToken, null);
+
+        account.getClaims().clear();
+
+        Assert.assertTrue(account.getClaims().isEmpty());
+        Assert.assertFalse(sameTokenAccount.getClaims().isEmpty());
+        Assert.assertFalse(IdTokenClaimsCache.getInstance().getClaims(mRawIdToken).isEmpty());
+    }
+
+    private static String unsignedIdToken(final String claims) {
+        final int flags = Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING;
+
+        return Base64.encodeToString("{\"alg\":\"none\"}".getBytes(), flags)
+                + "."
+                + Base64.encodeToString(claims.getBytes(), flags)
+                + ".";
+    }
+}
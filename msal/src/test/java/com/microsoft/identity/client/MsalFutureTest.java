@@ -0,0 +1,217 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.internal.controllers.TaskCompletedCallbackWithError;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(RobolectricTestRunner.class)
+public class MsalFutureTest {
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    };
+
+    @Test
+    public void testGetReturnsResult() throws Exception {
+        final MsalFuture<String> future = new MsalFuture<>();
+
+        Assert.assertFalse(future.isDone());
+        Assert.assertTrue(future.set("shr"));
+
+        Assert.assertTrue(future.isDone());
+        Assert.assertEquals("shr", future.get());
+    }
+
+    @Test
+    public void testGetThrowsMsalExceptionAsCause() throws Exception {
+        final MsalFuture<String> future = new MsalFuture<>();
+        final MsalClientException exception = new MsalClientException(MsalClientException.UNKNOWN_ERROR);
+        future.setException(exception);
+
+        try {
+            future.get();
+            Assert.fail();
+        } catch (final ExecutionException e) {
+            Assert.assertSame(exception, e.getCause());
+        }
+    }
+
+    @Test
+    public void testFirstCompletionWins() throws Exception {
+        final MsalFuture<String> future = new MsalFuture<>();
+
+        Assert.assertTrue(future.set("first"));
+        Assert.assertFalse(future.set("second"));
+        Assert.assertFalse(future.setException(new MsalClientException(MsalClientException.UNKNOWN_ERROR)));
+
+        Assert.assertEquals("first", future.get());
+    }
+
+    @Test
+    public void testGetTimesOut() throws Exception {
+        final MsalFuture<String> future = new MsalFuture<>();
+        final AtomicReference<Throwable> thrown = new AtomicReference<>();
+
+        // Waiting for a pending future is only allowed off the main thread.
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    future.get(10, TimeUnit.MILLISECONDS);
+                } catch (final Exception exception) {
+                    thrown.set(exception);
+                }
+            }
+        });
+        thread.start();
+        thread.join();
+
+        Assert.assertTrue(thrown.get() instanceof TimeoutException);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testGetOfPendingFutureOnMainThreadFailsFast() throws Exception {
+        new MsalFuture<String>().get();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTimedGetOfPendingFutureOnMainThreadFailsFast() throws Exception {
+        new MsalFuture<String>().get(10, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testListenersRunOnCompletionAndWhenAlreadyDone() {
+        final MsalFuture<String> future = new MsalFuture<>();
+        final List<String> calls = new ArrayList<>();
+
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                calls.add("before");
+            }
+        }, DIRECT);
+
+        Assert.assertTrue(calls.isEmpty());
+
+        future.set("result");
+
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                calls.add("after");
+            }
+        }, DIRECT);
+
+        Assert.assertEquals(2, calls.size());
+        Assert.assertEquals("before", calls.get(0));
+        Assert.assertEquals("after", calls.get(1));
+    }
+
+    @Test
+    public void testCallbackReceivesResult() {
+        final MsalFuture<String> future = new MsalFuture<>();
+        final List<Object> received = new ArrayList<>();
+
+        future.addCallback(new TaskCompletedCallbackWithError<String, MsalException>() {
+            @Override
+            public void onTaskCompleted(final String result) {
+                received.add(result);
+            }
+
+            @Override
+            public void onError(final MsalException exception) {
+                received.add(exception);
+            }
+        }, DIRECT);
+
+        future.set("result");
+
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals("result", received.get(0));
+    }
+
+    @Test
+    public void testCancelDiscardsLaterResult() throws Exception {
+        final MsalFuture<String> future = new MsalFuture<>();
+
+        Assert.assertTrue(future.cancel(true));
+        Assert.assertFalse(future.set("result"));
+        Assert.assertTrue(future.isCancelled());
+        Assert.assertTrue(future.isDone());
+
+        try {
+            future.get();
+            Assert.fail();
+        } catch (final CancellationException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testThrowingExecutorDoesNotBlockOtherListeners() {
+        final MsalFuture<String> future = new MsalFuture<>();
+        final List<String> calls = new ArrayList<>();
+
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                calls.add("rejected");
+            }
+        }, new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                throw new IllegalStateException();
+            }
+        });
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                calls.add("run");
+            }
+        }, DIRECT);
+
+        future.set("result");
+
+        Assert.assertEquals(1, calls.size());
+        Assert.assertEquals("run", calls.get(0));
+    }
+}
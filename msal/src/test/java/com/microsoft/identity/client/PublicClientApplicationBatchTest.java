@@ -0,0 +1,274 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.e2e.shadows.ShadowMockAuthority;
+import com.microsoft.identity.client.e2e.shadows.ShadowOpenIdProviderConfigurationClient;
+import com.microsoft.identity.client.e2e.shadows.ShadowPublicClientApplicationConfiguration;
+import com.microsoft.identity.client.e2e.shadows.ShadowStorageHelper;
+import com.microsoft.identity.client.e2e.tests.AcquireTokenAbstractTest;
+import com.microsoft.identity.client.e2e.utils.ErrorCodes;
+import com.microsoft.identity.client.exception.MsalUiRequiredException;
+import com.microsoft.identity.common.internal.authorities.Authority;
+import com.microsoft.identity.common.internal.cache.ICacheRecord;
+import com.microsoft.identity.common.internal.net.HttpClient;
+import com.microsoft.identity.common.internal.net.HttpResponse;
+import com.microsoft.identity.internal.testutils.HttpRequestInterceptor;
+import com.microsoft.identity.internal.testutils.HttpRequestMatcher;
+import com.microsoft.identity.internal.testutils.TestConstants;
+import com.microsoft.identity.internal.testutils.mocks.MockTokenResponse;
+import com.microsoft.identity.internal.testutils.shadows.ShadowHttpClient;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.microsoft.identity.internal.testutils.TestConstants.Authorities.AAD_MOCK_AUTHORITY;
+import static com.microsoft.identity.internal.testutils.TestConstants.Configurations.MULTIPLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = {
+        ShadowStorageHelper.class,
+        ShadowMockAuthority.class,
+        ShadowHttpClient.class,
+        ShadowPublicClientApplicationConfiguration.class,
+        ShadowOpenIdProviderConfigurationClient.class
+})
+public class PublicClientApplicationBatchTest extends AcquireTokenAbstractTest {
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(@NonNull final Runnable command) {
+            command.run();
+        }
+    };
+
+    @Override
+    public String[] getScopes() {
+        return TestConstants.Scopes.USER_READ_SCOPE;
+    }
+
+    @Override
+    public String getAuthority() {
+        return AAD_MOCK_AUTHORITY;
+    }
+
+    @Override
+    public String getConfigFilePath() {
+        return MULTIPLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
+    }
+
+    @Before
+    public void setup() {
+        super.setup();
+        mockHttpClient.intercept(
+                HttpRequestMatcher.builder().isPOST().build(), new HttpRequestInterceptor() {
+                    @Override
+                    public HttpResponse intercept(
+                            @NonNull HttpClient.HttpMethod httpMethod,
+                            @NonNull URL requestUrl,
+                            @NonNull Map<String, String> requestHeaders,
+                            @Nullable byte[] requestContent) throws IOException {
+                        throw new IOException("Sending requests to server has been disabled for mocked unit tests");
+                    }
+                });
+    }
+
+    @Test
+    public void testBatchResolvesAccountAndControllersOnce() throws Exception {
+        final PublicClientApplication application = Mockito.spy((PublicClientApplication) mApplication);
+        final IAccount account = saveAccount();
+
+        final List<SilentTokenResult> results = acquireTokens(application, Arrays.asList(
+                newParameters(account, "User.Read"),
+                newParameters(account, "Mail.Read"),
+                newParameters(account, "Calendars.Read")
+        ));
+
+        Assert.assertEquals(3, results.size());
+        Mockito.verify(application, Mockito.times(1)).selectAccountRecordForTokenRequest(
+                Mockito.any(PublicClientApplicationConfiguration.class),
+                Mockito.any(TokenParameters.class)
+        );
+        Mockito.verify(application, Mockito.times(1)).getSilentRequestControllers(
+                Mockito.any(Authority.class)
+        );
+    }
+
+    @Test
+    public void testEachRequestOfBatchReportsItsOwnOutcome() throws Exception {
+        final IAccount account = saveAccount();
+        final AcquireTokenSilentParameters cached = newParameters(account, mScopes);
+        final AcquireTokenSilentParameters noScopes = new AcquireTokenSilentParameters.Builder()
+                .forAccount(account)
+                .fromAuthority(getAuthority())
+                .withCallbackExecutor(DIRECT_EXECUTOR)
+                .build();
+        final AcquireTokenSilentParameters notCached = newParameters(account, "Mail.Read");
+
+        final List<SilentTokenResult> results = acquireTokens(
+                (PublicClientApplication) mApplication,
+                Arrays.asList(cached, noScopes, notCached)
+        );
+
+        Assert.assertSame(cached, results.get(0).getParameters());
+        Assert.assertTrue(results.get(0).isSuccessful());
+
+        Assert.assertSame(noScopes, results.get(1).getParameters());
+        Assert.assertFalse(results.get(1).isSuccessful());
+        Assert.assertEquals(
+                ErrorCodes.ILLEGAL_ARGUMENT_ERROR_CODE,
+                results.get(1).getException().getErrorCode()
+        );
+
+        // Refreshing needs the network, which is disabled.
+        Assert.assertSame(notCached, results.get(2).getParameters());
+        Assert.assertFalse(results.get(2).isSuccessful());
+        Assert.assertNotEquals(
+                ErrorCodes.ILLEGAL_ARGUMENT_ERROR_CODE,
+                results.get(2).getException().getErrorCode()
+        );
+    }
+
+    @Test
+    public void testBatchFailsFastFromUiRequiredCache() throws Exception {
+        final PublicClientApplication application = Mockito.spy((PublicClientApplication) mApplication);
+        final IAccount account = saveAccount();
+        final AcquireTokenSilentParameters parameters = newParameters(account, "Mail.Read");
+        final MsalUiRequiredException exception =
+                new MsalUiRequiredException(MsalUiRequiredException.INVALID_GRANT);
+
+        UiRequiredCache.getInstance().put(
+                SilentTokenRequestKey.of(application.getConfiguration(), parameters),
+                exception,
+                TimeUnit.MINUTES.toMillis(1)
+        );
+
+        final List<SilentTokenResult> results =
+                acquireTokens(application, Collections.singletonList(parameters));
+
+        Assert.assertSame(exception, results.get(0).getException());
+        Mockito.verify(application, Mockito.never()).getSilentRequestControllers(
+                Mockito.any(Authority.class)
+        );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchRejectsRequestWithCallback() throws Exception {
+        final IAccount account = saveAccount();
+        final AcquireTokenSilentParameters parameters = new AcquireTokenSilentParameters.Builder()
+                .forAccount(account)
+                .fromAuthority(getAuthority())
+                .withScopes(Arrays.asList(mScopes))
+                .withCallback(Mockito.mock(SilentAuthenticationCallback.class))
+                .build();
+
+        mApplication.acquireTokensSilentAsync(
+                Collections.singletonList(parameters),
+                Mockito.mock(BatchSilentAuthenticationCallback.class)
+        );
+    }
+
+    @Test
+    public void testRequestsOfCompletedBatchCanBeReused() throws Exception {
+        final IAccount account = saveAccount();
+        final List<AcquireTokenSilentParameters> parameters =
+                Collections.singletonList(newParameters(account, mScopes));
+
+        acquireTokens((PublicClientApplication) mApplication, parameters);
+        Assert.assertNull(parameters.get(0).getCallback());
+
+        final List<SilentTokenResult> results =
+                acquireTokens((PublicClientApplication) mApplication, parameters);
+        Assert.assertTrue(results.get(0).isSuccessful());
+    }
+
+    private IAccount saveAccount() throws Exception {
+        final ICacheRecord cacheRecord = RoboTestCacheHelper.saveTokens(
+                MockTokenResponse.getMockSuccessTokenResponse(),
+                mApplication
+        );
+
+        return AccountAdapter.adapt(Collections.singletonList(cacheRecord)).get(0);
+    }
+
+    private AcquireTokenSilentParameters newParameters(@NonNull final IAccount account,
+                                                      @NonNull final String... scopes) {
+        return new AcquireTokenSilentParameters.Builder()
+                .forAccount(account)
+                .fromAuthority(getAuthority())
+                .withScopes(Arrays.asList(scopes))
+                .withCallbackExecutor(DIRECT_EXECUTOR)
+                .build();
+    }
+
+    /**
+     * Runs a batch and waits for its results, running whatever the requests post to the main
+     * thread in the meantime.
+     */
+    private static List<SilentTokenResult> acquireTokens(
+            @NonNull final PublicClientApplication application,
+            @NonNull final List<AcquireTokenSilentParameters> parameters)
+            throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<List<SilentTokenResult>> results = new AtomicReference<>();
+
+        application.acquireTokensSilentAsync(parameters, new BatchSilentAuthenticationCallback() {
+            @Override
+            public void onCompleted(@NonNull final List<SilentTokenResult> batchResults) {
+                results.set(batchResults);
+                latch.countDown();
+            }
+        });
+
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+
+        while (!latch.await(10, TimeUnit.MILLISECONDS)) {
+            Assert.assertTrue("The batch did not complete in time", System.currentTimeMillis() < deadline);
+            Robolectric.flushForegroundThreadScheduler();
+        }
+
+        return results.get();
+    }
+}
@@ -0,0 +1,89 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.content.Context;
+import android.content.res.Resources;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.microsoft.identity.client.configuration.AccountMode;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class PublicClientApplicationConfigurationFactoryTest {
+
+    private static final int COMPILED_CONFIG_RESOURCE_ID = 0x7f0f0001;
+
+    private static final String COMPILED_CONFIG = "{"
+            + "\"client_id\":\"compiled-client-id\","
+            + "\"redirect_uri\":\"msauth://com.microsoft.identity.client/redirect\","
+            + "\"account_mode\":\"SINGLE\","
+            + "\"authorization_user_agent\":\"DEFAULT\","
+            + "\"authorities\":[{\"type\":\"AAD\",\"audience\":{\"type\":\"AzureADMyOrg\",\"tenant_id\":\"contoso.com\"},\"default\":true}]"
+            + "}";
+
+    private Context mContext;
+
+    @Before
+    public void setup() {
+        mContext = ApplicationProvider.getApplicationContext();
+    }
+
+    @Test
+    public void testCompiledConfigurationUsedInsteadOfResource() {
+        PublicClientApplicationConfigurationFactory.registerCompiledConfiguration(
+                COMPILED_CONFIG_RESOURCE_ID,
+                COMPILED_CONFIG,
+                PublicClientApplication.getSdkVersion()
+        );
+
+        // No such resource exists, so this only succeeds if the resource is not read
+        final PublicClientApplicationConfiguration config =
+                PublicClientApplicationConfigurationFactory.initializeConfiguration(mContext, COMPILED_CONFIG_RESOURCE_ID);
+
+        Assert.assertEquals("compiled-client-id", config.getClientId());
+        Assert.assertEquals(AccountMode.SINGLE, config.getAccountMode());
+        Assert.assertSame(mContext, config.getAppContext());
+        Assert.assertNotNull(config.getOAuth2TokenCache());
+    }
+
+    @Test(expected = Resources.NotFoundException.class)
+    public void testConfigurationCompiledForAnotherVersionIsIgnored() {
+        final int resourceId = COMPILED_CONFIG_RESOURCE_ID + 1;
+
+        PublicClientApplicationConfigurationFactory.registerCompiledConfiguration(
+                resourceId,
+                COMPILED_CONFIG,
+                PublicClientApplication.getSdkVersion() + "-other"
+        );
+
+        // Falls back to the resource, which does not exist
+        PublicClientApplicationConfigurationFactory.initializeConfiguration(mContext, resourceId);
+    }
+}
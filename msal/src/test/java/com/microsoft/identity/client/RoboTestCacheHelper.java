@@ -22,10 +22,15 @@
 //  THE SOFTWARE.
 package com.microsoft.identity.client;
 
+import android.util.Base64;
+
+import com.microsoft.identity.client.internal.controllers.MSALControllerFactory;
 import com.microsoft.identity.common.exception.ClientException;
 import com.microsoft.identity.common.internal.authorities.AccountsInOneOrganization;
 import com.microsoft.identity.common.internal.authorities.Authority;
+import com.microsoft.identity.common.internal.cache.CacheRecord;
 import com.microsoft.identity.common.internal.cache.ICacheRecord;
+import com.microsoft.identity.common.internal.dto.AccountRecord;
 import com.microsoft.identity.common.internal.providers.microsoft.microsoftsts.MicrosoftStsAuthorizationRequest;
 import com.microsoft.identity.common.internal.providers.oauth2.OAuth2Strategy;
 import com.microsoft.identity.common.internal.providers.oauth2.OAuth2StrategyParameters;
@@ -36,8 +41,13 @@ import com.microsoft.identity.internal.testutils.authorities.MockAuthority;
 
 import org.mockito.Mockito;
 
+import java.nio.charset.Charset;
+
 public class RoboTestCacheHelper {
 
+    public static final String HOME_TENANT = "home-tenant";
+    public static final String ENVIRONMENT = "login.microsoftonline.com";
+
     // adding this method here in its own class as the getOAuth2TokenCache method has package-private
     // access inside the PubliClientApplication class. Therefore, it is required to place this method
     // in this class as part of the com.microsoft.identity.client package to be able to utilize it
@@ -56,4 +66,56 @@ public class RoboTestCacheHelper {
         Mockito.when(mockAuthRequest.getClientId()).thenReturn(clientId);
         return tokenCache.save(strategy, mockAuthRequest, tokenResponse);
     }
+
+    // The in-memory caches are process-wide and outlive a single test; tests which manipulate the
+    // persisted cache directly need them cleared so that they do not observe stale results.
+    public static void clearInMemoryCaches() {
+        AccessTokenMemoryCache.getInstance().clear();
+        SilentRequestCoalescer.getInstance().clear();
+        UiRequiredCache.getInstance().clear();
+        AccountGraph.getInstance().clear();
+        IdTokenClaimsCache.getInstance().clear();
+        TenantResolutionCache.reset();
+        CurrentAccountCache.reset();
+        AdalMigration.getInstance().reset();
+        MSALControllerFactory.invalidateBrokerInstallationCache();
+    }
+
+    // Cache records of accounts homed in HOME_TENANT, for tests of the account adaptation
+    public static ICacheRecord homeRecord(final String uid) {
+        final AccountRecord accountRecord = accountRecord(uid, uid, HOME_TENANT);
+        accountRecord.setClientInfo(clientInfo(uid));
+        return CacheRecord.builder().account(accountRecord).build();
+    }
+
+    public static ICacheRecord guestRecord(final String uid, final String tenant) {
+        return CacheRecord.builder().account(accountRecord(uid, uid + "-in-" + tenant, tenant)).build();
+    }
+
+    public static AccountRecord accountRecord(final String uid,
+                                              final String localAccountId,
+                                              final String realm) {
+        final AccountRecord accountRecord = new AccountRecord();
+        accountRecord.setHomeAccountId(uid + "." + HOME_TENANT);
+        accountRecord.setLocalAccountId(localAccountId);
+        accountRecord.setRealm(realm);
+        accountRecord.setEnvironment(ENVIRONMENT);
+        return accountRecord;
+    }
+
+    public static String clientInfo(final String uid) {
+        final String json = "{\"uid\":\"" + uid + "\",\"utid\":\"" + HOME_TENANT + "\"}";
+        return Base64.encodeToString(
+                json.getBytes(Charset.forName("UTF-8")),
+                Base64.URL_SAFE | Base64.NO_WRAP
+        );
+    }
+
+    // An account without id token, whose home account id is uid.utid
+    public static MultiTenantAccount account(final String uid) {
+        final MultiTenantAccount account = new MultiTenantAccount(null, null);
+        account.setId(uid);
+        account.setTenantId("utid");
+        return account;
+    }
 }
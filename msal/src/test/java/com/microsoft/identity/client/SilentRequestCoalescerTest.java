@@ -0,0 +1,170 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+
+@RunWith(RobolectricTestRunner.class)
+public class SilentRequestCoalescerTest {
+
+    private SilentRequestCoalescer mCoalescer;
+    private SilentTokenRequestKey mKey;
+
+    @Before
+    public void setup() {
+        mCoalescer = new SilentRequestCoalescer();
+
+        final PublicClientApplicationConfiguration configuration = new PublicClientApplicationConfiguration();
+        configuration.setClientId("some-client-id");
+
+        final MultiTenantAccount account = new MultiTenantAccount(null, null);
+        account.setId("uid");
+        account.setTenantId("utid");
+
+        mKey = SilentTokenRequestKey.of(
+                configuration,
+                new AcquireTokenSilentParameters.Builder()
+                        .forAccount(account)
+                        .fromAuthority("https://login.microsoftonline.com/common")
+                        .withScopes(Collections.singletonList("User.Read"))
+                        .build()
+        );
+    }
+
+    @Test
+    public void testEquivalentRequestIsMergedAndReceivesResult() {
+        final SilentAuthenticationCallback first = Mockito.mock(SilentAuthenticationCallback.class);
+        final SilentAuthenticationCallback second = Mockito.mock(SilentAuthenticationCallback.class);
+        final IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+
+        final SilentAuthenticationCallback executing = mCoalescer.enlist(mKey, false, first);
+        Assert.assertNotNull(executing);
+        Assert.assertNull(mCoalescer.enlist(mKey, false, second));
+
+        executing.onSuccess(result);
+
+        Mockito.verify(first).onSuccess(result);
+        Mockito.verify(second).onSuccess(result);
+        Assert.assertEquals(1, mCoalescer.getExecutedCount());
+        Assert.assertEquals(1, mCoalescer.getMergedCount());
+    }
+
+    @Test
+    public void testErrorIsFannedOutToMergedRequests() {
+        final SilentAuthenticationCallback first = Mockito.mock(SilentAuthenticationCallback.class);
+        final SilentAuthenticationCallback second = Mockito.mock(SilentAuthenticationCallback.class);
+        final MsalException exception = new MsalClientException(MsalClientException.UNKNOWN_ERROR);
+
+        final SilentAuthenticationCallback executing = mCoalescer.enlist(mKey, false, first);
+        mCoalescer.enlist(mKey, false, second);
+
+        executing.onError(exception);
+
+        Mockito.verify(first).onError(exception);
+        Mockito.verify(second).onError(exception);
+    }
+
+    @Test
+    public void testThrowingCallbackDoesNotStopFanOut() {
+        final SilentAuthenticationCallback first = Mockito.mock(SilentAuthenticationCallback.class);
+        final SilentAuthenticationCallback second = Mockito.mock(SilentAuthenticationCallback.class);
+        final IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+        Mockito.doThrow(new IllegalStateException()).when(first).onSuccess(result);
+
+        final SilentAuthenticationCallback executing = mCoalescer.enlist(mKey, false, first);
+        mCoalescer.enlist(mKey, false, second);
+
+        try {
+            executing.onSuccess(result);
+            Assert.fail("The exception of the callback should be rethrown.");
+        } catch (final IllegalStateException expected) {
+            // Rethrown after every merged request was notified.
+        }
+
+        Mockito.verify(first).onSuccess(result);
+        Mockito.verify(second).onSuccess(result);
+    }
+
+    @Test
+    public void testTimedOutRequestIsSupersededAndItsWaitersReleased() {
+        final SilentRequestCoalescer coalescer = new SilentRequestCoalescer(0);
+        final SilentAuthenticationCallback first = Mockito.mock(SilentAuthenticationCallback.class);
+        final SilentAuthenticationCallback second = Mockito.mock(SilentAuthenticationCallback.class);
+        final IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+
+        final SilentAuthenticationCallback lost = coalescer.enlist(mKey, false, first);
+        final SilentAuthenticationCallback executing = coalescer.enlist(mKey, false, second);
+        Assert.assertNotNull(executing);
+
+        executing.onSuccess(result);
+        lost.onSuccess(Mockito.mock(IAuthenticationResult.class));
+
+        Mockito.verify(first).onSuccess(result);
+        Mockito.verify(second).onSuccess(result);
+        Mockito.verifyNoMoreInteractions(first, second);
+        Assert.assertEquals(2, coalescer.getExecutedCount());
+    }
+
+    @Test
+    public void testCancelledRequestFailsMergedRequests() {
+        final SilentAuthenticationCallback first = Mockito.mock(SilentAuthenticationCallback.class);
+        final SilentAuthenticationCallback second = Mockito.mock(SilentAuthenticationCallback.class);
+
+        final SilentAuthenticationCallback executing = mCoalescer.enlist(mKey, false, first);
+        mCoalescer.enlist(mKey, false, second);
+
+        Assert.assertTrue(SilentRequestCoalescer.cancel(executing));
+        Assert.assertFalse(SilentRequestCoalescer.cancel(first));
+
+        Mockito.verify(first).onError(Mockito.any(MsalClientException.class));
+        Mockito.verify(second).onError(Mockito.any(MsalClientException.class));
+        Assert.assertNotNull(mCoalescer.enlist(mKey, false, Mockito.mock(SilentAuthenticationCallback.class)));
+    }
+
+    @Test
+    public void testForceRefreshRequestIsNotMergedWithCachedRequest() {
+        Assert.assertNotNull(mCoalescer.enlist(mKey, false, Mockito.mock(SilentAuthenticationCallback.class)));
+        Assert.assertNotNull(mCoalescer.enlist(mKey, true, Mockito.mock(SilentAuthenticationCallback.class)));
+        Assert.assertEquals(0, mCoalescer.getMergedCount());
+    }
+
+    @Test
+    public void testRequestAfterCompletionIsExecuted() {
+        final SilentAuthenticationCallback executing =
+                mCoalescer.enlist(mKey, false, Mockito.mock(SilentAuthenticationCallback.class));
+        executing.onSuccess(Mockito.mock(IAuthenticationResult.class));
+
+        Assert.assertNotNull(mCoalescer.enlist(mKey, false, Mockito.mock(SilentAuthenticationCallback.class)));
+        Assert.assertEquals(2, mCoalescer.getExecutedCount());
+    }
+}
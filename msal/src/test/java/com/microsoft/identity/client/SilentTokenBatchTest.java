@@ -0,0 +1,132 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+@RunWith(RobolectricTestRunner.class)
+public class SilentTokenBatchTest {
+
+    private final List<List<SilentTokenResult>> mCompletions = new ArrayList<>();
+
+    private final BatchSilentAuthenticationCallback mCallback = new BatchSilentAuthenticationCallback() {
+        @Override
+        public void onCompleted(@NonNull final List<SilentTokenResult> results) {
+            mCompletions.add(results);
+        }
+    };
+
+    @Test
+    public void testResultsAreReportedInRequestOrderOnceAllComplete() {
+        final AcquireTokenSilentParameters first = newParameters("User.Read");
+        final AcquireTokenSilentParameters second = newParameters("Sites.Read.All");
+        final SilentTokenBatch batch = new SilentTokenBatch(Arrays.asList(first, second), mCallback);
+        final IAuthenticationResult firstResult = Mockito.mock(IAuthenticationResult.class);
+        final MsalException secondError = new MsalClientException(MsalClientException.UNKNOWN_ERROR);
+
+        batch.callbackFor(1).onError(secondError);
+        Robolectric.flushForegroundThreadScheduler();
+        Assert.assertTrue(mCompletions.isEmpty());
+
+        batch.callbackFor(0).onSuccess(firstResult);
+        Robolectric.flushForegroundThreadScheduler();
+        Assert.assertEquals(1, mCompletions.size());
+
+        final List<SilentTokenResult> results = mCompletions.get(0);
+        Assert.assertEquals(2, results.size());
+
+        Assert.assertSame(first, results.get(0).getParameters());
+        Assert.assertTrue(results.get(0).isSuccessful());
+        Assert.assertSame(firstResult, results.get(0).getAuthenticationResult());
+
+        Assert.assertSame(second, results.get(1).getParameters());
+        Assert.assertFalse(results.get(1).isSuccessful());
+        Assert.assertSame(secondError, results.get(1).getException());
+        Assert.assertNull(results.get(1).getAuthenticationResult());
+    }
+
+    @Test
+    public void testRepeatedOutcomeOfARequestIsIgnored() {
+        final SilentTokenBatch batch = new SilentTokenBatch(
+                Arrays.asList(newParameters("User.Read"), newParameters("Mail.Read")),
+                mCallback
+        );
+
+        batch.callbackFor(0).onSuccess(Mockito.mock(IAuthenticationResult.class));
+        batch.callbackFor(0).onError(new MsalClientException(MsalClientException.UNKNOWN_ERROR));
+        Robolectric.flushForegroundThreadScheduler();
+        Assert.assertTrue(mCompletions.isEmpty());
+
+        batch.callbackFor(1).onSuccess(Mockito.mock(IAuthenticationResult.class));
+        Robolectric.flushForegroundThreadScheduler();
+        Assert.assertEquals(1, mCompletions.size());
+        Assert.assertTrue(mCompletions.get(0).get(0).isSuccessful());
+    }
+
+    @Test
+    public void testCompletionIsHandedToTheCallbackExecutor() {
+        final List<Runnable> executed = new ArrayList<>();
+        final Executor executor = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                executed.add(command);
+            }
+        };
+        final SilentTokenBatch batch = new SilentTokenBatch(
+                Collections.singletonList(newParameters("User.Read")),
+                CallbackDispatcher.wrap(mCallback, executor)
+        );
+
+        batch.callbackFor(0).onSuccess(Mockito.mock(IAuthenticationResult.class));
+        Robolectric.flushForegroundThreadScheduler();
+
+        Assert.assertEquals(1, executed.size());
+        Assert.assertTrue(mCompletions.isEmpty());
+
+        executed.get(0).run();
+        Assert.assertEquals(1, mCompletions.size());
+    }
+
+    private static AcquireTokenSilentParameters newParameters(final String scope) {
+        return new AcquireTokenSilentParameters.Builder()
+                .fromAuthority("https://login.microsoftonline.com/common")
+                .withScopes(Collections.singletonList(scope))
+                .build();
+    }
+}
@@ -0,0 +1,234 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.client.ISingleAccountPublicClientApplication.CurrentAccountCallback;
+import com.microsoft.identity.client.e2e.shadows.ShadowMockAuthority;
+import com.microsoft.identity.client.e2e.shadows.ShadowOpenIdProviderConfigurationClient;
+import com.microsoft.identity.client.e2e.shadows.ShadowPublicClientApplicationConfiguration;
+import com.microsoft.identity.client.e2e.shadows.ShadowStorageHelper;
+import com.microsoft.identity.client.e2e.tests.AcquireTokenAbstractTest;
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.internal.testutils.TestConstants;
+import com.microsoft.identity.internal.testutils.TestUtils;
+import com.microsoft.identity.internal.testutils.shadows.ShadowHttpClient;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.microsoft.identity.internal.testutils.TestConstants.Authorities.AAD_MOCK_AUTHORITY;
+import static com.microsoft.identity.internal.testutils.TestConstants.Configurations.SINGLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = {
+        ShadowStorageHelper.class,
+        ShadowMockAuthority.class,
+        ShadowHttpClient.class,
+        ShadowPublicClientApplicationConfiguration.class,
+        ShadowOpenIdProviderConfigurationClient.class
+})
+public class SingleAccountCurrentAccountFastPathTest extends AcquireTokenAbstractTest {
+
+    private static final String PUBLIC_API_ID = "test_api_id";
+
+    private SingleAccountPublicClientApplication mSingleAccountPCA;
+    private MultiTenantAccount mPersistedAccount;
+    private MultiTenantAccount mReconciledAccount;
+
+    @Override
+    public String[] getScopes() {
+        return TestConstants.Scopes.USER_READ_SCOPE;
+    }
+
+    @Override
+    public String getAuthority() {
+        return AAD_MOCK_AUTHORITY;
+    }
+
+    @Override
+    public String getConfigFilePath() {
+        return SINGLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
+    }
+
+    @Before
+    public void setup() {
+        super.setup();
+        TestUtils.clearCache(SingleAccountPublicClientApplication.SINGLE_ACCOUNT_CREDENTIAL_SHARED_PREFERENCES);
+        mSingleAccountPCA = Mockito.spy((SingleAccountPublicClientApplication) mApplication);
+        mPersistedAccount = Mockito.mock(MultiTenantAccount.class);
+        mReconciledAccount = Mockito.mock(MultiTenantAccount.class);
+
+        Mockito.doReturn(mPersistedAccount).when(mSingleAccountPCA).getPersistedCurrentAccount();
+        Mockito.doAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(final InvocationOnMock invocation) {
+                ((Runnable) invocation.getArgument(0)).run();
+                return true;
+            }
+        }).when(mSingleAccountPCA).runOnBackgroundExecutor(Mockito.any(Runnable.class));
+    }
+
+    @Test
+    public void testUnchangedAccountIsOnlyLoadedOnce() {
+        reconcileWith(new Reconciliation() {
+            @Override
+            public void deliver(@NonNull final CurrentAccountCallback callback) {
+                callback.onAccountLoaded(mPersistedAccount);
+            }
+        });
+        final CurrentAccountCallback callback = Mockito.mock(CurrentAccountCallback.class);
+
+        Assert.assertTrue(mSingleAccountPCA.getCurrentAccountFromSnapshot(callback, PUBLIC_API_ID));
+        Robolectric.flushForegroundThreadScheduler();
+
+        Mockito.verify(callback, Mockito.times(1)).onAccountLoaded(mPersistedAccount);
+        Mockito.verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    public void testChangedAccountIsOnlyReportedThroughOnAccountChanged() {
+        reconcileWith(new Reconciliation() {
+            @Override
+            public void deliver(@NonNull final CurrentAccountCallback callback) {
+                callback.onAccountChanged(mPersistedAccount, mReconciledAccount);
+                callback.onAccountLoaded(mReconciledAccount);
+            }
+        });
+        final CurrentAccountCallback callback = Mockito.mock(CurrentAccountCallback.class);
+
+        Assert.assertTrue(mSingleAccountPCA.getCurrentAccountFromSnapshot(callback, PUBLIC_API_ID));
+        Robolectric.flushForegroundThreadScheduler();
+
+        final InOrder inOrder = Mockito.inOrder(callback);
+        inOrder.verify(callback).onAccountLoaded(mPersistedAccount);
+        inOrder.verify(callback).onAccountChanged(mPersistedAccount, mReconciledAccount);
+        Mockito.verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    public void testChangedAccountIsDeliveredOnTheSameThreadAsTheLoadedOne() {
+        reconcileWith(new Reconciliation() {
+            @Override
+            public void deliver(@NonNull final CurrentAccountCallback callback) {
+                final Thread reconciler = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onAccountChanged(mPersistedAccount, mReconciledAccount);
+                    }
+                });
+                reconciler.start();
+
+                try {
+                    reconciler.join();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        final Thread[] deliveredOn = new Thread[2];
+        final CurrentAccountCallback callback = Mockito.mock(CurrentAccountCallback.class);
+        Mockito.doAnswer(recordThread(deliveredOn, 0)).when(callback).onAccountLoaded(mPersistedAccount);
+        Mockito.doAnswer(recordThread(deliveredOn, 1)).when(callback).onAccountChanged(mPersistedAccount, mReconciledAccount);
+
+        Assert.assertTrue(mSingleAccountPCA.getCurrentAccountFromSnapshot(callback, PUBLIC_API_ID));
+        Robolectric.flushForegroundThreadScheduler();
+
+        Assert.assertSame(Thread.currentThread(), deliveredOn[0]);
+        Assert.assertSame(Thread.currentThread(), deliveredOn[1]);
+    }
+
+    @Test
+    public void testFailedReconciliationDoesNotInvokeCallbackAgain() {
+        reconcileWith(new Reconciliation() {
+            @Override
+            public void deliver(@NonNull final CurrentAccountCallback callback) {
+                callback.onError(new MsalClientException(MsalClientException.UNKNOWN_ERROR));
+            }
+        });
+        final CurrentAccountCallback callback = Mockito.mock(CurrentAccountCallback.class);
+
+        Assert.assertTrue(mSingleAccountPCA.getCurrentAccountFromSnapshot(callback, PUBLIC_API_ID));
+        Robolectric.flushForegroundThreadScheduler();
+
+        Mockito.verify(callback, Mockito.times(1)).onAccountLoaded(mPersistedAccount);
+        Mockito.verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    public void testCurrentAccountFutureWaitsForReconciliation() throws Exception {
+        reconcileWith(new Reconciliation() {
+            @Override
+            public void deliver(@NonNull final CurrentAccountCallback callback) {
+                callback.onAccountChanged(mPersistedAccount, mReconciledAccount);
+                callback.onAccountLoaded(mReconciledAccount);
+            }
+        });
+
+        final ICurrentAccountResult result = mSingleAccountPCA.getCurrentAccountFuture().get();
+
+        Assert.assertSame(mReconciledAccount, result.getCurrentAccount());
+        Assert.assertSame(mPersistedAccount, result.getPriorAccount());
+        Mockito.verify(mSingleAccountPCA, Mockito.never()).getCurrentAccountFromSnapshot(
+                Mockito.any(CurrentAccountCallback.class),
+                Mockito.anyString()
+        );
+    }
+
+    private static Answer<Void> recordThread(@NonNull final Thread[] threads, final int index) {
+        return new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                threads[index] = Thread.currentThread();
+                return null;
+            }
+        };
+    }
+
+    private interface Reconciliation {
+        void deliver(@NonNull CurrentAccountCallback callback);
+    }
+
+    private void reconcileWith(@NonNull final Reconciliation reconciliation) {
+        Mockito.doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                reconciliation.deliver((CurrentAccountCallback) invocation.getArgument(0));
+                return null;
+            }
+        }).when(mSingleAccountPCA).loadCurrentAccount(
+                Mockito.any(CurrentAccountCallback.class),
+                Mockito.anyString()
+        );
+    }
+}
@@ -0,0 +1,80 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class StartupTraceTest {
+
+    @Test
+    public void testStepsRecordedInCompletionOrder() {
+        final StartupTrace trace = new StartupTrace();
+        final long start = StartupTrace.start();
+
+        trace.recordCriticalStep(StartupMetrics.STEP_TELEMETRY, start);
+        trace.recordCriticalStep(StartupMetrics.STEP_CONFIGURATION, start);
+        trace.recordCriticalPath(start);
+
+        final StartupMetrics metrics = trace.getMetrics();
+
+        Assert.assertEquals(
+                Arrays.asList(StartupMetrics.STEP_TELEMETRY, StartupMetrics.STEP_CONFIGURATION),
+                new ArrayList<>(metrics.getCriticalStepMillis().keySet())
+        );
+        Assert.assertTrue(metrics.getDeferredStepMillis().isEmpty());
+        Assert.assertFalse(metrics.isDeferredComplete());
+    }
+
+    @Test
+    public void testDurationsMeasuredFromStart() {
+        final StartupTrace trace = new StartupTrace();
+        final long start = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(250);
+
+        trace.recordDeferredStep(StartupMetrics.STEP_HTTP_CACHE, start);
+        trace.onDeferredComplete();
+
+        final StartupMetrics metrics = trace.getMetrics();
+
+        Assert.assertTrue(metrics.getDeferredStepMillis().get(StartupMetrics.STEP_HTTP_CACHE) >= 250);
+        Assert.assertTrue(metrics.isDeferredComplete());
+    }
+
+    @Test
+    public void testMetricsAreASnapshot() {
+        final StartupTrace trace = new StartupTrace();
+        final StartupMetrics before = trace.getMetrics();
+
+        trace.recordDeferredStep(StartupMetrics.STEP_HTTP_CACHE, StartupTrace.start());
+
+        Assert.assertTrue(before.getDeferredStepMillis().isEmpty());
+        Assert.assertEquals(1, trace.getMetrics().getDeferredStepMillis().size());
+    }
+}
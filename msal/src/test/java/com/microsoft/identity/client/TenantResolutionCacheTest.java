@@ -0,0 +1,93 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.common.internal.cache.ISharedPreferencesFileManager;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class TenantResolutionCacheTest {
+
+    private static final String AUTHORITY = "https://login.microsoftonline.com/contoso.onmicrosoft.com";
+    private static final String TENANT_ID = "f645ad92-e38d-4d1a-b510-d1b09a74a8ca";
+    private static final long TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private ISharedPreferencesFileManager mFileManager;
+
+    @Before
+    public void setup() {
+        mFileManager = Mockito.mock(ISharedPreferencesFileManager.class);
+    }
+
+    @Test
+    public void testResolvedTenantIdIsReturnedAndWrittenToDisk() {
+        final TenantResolutionCache cache = new TenantResolutionCache(mFileManager, TTL_MILLIS);
+
+        Assert.assertNull(cache.getTenantId(AUTHORITY));
+
+        cache.putTenantId(AUTHORITY, TENANT_ID);
+
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY));
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY.toUpperCase() + "/"));
+
+        final ArgumentCaptor<String> value = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(mFileManager).putString(Mockito.eq(AUTHORITY), value.capture());
+        Assert.assertTrue(value.getValue().endsWith("|" + TENANT_ID));
+    }
+
+    @Test
+    public void testTenantIdIsLoadedFromDisk() {
+        final long expiresOn = System.currentTimeMillis() + TTL_MILLIS;
+        Mockito.when(mFileManager.getString(AUTHORITY)).thenReturn(expiresOn + "|" + TENANT_ID);
+
+        final TenantResolutionCache cache = new TenantResolutionCache(mFileManager, TTL_MILLIS);
+
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY));
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY));
+        Mockito.verify(mFileManager, Mockito.times(1)).getString(AUTHORITY);
+    }
+
+    @Test
+    public void testExpiredTenantIdIsIgnored() {
+        final long expiresOn = System.currentTimeMillis() - 1;
+        Mockito.when(mFileManager.getString(AUTHORITY)).thenReturn(expiresOn + "|" + TENANT_ID);
+
+        Assert.assertNull(new TenantResolutionCache(mFileManager, TTL_MILLIS).getTenantId(AUTHORITY));
+    }
+
+    @Test
+    public void testMalformedEntryIsIgnored() {
+        Mockito.when(mFileManager.getString(AUTHORITY)).thenReturn(TENANT_ID);
+
+        Assert.assertNull(new TenantResolutionCache(mFileManager, TTL_MILLIS).getTenantId(AUTHORITY));
+    }
+}
@@ -0,0 +1,208 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class TokenRefreshSchedulerTest {
+
+    private static final long LEAD_TIME_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final long WAIT_MILLIS = 2000;
+
+    private final BlockingQueue<AcquireTokenSilentParameters> mRefreshes = new LinkedBlockingQueue<>();
+    private ScheduledThreadPoolExecutor mExecutor;
+    private PublicClientApplicationConfiguration mConfiguration;
+    private MultiTenantAccount mAccount;
+
+    @Before
+    public void setup() {
+        mExecutor = TokenRefreshScheduler.newExecutor();
+        mConfiguration = new PublicClientApplicationConfiguration();
+        mConfiguration.setClientId("some-client-id");
+
+        mAccount = new MultiTenantAccount(null, null);
+        mAccount.setId("uid");
+        mAccount.setTenantId("utid");
+    }
+
+    @After
+    public void tearDown() {
+        mExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testTokenInsideLeadWindowIsRefreshed() throws InterruptedException {
+        final TokenRefreshScheduler scheduler = newScheduler(2);
+        final AcquireTokenSilentParameters parameters = newParameters("User.Read");
+
+        scheduler.track(keyOf(parameters), parameters, resultExpiringIn(LEAD_TIME_MILLIS / 2));
+
+        final AcquireTokenSilentParameters refresh = mRefreshes.poll(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        Assert.assertNotNull(refresh);
+        Assert.assertTrue(refresh.getForceRefresh());
+        Assert.assertSame(mAccount, refresh.getAccount());
+        Assert.assertEquals(parameters.getScopes(), refresh.getScopes());
+        Assert.assertEquals(parameters.getAuthority(), refresh.getAuthority());
+        Assert.assertEquals(1, scheduler.getRefreshCount());
+    }
+
+    @Test
+    public void testTokenOutsideLeadWindowIsOnlyScheduled() throws InterruptedException {
+        final TokenRefreshScheduler scheduler = newScheduler(2);
+        final AcquireTokenSilentParameters parameters = newParameters("User.Read");
+
+        scheduler.track(keyOf(parameters), parameters, resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+
+        Assert.assertNull(mRefreshes.poll(200, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(1, scheduler.getScheduledCount());
+    }
+
+    @Test
+    public void testRefreshResultIsNotTrackedAgain() throws InterruptedException {
+        final TokenRefreshScheduler scheduler = newScheduler(2);
+        final AcquireTokenSilentParameters parameters = newParameters("User.Read");
+        final SilentTokenRequestKey key = keyOf(parameters);
+
+        scheduler.track(key, parameters, resultExpiringIn(LEAD_TIME_MILLIS / 2));
+
+        final AcquireTokenSilentParameters refresh = mRefreshes.poll(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        Assert.assertNotNull(refresh);
+
+        final IAuthenticationResult renewed = resultExpiringIn(TimeUnit.HOURS.toMillis(1));
+        scheduler.track(key, refresh, renewed);
+        refresh.getCallback().onSuccess(renewed);
+
+        Assert.assertEquals(0, scheduler.getScheduledCount());
+        Assert.assertEquals(0, scheduler.getRefreshingCount());
+    }
+
+    @Test
+    public void testConcurrentRefreshesAreCapped() throws InterruptedException {
+        final TokenRefreshScheduler scheduler = newScheduler(1);
+        final AcquireTokenSilentParameters first = newParameters("User.Read");
+        final AcquireTokenSilentParameters second = newParameters("Mail.Read");
+
+        scheduler.track(keyOf(first), first, resultExpiringIn(LEAD_TIME_MILLIS / 2));
+        scheduler.track(keyOf(second), second, resultExpiringIn(LEAD_TIME_MILLIS / 2));
+
+        final AcquireTokenSilentParameters running = mRefreshes.poll(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        Assert.assertNotNull(running);
+        Assert.assertNull(mRefreshes.poll(200, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(1, scheduler.getRefreshingCount());
+
+        running.getCallback().onError(new MsalClientException(MsalClientException.UNKNOWN_ERROR));
+
+        Assert.assertNotNull(mRefreshes.poll(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(1, scheduler.getFailureCount());
+    }
+
+    @Test
+    public void testRepeatedTrackingOfSameTokenKeepsOneQueuedRefresh() {
+        final TokenRefreshScheduler scheduler = newScheduler(2);
+        final AcquireTokenSilentParameters parameters = newParameters("User.Read");
+        final SilentTokenRequestKey key = keyOf(parameters);
+        final IAuthenticationResult result = resultExpiringIn(TimeUnit.HOURS.toMillis(1));
+
+        for (int i = 0; i < 100; i++) {
+            scheduler.track(key, parameters, result);
+        }
+
+        Assert.assertEquals(1, scheduler.getScheduledCount());
+        Assert.assertEquals(1, mExecutor.getQueue().size());
+
+        // A renewed token replaces the scheduled refresh without leaving the old one queued.
+        scheduler.track(key, parameters, resultExpiringIn(TimeUnit.HOURS.toMillis(2)));
+
+        Assert.assertEquals(1, scheduler.getScheduledCount());
+        Assert.assertEquals(1, mExecutor.getQueue().size());
+    }
+
+    @Test
+    public void testCancelAccountDropsScheduledRefreshes() {
+        final TokenRefreshScheduler scheduler = newScheduler(2);
+        final AcquireTokenSilentParameters parameters = newParameters("User.Read");
+        final SilentTokenRequestKey key = keyOf(parameters);
+
+        scheduler.track(key, parameters, resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+        scheduler.cancelAccount(key.getHomeAccountId());
+
+        Assert.assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    public void testSchedulerIsNotCreatedUnlessEnabled() {
+        Assert.assertNull(TokenRefreshScheduler.create(null, new RecordingRefresher()));
+    }
+
+    private TokenRefreshScheduler newScheduler(final int maxConcurrentRefreshes) {
+        return new TokenRefreshScheduler(
+                mExecutor,
+                new RecordingRefresher(),
+                LEAD_TIME_MILLIS,
+                0,
+                maxConcurrentRefreshes,
+                50
+        );
+    }
+
+    private AcquireTokenSilentParameters newParameters(final String scope) {
+        return new AcquireTokenSilentParameters.Builder()
+                .forAccount(mAccount)
+                .fromAuthority("https://login.microsoftonline.com/common")
+                .withScopes(Collections.singletonList(scope))
+                .build();
+    }
+
+    private SilentTokenRequestKey keyOf(final AcquireTokenSilentParameters parameters) {
+        return SilentTokenRequestKey.of(mConfiguration, parameters);
+    }
+
+    private static IAuthenticationResult resultExpiringIn(final long millis) {
+        final IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+        Mockito.when(result.getExpiresOn()).thenReturn(new Date(System.currentTimeMillis() + millis));
+        return result;
+    }
+
+    private class RecordingRefresher implements TokenRefreshScheduler.Refresher {
+        @Override
+        public void refresh(final AcquireTokenSilentParameters parameters) {
+            mRefreshes.add(parameters);
+        }
+    }
+}
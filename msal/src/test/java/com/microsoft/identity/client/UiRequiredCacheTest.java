@@ -0,0 +1,123 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.client.exception.MsalUiRequiredException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static com.microsoft.identity.client.RoboTestCacheHelper.account;
+
+@RunWith(RobolectricTestRunner.class)
+public class UiRequiredCacheTest {
+
+    private static final String CLIENT_ID = "some-client-id";
+    private static final String AUTHORITY = "https://login.microsoftonline.com/common";
+    private static final long TTL = TimeUnit.SECONDS.toMillis(30);
+    private static final long NOW = 1000000L;
+
+    private PublicClientApplicationConfiguration mConfiguration;
+    private UiRequiredCache mCache;
+
+    @Before
+    public void setup() {
+        mConfiguration = new PublicClientApplicationConfiguration();
+        mConfiguration.setClientId(CLIENT_ID);
+        mCache = new UiRequiredCache(2);
+    }
+
+    @Test
+    public void testCachedFailureReturnedUntilExpiry() {
+        final MsalUiRequiredException exception = new MsalUiRequiredException("invalid_grant");
+        mCache.put(key("uid", "User.Read"), exception, TTL, NOW);
+
+        Assert.assertSame(exception, mCache.get(key("uid", "user.read"), NOW + TTL - 1));
+        Assert.assertEquals(1, mCache.getHitCount());
+
+        Assert.assertNull(mCache.get(key("uid", "User.Read"), NOW + TTL));
+        Assert.assertEquals(0, mCache.size());
+    }
+
+    @Test
+    public void testNothingCachedWithoutPositiveTtl() {
+        mCache.put(key("uid", "User.Read"), new MsalUiRequiredException("invalid_grant"), 0, NOW);
+
+        Assert.assertNull(mCache.get(key("uid", "User.Read"), NOW));
+    }
+
+    @Test
+    public void testNoFailureForDifferentScopes() {
+        mCache.put(key("uid", "User.Read"), new MsalUiRequiredException("invalid_grant"), TTL, NOW);
+
+        Assert.assertNull(mCache.get(key("uid", "Mail.Read"), NOW));
+    }
+
+    @Test
+    public void testRemoveDropsEntry() {
+        mCache.put(key("uid", "User.Read"), new MsalUiRequiredException("invalid_grant"), TTL, NOW);
+
+        mCache.remove(key("uid", "User.Read"));
+
+        Assert.assertNull(mCache.get(key("uid", "User.Read"), NOW));
+    }
+
+    @Test
+    public void testRemoveAccountDropsOnlyThatAccount() {
+        mCache.put(key("uid", "User.Read"), new MsalUiRequiredException("invalid_grant"), TTL, NOW);
+        mCache.put(key("other-uid", "User.Read"), new MsalUiRequiredException("invalid_grant"), TTL, NOW);
+
+        mCache.removeAccount(account("uid").getHomeAccountId());
+
+        Assert.assertNull(mCache.get(key("uid", "User.Read"), NOW));
+        Assert.assertNotNull(mCache.get(key("other-uid", "User.Read"), NOW));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        mCache.put(key("uid", "a"), new MsalUiRequiredException("invalid_grant"), TTL, NOW);
+        mCache.put(key("uid", "b"), new MsalUiRequiredException("invalid_grant"), TTL, NOW);
+        mCache.get(key("uid", "a"), NOW);
+        mCache.put(key("uid", "c"), new MsalUiRequiredException("invalid_grant"), TTL, NOW);
+
+        Assert.assertEquals(2, mCache.size());
+        Assert.assertNotNull(mCache.get(key("uid", "a"), NOW));
+        Assert.assertNull(mCache.get(key("uid", "b"), NOW));
+    }
+
+    private SilentTokenRequestKey key(final String uid, final String... scopes) {
+        final AcquireTokenSilentParameters parameters = new AcquireTokenSilentParameters.Builder()
+                .forAccount(account(uid))
+                .fromAuthority(AUTHORITY)
+                .withScopes(Arrays.asList(scopes))
+                .build();
+
+        return SilentTokenRequestKey.of(mConfiguration, parameters);
+    }
+}
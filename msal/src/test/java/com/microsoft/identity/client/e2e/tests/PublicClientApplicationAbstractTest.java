@@ -30,6 +30,7 @@ import androidx.test.core.app.ApplicationProvider;
 import com.microsoft.identity.client.IPublicClientApplication;
 import com.microsoft.identity.client.Logger;
 import com.microsoft.identity.client.PublicClientApplication;
+import com.microsoft.identity.client.RoboTestCacheHelper;
 import com.microsoft.identity.client.exception.MsalException;
 import com.microsoft.identity.common.internal.controllers.CommandDispatcherHelper;
 
@@ -59,6 +60,7 @@ public abstract class PublicClientApplicationAbstractTest implements IPublicClie
         Logger.getInstance().setEnablePII(true);
         Logger.getInstance().setLogLevel(Logger.LogLevel.VERBOSE);
         CommandDispatcherHelper.clear();
+        RoboTestCacheHelper.clearInMemoryCaches();
     }
 
     private void setupPCA() {
@@ -0,0 +1,116 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal.controllers;
+
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.microsoft.identity.common.adal.internal.AuthenticationConstants;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class BrokerInstallationCacheTest {
+
+    private static final String THIRD_PARTY_BROKER = "com.contoso.broker";
+
+    private Context mContext;
+    private BrokerInstallationCache mCache;
+    private CountingProbe mProbe;
+
+    @Before
+    public void setup() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mCache = new BrokerInstallationCache();
+        mProbe = new CountingProbe();
+    }
+
+    @Test
+    public void testAnswerIsCachedAfterFirstProbe() {
+        mProbe.mBrokerPackage = AuthenticationConstants.Broker.AZURE_AUTHENTICATOR_APP_PACKAGE_NAME;
+
+        Assert.assertTrue(mCache.isBrokerInstalled(mContext, mProbe));
+        Assert.assertTrue(mCache.isBrokerInstalled(mContext, mProbe));
+        Assert.assertTrue(mCache.isBrokerInstalled(mContext, mProbe));
+
+        Assert.assertEquals(1, mProbe.mCount);
+        Assert.assertEquals(1, mCache.getMissCount());
+        Assert.assertEquals(2, mCache.getHitCount());
+    }
+
+    @Test
+    public void testBrokerPackageChangeInvalidates() {
+        Assert.assertFalse(mCache.isBrokerInstalled(mContext, mProbe));
+
+        mProbe.mBrokerPackage = AuthenticationConstants.Broker.COMPANY_PORTAL_APP_PACKAGE_NAME;
+        mCache.onPackageChanged(packageIntent(Intent.ACTION_PACKAGE_ADDED, mProbe.mBrokerPackage));
+
+        Assert.assertTrue(mCache.isBrokerInstalled(mContext, mProbe));
+        Assert.assertEquals(2, mProbe.mCount);
+    }
+
+    @Test
+    public void testUnrelatedPackageChangeIsIgnored() {
+        Assert.assertFalse(mCache.isBrokerInstalled(mContext, mProbe));
+
+        mCache.onPackageChanged(packageIntent(Intent.ACTION_PACKAGE_ADDED, "com.contoso.game"));
+
+        Assert.assertFalse(mCache.isBrokerInstalled(mContext, mProbe));
+        Assert.assertEquals(1, mProbe.mCount);
+    }
+
+    @Test
+    public void testDiscoveredBrokerPackageIsWatched() {
+        mProbe.mBrokerPackage = THIRD_PARTY_BROKER;
+        Assert.assertTrue(mCache.isBrokerInstalled(mContext, mProbe));
+
+        mProbe.mBrokerPackage = null;
+        mCache.onPackageChanged(packageIntent(Intent.ACTION_PACKAGE_REMOVED, THIRD_PARTY_BROKER));
+
+        Assert.assertFalse(mCache.isBrokerInstalled(mContext, mProbe));
+        Assert.assertEquals(2, mProbe.mCount);
+    }
+
+    private static Intent packageIntent(final String action, final String packageName) {
+        return new Intent(action, Uri.fromParts("package", packageName, null));
+    }
+
+    private static class CountingProbe implements BrokerInstallationCache.Probe {
+        private String mBrokerPackage;
+        private int mCount;
+
+        @Override
+        public String findTrustedBroker(@NonNull final Context applicationContext) {
+            mCount++;
+            return mBrokerPackage;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal.controllers;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.microsoft.identity.common.internal.controllers.BaseController;
+import com.microsoft.identity.common.internal.controllers.LocalMSALController;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class ControllerRegistryTest {
+
+    private BrokerInstallationCache mBrokerInstallationCache;
+    private ControllerRegistry mRegistry;
+
+    @Before
+    public void setup() {
+        mBrokerInstallationCache = new BrokerInstallationCache();
+        mRegistry = new ControllerRegistry(
+                ApplicationProvider.getApplicationContext(),
+                mBrokerInstallationCache
+        );
+    }
+
+    @Test
+    public void testLocalControllerIsReused() {
+        final BaseController first = mRegistry.getLocalController();
+        final BaseController second = mRegistry.getLocalController();
+
+        Assert.assertTrue(first instanceof LocalMSALController);
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, mRegistry.getCreatedCount());
+        Assert.assertEquals(1, mRegistry.getReusedCount());
+    }
+
+    @Test
+    public void testControllerListIsCached() {
+        final List<BaseController> first = mRegistry.getControllers(false);
+        final List<BaseController> second = mRegistry.getControllers(false);
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, first.size());
+        Assert.assertSame(mRegistry.getLocalController(), first.get(0));
+        Assert.assertEquals(1, mRegistry.getCreatedCount());
+    }
+
+    @Test
+    public void testBrokerControllerIsDroppedWhenBrokerInstallationChanges() {
+        final BaseController broker = mRegistry.getBrokerController();
+        final List<BaseController> controllers = mRegistry.getControllers(true);
+        Assert.assertSame(broker, mRegistry.getBrokerController());
+        Assert.assertSame(broker, controllers.get(1));
+
+        mBrokerInstallationCache.invalidate();
+
+        final List<BaseController> refreshed = mRegistry.getControllers(true);
+        Assert.assertNotSame(controllers, refreshed);
+        Assert.assertNotSame(broker, refreshed.get(1));
+        Assert.assertSame(controllers.get(0), refreshed.get(0));
+        Assert.assertSame(refreshed.get(1), mRegistry.getBrokerController());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testControllerListIsUnmodifiable() {
+        mRegistry.getControllers(false).add(new LocalMSALController());
+    }
+}